@@ -65,6 +65,26 @@ trait AbstractDomain {
     */
   def narrowings: Seq[NarrowingDescription[Property]] = Seq(NarrowingDescription.default[Property])
 
+  /**
+   * Returns the union of `init` and all the properties in `props`. Domains may override it to
+   * avoid building the intermediate results.
+   */
+  def unionAll(init: Property, props: IterableOnce[Property]): Property =
+    props.iterator.foldLeft(init)(_ union _)
+
+  /**
+   * Returns a canonical property equal to `p`, so that equal properties may be shared by
+   * the program points of an analysis. The default implementation returns `p` itself.
+   */
+  def intern(p: Property): Property = p
+
+  /**
+   * Returns true if the properties of the domain may be used by several threads at the same time.
+   * This requires that operations never mutate properties or state shared by the domain. Parallel
+   * analyzers only use more than one thread for domains which are thread-safe. The default is false.
+   */
+  def isThreadSafe: Boolean = false
+
   /**
    * ScalaFixDomain is an instance of the ScalaFix type-class Domain for this abstract domain.
    */
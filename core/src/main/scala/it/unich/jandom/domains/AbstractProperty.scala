@@ -105,10 +105,11 @@ trait AbstractProperty[Property <: AbstractProperty[Property]] extends Partially
   def isEmpty: Boolean
 
   /**
-   * Determines if two properties are the same on the base of `tryCompareTo`
+   * Determines if two properties are the same on the base of `tryCompareTo`. Identical
+   * properties, such as those returned by `AbstractDomain.intern`, are not compared.
    */
   override def equals(other: Any): Boolean = other match {
-    case other: AbstractProperty[Property @unchecked] => this.tryCompareTo(other) == Some(0)
+    case other: AbstractProperty[Property @unchecked] => (this eq other) || this.tryCompareTo(other) == Some(0)
     case _ => false
   }
 }
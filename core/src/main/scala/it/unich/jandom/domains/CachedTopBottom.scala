@@ -18,31 +18,26 @@
 
 package it.unich.jandom.domains
 
+import scala.collection.concurrent.TrieMap
+
 /**
  * A trait which implements caching of top and bottom values in a
- * dimension fibered domain.
+ * dimension fibered domain. Caches are concurrent maps, so that the
+ * trait may be mixed with thread-safe domains.
  * @author Gianluca Amato <gamato@unich.it>
  */
 trait CachedTopBottom extends DimensionFiberedDomain {
   /**
    * This is the cache for bottom properties.
    */
-  private var cacheBottom: Map[Int, Property] = Map()
+  private val cacheBottom = TrieMap[Int, Property]()
 
-  abstract override def bottom(n: Int): Property = {
-    if (!(cacheBottom isDefinedAt n))
-      cacheBottom += (n -> super.bottom(n))
-    cacheBottom(n)
-  }
+  abstract override def bottom(n: Int): Property = cacheBottom.getOrElseUpdate(n, super.bottom(n))
 
   /**
    * This is the cache for top properties.
    */
-  private var cacheTop: Map[Int, Property] = Map()
+  private val cacheTop = TrieMap[Int, Property]()
 
-  abstract override def top(n: Int): Property = {
-    if (!(cacheTop isDefinedAt n))
-      cacheTop += (n -> super.top(n))
-    cacheTop(n)
-  }
+  abstract override def top(n: Int): Property = cacheTop.getOrElseUpdate(n, super.top(n))
 }
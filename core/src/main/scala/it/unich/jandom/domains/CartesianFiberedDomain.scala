@@ -18,6 +18,8 @@
 
 package it.unich.jandom.domains
 
+import it.unich.jandom.utils.InternTable
+
 /**
  * This is the trait for a cartesian fibered domain. The fibers of this domain are
  * identified by finite sequence of elements.
@@ -42,4 +44,18 @@ trait CartesianFiberedDomain extends AbstractDomain {
    * Returns the bottom element of the given fiber.
    */
   def bottom(f: Fiber): Property
+
+  /**
+   * The intern tables used by `intern`, one for each fiber, since properties in
+   * different fibers cannot be compared.
+   */
+  private lazy val internTables = new java.util.concurrent.ConcurrentHashMap[Fiber, InternTable[Property]]
+
+  /**
+   * @inheritdoc
+   * Properties are hash-consed in a weak intern table, hence they should have hash codes
+   * consistent with `equals`. It is thread-safe.
+   */
+  override def intern(p: Property): Property =
+    internTables.computeIfAbsent(p.fiber, _ => new InternTable[Property]).intern(p)
 }
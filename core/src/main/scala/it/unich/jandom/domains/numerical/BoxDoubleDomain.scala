@@ -48,12 +48,19 @@ class BoxDoubleDomain(val overReals: Boolean) extends BoxGenericDomain[Double] {
    * @param low the lower bounds of the box.
    * @param high the upper bounds of the box.
    * @param isEmpty is true when the box is empty. It is needed for the case of 0-dimensional boxes.
+   * @param trusted is true when the parameters are known to be normalized, hence they are not checked.
    * @note `low`, `high` and `isEmpty` should be normalized according to the method `normalized`
    * @throws IllegalArgumentException if parameters are not correct.
    */
 
-  final class Property(val low: Array[Double], val high: Array[Double], val isEmpty: Boolean) extends NumericalProperty[Property] {
-    require(normalized, s"The parameters low: ${low.mkString(",")}, high: ${high.mkString(",")} and isEmpty: ${isEmpty} are not normalized")
+  final class Property private[BoxDoubleDomain] (val low: Array[Double], val high: Array[Double], val isEmpty: Boolean, trusted: Boolean)
+    extends NumericalProperty[Property] {
+    require(trusted || normalized, s"The parameters low: ${low.mkString(",")}, high: ${high.mkString(",")} and isEmpty: ${isEmpty} are not normalized")
+
+    /**
+     * Creates a box with given lower and upper bounds, checking that they are normalized.
+     */
+    def this(low: Array[Double], high: Array[Double], isEmpty: Boolean) = this(low, high, isEmpty, false)
 
     type Domain = BoxDoubleDomain
 
@@ -160,7 +167,8 @@ class BoxDoubleDomain(val overReals: Boolean) extends BoxGenericDomain[Double] {
       require(dimension == that.dimension)
       val newlow = (this.low lazyZip that.low) map (_ min _)
       val newhigh = (this.high lazyZip that.high) map (_ max _)
-      new Property(newlow, newhigh, isEmpty && that.isEmpty)
+      // the union of normalized boxes is normalized
+      new Property(newlow, newhigh, isEmpty && that.isEmpty, true)
     }
 
     /**
@@ -210,9 +218,25 @@ class BoxDoubleDomain(val overReals: Boolean) extends BoxGenericDomain[Double] {
      * of the linear form over the box.
      */
     def linearEvaluation(lf: LinearForm): (Double, Double) = {
-      val known = lf.known.toDouble
-      val homcoeffs = lf.homcoeffs map (_.toDouble)
-      linearEvaluation(known, homcoeffs)
+      require(lf.dimension <= dimension)
+      // only non-zero coefficients are visited, which is cheaper for sparse linear forms
+      val pairs = lf.pairs
+      var newlow = lf.known.toDouble
+      var newhigh = newlow
+      if (isEmpty && pairs.nonEmpty)
+        (Double.PositiveInfinity, Double.NegativeInfinity)
+      else {
+        for ((i, c) <- pairs; coeff = c.toDouble) {
+          if (coeff < 0) {
+            newlow = add_lo(newlow, mul_lo(coeff, high(i)))
+            newhigh = add_hi(newhigh, mul_hi(coeff, low(i)))
+          } else if (coeff > 0) {
+            newlow = add_lo(newlow, mul_lo(coeff, low(i)))
+            newhigh = add_hi(newhigh, mul_hi(coeff, high(i)))
+          }
+        }
+        (newlow, newhigh)
+      }
     }
 
     /**
@@ -353,12 +377,12 @@ class BoxDoubleDomain(val overReals: Boolean) extends BoxGenericDomain[Double] {
      * @throws $ILLEGAL
      */
     def linearDisequality(lf: LinearForm): Property = {
-      val count = lf.homcoeffs.count(! _.isZero)
-      count match {
+      val pairs = lf.pairs
+      pairs.size match {
         case 0 =>
           if (lf.known.isZero) bottom else this
         case 1 =>
-          val dim = lf.homcoeffs.indexWhere(! _.isZero)
+          val dim = pairs.head._1
           if (low(dim) == lf.known.toDouble && high(dim) == lf.known.toDouble)
             bottom
           else
@@ -468,11 +492,93 @@ class BoxDoubleDomain(val overReals: Boolean) extends BoxGenericDomain[Double] {
       case _ => Option.empty
     }
 
-    override def hashCode: Int = 41 * (41 + low.hashCode) + high.hashCode
+    /**
+      * Consistent with `equals`, hence all empty boxes of the same dimension have the same
+      * hash code, and 0.0 and -0.0 are not distinguished. Since boxes are immutable, it is
+      * computed once.
+      */
+    override lazy val hashCode: Int = {
+      def h(x: Double) = if (x == 0) 0 else java.lang.Double.hashCode(x)
+      var hash = dimension
+      if (!isEmpty) {
+        var i = 0
+        while (i < low.length) {
+          hash = 41 * (41 * hash + h(low(i))) + h(high(i))
+          i += 1
+        }
+      }
+      hash
+    }
   }
 
   val widenings = Seq(WideningDescription.default[Property])
 
+  /**
+   * @inheritdoc
+   * Boxes are immutable, hence the domain is thread-safe.
+   */
+  override def isThreadSafe: Boolean = true
+
+  /**
+   * A mutable accumulator for the union of many boxes of the same dimension. Bounds are
+   * joined in place in a single pair of arrays, which become the bounds of the result
+   * without being copied or checked again.
+   *
+   * @param init the first box of the union.
+   */
+  final class UnionBuilder(init: Property) {
+    private var low = init.low.clone()
+    private var high = init.high.clone()
+    private var isEmpty = init.isEmpty
+
+    /**
+     * Joins `that` to the current union.
+     * @throws IllegalArgumentException if `that` has a different dimension.
+     * @throws IllegalStateException if `result` has already been called.
+     */
+    def +=(that: Property): this.type = {
+      if (low == null) throw new IllegalStateException("The builder has already been used")
+      require(low.length == that.dimension)
+      if (!that.isEmpty) {
+        var i = 0
+        while (i < low.length) {
+          if (that.low(i) < low(i)) low(i) = that.low(i)
+          if (that.high(i) > high(i)) high(i) = that.high(i)
+          i += 1
+        }
+        isEmpty = false
+      }
+      this
+    }
+
+    /**
+     * Returns the union of all the boxes. The builder cannot be used anymore.
+     * @throws IllegalStateException if `result` has already been called.
+     */
+    def result(): Property = {
+      if (low == null) throw new IllegalStateException("The builder has already been used")
+      val p = new Property(low, high, isEmpty, true)
+      low = null
+      high = null
+      p
+    }
+  }
+
+  /**
+   * @inheritdoc
+   * It uses an `UnionBuilder`, hence it only allocates the bounds of the result.
+   */
+  override def unionAll(init: Property, props: IterableOnce[Property]): Property = {
+    val it = props.iterator
+    if (!it.hasNext)
+      init
+    else {
+      val builder = new UnionBuilder(init)
+      it foreach (builder += _)
+      builder.result()
+    }
+  }
+
   /**
    * Returns a normalized box with given bounds.
    * @param low lower bounds.
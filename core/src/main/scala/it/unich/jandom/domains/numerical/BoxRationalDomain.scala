@@ -389,7 +389,21 @@ class BoxRationalDomain private extends BoxGenericDomain[RationalExt] {
       case _ => Option.empty
     }
 
-    // override def hashCode: Int = 41 * (41 + low.hashCode) + high.hashCode
+    /**
+      * Consistent with `equals`, hence all empty boxes of the same dimension have the same
+      * hash code. Since boxes are immutable, it is computed once.
+      */
+    override lazy val hashCode: Int = {
+      var hash = dimension
+      if (!isEmpty) {
+        var i = 0
+        while (i < low.length) {
+          hash = 41 * (41 * hash + low(i).hashCode) + high(i).hashCode
+          i += 1
+        }
+      }
+      hash
+    }
   }
 
   /**
@@ -410,6 +424,12 @@ class BoxRationalDomain private extends BoxGenericDomain[RationalExt] {
 
   val widenings = Seq(WideningDescription.default[Property])
 
+  /**
+   * @inheritdoc
+   * Boxes are immutable, hence the domain is thread-safe.
+   */
+  override def isThreadSafe: Boolean = true
+
   /**
    * Returns a box consisting of the single point.
    */
@@ -45,13 +45,19 @@ class DenseLinearForm[T](val coeffs: Seq[Rational]) extends LinearForm {
 
   def unary_- = new DenseLinearForm(coeffs map (x => -x))
 
-  def +(that: LinearForm): LinearForm = {
-    new DenseLinearForm(coeffs.zipAll(that.coeffs, Rational.zero, Rational.zero) map (pair => pair._1 + pair._2))
+  /**
+   * @inheritdoc
+   * The sum with a sparse linear form is computed by the latter. Otherwise, the result is built by
+   * `LinearForm.fromCoeffs`, hence it is sparse when most of its coefficients are zero.
+   */
+  def +(that: LinearForm): LinearForm = that match {
+    case that: SparseLinearForm => that + this
+    case _ => LinearForm.fromCoeffs(coeffs.zipAll(that.coeffs, Rational.zero, Rational.zero) map (pair => pair._1 + pair._2))
   }
 
   def -(that: LinearForm): LinearForm = this + (-that)
 
-  def *(coeff: Rational): LinearForm = new DenseLinearForm(coeffs map (_ * coeff))
+  def *(coeff: Rational): LinearForm = LinearForm.fromCoeffs(coeffs map (_ * coeff))
 
   def *(that: LinearForm): Option[LinearForm] = {
     if (homcoeffs forall { _.isZero })
@@ -77,29 +83,7 @@ class DenseLinearForm[T](val coeffs: Seq[Rational]) extends LinearForm {
    * Returns the textual representation of a linear form.
    * @param vars symbolic names of variables in the linear form
    */
-  def mkString(vars: Seq[String]): String = {
-    var first = true
-    var index = 0
-    var s = ""
-
-    for (coeff <- coeffs) {
-      val term = coeff match {
-        case Rational.zero => ""
-        case Rational.one => if (index == 0) "1" else vars(index - 1)
-        case c if c == -Rational.one => if (index == 0) "-1" else "-" + vars(index - 1)
-        case c => c.toString + (if (index == 0) "" else "*" + vars(index - 1))
-      }
-      if (! coeff.isZero) {
-        if (first || coeff < Rational.zero) {
-          s += term
-          first = false
-        } else
-          s += "+" + term
-      }
-      index += 1
-    }
-    if (s.isEmpty) "0" else s
-  }
+  def mkString(vars: Seq[String]): String = LinearForm.mkString(coeffs.zipWithIndex map (_.swap), vars)
 
 }
 
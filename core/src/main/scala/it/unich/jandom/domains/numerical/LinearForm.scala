@@ -127,20 +127,38 @@ trait LinearForm {
 
   /**
    * Equality between linear forms. Two linear forms are equal if their coefficients are the same and
-   * are defined over the same environment.
+   * are defined over the same environment. When one of them is sparse, only non-zero coefficients
+   * are compared.
     */
 
   override final def equals(that: Any): Boolean = that match {
-    case that: LinearForm => coeffs == that.coeffs
+    case that: DenseLinearForm[_] if this.isInstanceOf[DenseLinearForm[_]] => coeffs == that.coeffs
+    case that: LinearForm => dimension == that.dimension && known == that.known && pairs == that.pairs
     case _ => false
   }
 
-  override final def hashCode: Int = (coeffs).hashCode()
+  /**
+   * @inheritdoc
+   * It only depends on the dimension, the constant term and the non-zero coefficients, hence it is
+   * consistent with `equals` for both dense and sparse linear forms, and it does not build the
+   * coefficients of sparse linear forms.
+   */
+  override final def hashCode: Int = (dimension, known, pairs).hashCode()
 
+  /**
+   * Returns a linear form with `n` coefficients, i.e., of dimension `n - 1`, which is equal to this
+   * linear form on the common variables. Variables are added with a zero coefficient, and they may be
+   * removed only when their coefficients are zero.
+   * @throws IllegalArgumentException if `n` is not positive or a variable whose coefficient is not
+   * zero should be removed
+   */
   def padded (n : Int) : LinearForm = {
-    assert(coeffs.size <= n) // TODO: handle
+    require(n > 0, "A linear form should have at least the constant term")
+    require(pairs forall { _._1 < n - 1 }, s"Variables with non-zero coefficients cannot be removed from $this")
     if (coeffs.size == n)
       this
+    else if (coeffs.size > n)
+      LinearForm(coeffs.take(n) : _*)
     else LinearForm((coeffs ++ List.fill[Rational](n - coeffs.size)(0)) : _*)
   }
 }
@@ -191,13 +209,82 @@ object LinearForm {
    * @param pairs a sequence of pairs (vi,ci) where vi is an index of a variable and ci the
    * corresponding coefficient.
    */
-  def sparse(known: Rational, pairs: (Int,Rational)*): LinearForm = DenseLinearForm(known, pairs)
+  def sparse(known: Rational, pairs: (Int,Rational)*): LinearForm =
+    fromPairs(known, pairs, if (pairs.isEmpty) 0 else pairs.map(_._1).max + 1)
 
   /**
    * Builds the linear form corresponding to variable `vi`
    * @param i index of the variable vi
    */
-  def v(i: Int): LinearForm = DenseLinearForm.v(i: Int)
+  def v(i: Int): LinearForm = sparse(Rational.zero, i -> Rational.one)
+
+  /**
+   * The minimum dimension of sparse linear forms built by `sparse`, `v` and by the
+   * operations on sparse linear forms.
+   */
+  val sparseMinDimension = 16
+
+  /**
+   * Builds a linear form of given dimension from the constant term and the homogeneous
+   * coefficients. The result is a `SparseLinearForm` when the dimension is at least
+   * `sparseMinDimension` and at most a quarter of the coefficients is not zero, otherwise
+   * it is a `DenseLinearForm`.
+   * @param known the constant term of the linear form.
+   * @param pairs a sequence of pairs (vi,ci) where vi is an index of a variable and ci the
+   * corresponding coefficient.
+   * @param dimension the dimension of the linear form.
+   */
+  def fromPairs(known: Rational, pairs: Seq[(Int, Rational)], dimension: Int): LinearForm = {
+    if (dimension >= sparseMinDimension && 4 * pairs.count(!_._2.isZero) <= dimension)
+      SparseLinearForm(known, pairs, dimension)
+    else {
+      val coeffs = Array.fill(dimension + 1)(Rational.zero)
+      coeffs(0) = known
+      for ((i, c) <- pairs) coeffs(i + 1) += c
+      DenseLinearForm(ArraySeq.unsafeWrapArray(coeffs))
+    }
+  }
+
+  /**
+   * Builds a linear form from its coefficients, with the same choice of representation of
+   * `fromPairs`.
+   * @param coeffs the coefficients of the linear form. The first element is the constant term.
+   */
+  def fromCoeffs(coeffs: Seq[Rational]): LinearForm = {
+    val dimension = coeffs.length - 1
+    if (dimension >= sparseMinDimension) {
+      val indexed = coeffs.toIndexedSeq
+      fromPairs(indexed(0), for (i <- 1 to dimension; if !indexed(i).isZero) yield (i - 1, indexed(i)), dimension)
+    } else
+      DenseLinearForm(coeffs)
+  }
+
+  /**
+   * Returns the textual representation of a linear form, given the non-zero terms.
+   * @param terms pairs (i,ci) where the index 0 is the constant term and i>0 is the variable `vars(i-1)`
+   * @param vars symbolic names of variables in the linear form
+   */
+  private[numerical] def mkString(terms: Iterable[(Int, Rational)], vars: Seq[String]): String = {
+    var first = true
+    var s = ""
+
+    for ((index, coeff) <- terms) {
+      val term = coeff match {
+        case Rational.zero => ""
+        case Rational.one => if (index == 0) "1" else vars(index - 1)
+        case c if c == -Rational.one => if (index == 0) "-1" else "-" + vars(index - 1)
+        case c => c.toString + (if (index == 0) "" else "*" + vars(index - 1))
+      }
+      if (! coeff.isZero) {
+        if (first || coeff < Rational.zero) {
+          s += term
+          first = false
+        } else
+          s += "+" + term
+      }
+    }
+    if (s.isEmpty) "0" else s
+  }
 
   /**
    * Builds the constant linear form `c`
@@ -120,6 +120,14 @@ trait NumericalProperty[Property <: NumericalProperty[Property]] extends Dimensi
     (newprop intersection newp).delVariables(dimension - common to dimension - 1)
   }
 
+  /**
+   * Intersection with all the half-planes `lf <= 0` for `lf` in `lfs`.
+   * @note The standard implementation uses `linearInequality`, but may be overriden in subclasses
+   * for greater efficiency, for example by closing the result only once.
+   */
+  def linearInequalities(lfs: Seq[LinearForm]): Property =
+    lfs.foldLeft(this: Property)(_.linearInequality(_))
+
   /**
    * Constant assignment to a variable `vn := c`.
    * @note $STDINST
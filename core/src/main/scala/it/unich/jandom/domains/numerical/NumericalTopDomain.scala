@@ -87,4 +87,6 @@ object NumericalTopDomain extends NumericalDomain {
 
   def top(n: Int) = Property(n)
   def bottom(n: Int) = Property(n)
+
+  override def isThreadSafe: Boolean = true
 }
@@ -3,23 +3,36 @@ import it.unich.jandom.domains.WideningDescription
 import it.unich.jandom.utils.dbm._
 import it.unich.jandom.domains.numerical.octagon._
 import it.unich.jandom.domains.numerical.octagon.optimized._
+import it.unich.jandom.domains.numerical.octagon.decomposed._
+import it.unich.jandom.utils.numberext.IField
 import it.unich.jandom.utils.numberext.RationalExt
+import it.unich.jandom.utils.numberext.RationalIField
 import scala.reflect.ClassTag
 
-trait OctagonDomainTrait[O <: Octagon[RationalExt, O]] extends NumericalDomain {
+trait OctagonDomainTrait[N <: IField[N], O <: Octagon[N, O]] extends NumericalDomain {
   def makeTop(dim : Int): O
   def makeBottom(dim: Int): O
 }
 
-abstract class OctagonDomain[O <: Octagon[RationalExt, O]] extends OctagonDomainTrait[O] {
-  implicit val ifield = RationalExt
+/**
+  * The native octagon domain, parametric w.r.t. the numbers used as bounds in the DBMs.
+  * @param dbmFactory the factory used to build the DBMs of the domain.
+  * @param parallelClosure if true, DBMs with many variables are closed in parallel (see `ParallelMineFloydWarshall`).
+  */
+abstract class OctagonGenericDomain[N <: IField[N], O <: Octagon[N, O]]
+  (dbmFactory : DBMFactory[N], parallelClosure : Boolean = false)
+  (implicit val ifield : RationalIField[N])
+    extends OctagonDomainTrait[N, O] {
 
-  val mod = new OctagonPropertyModule[O, OctagonDomain[O]](this)
+  val mod = new OctagonPropertyModule[N, O, OctagonGenericDomain[N, O]](this)
 
   type Property = mod.OctagonProperty
-  implicit val tag = implicitly[ClassTag[RationalExt]]
-  implicit val factory = new ArrayDBMFactory()(tag, ifield)
-  implicit val closure = new IncrementalMineFloydWarshall[RationalExt]()(ifield, factory)
+  implicit val factory : DBMFactory[N] = dbmFactory
+  implicit val closure : IncrementalMineFloydWarshall[N] =
+    if (parallelClosure)
+      new ParallelMineFloydWarshall[N]()(ifield, factory)
+    else
+      new IncrementalMineFloydWarshall[N]()(ifield, factory)
   val box = BoxRationalDomain()
   def top(dim : Int) : Property = mod.OctagonProperty(this.makeTop(dim))
   def bottom(dim : Int): Property = mod.OctagonProperty(this.makeBottom(dim))
@@ -29,9 +42,47 @@ abstract class OctagonDomain[O <: Octagon[RationalExt, O]] extends OctagonDomain
 
 }
 
+/**
+  * The native octagon domain over extended rationals.
+  * @param dbmFactory the factory used to build the DBMs of the domain.
+  * @param parallelClosure if true, DBMs with many variables are closed in parallel.
+  */
+abstract class OctagonDomain[O <: Octagon[RationalExt, O]]
+  (dbmFactory : DBMFactory[RationalExt] = new ArrayDBMFactory[RationalExt]()(implicitly[ClassTag[RationalExt]], RationalExt),
+    parallelClosure : Boolean = false)
+    extends OctagonGenericDomain[RationalExt, O](dbmFactory, parallelClosure)(RationalExt) {
+  implicit val tag = implicitly[ClassTag[RationalExt]]
+}
+
 object OctagonDomain {
-  def apply() = new OctagonDomain[OptimizedOctagon[RationalExt]] {
+  private def dbmFactory(doubleDBM : Boolean) : DBMFactory[RationalExt] =
+    if (doubleDBM)
+      new DoubleDBMFactory[RationalExt]()(RationalExt, DoubleCodec.RationalExtCodec)
+    else
+      new HalfArrayDBMFactory[RationalExt]()(implicitly[ClassTag[RationalExt]], RationalExt)
+
+  /**
+    * Builds the octagon domain.
+    * @param doubleDBM if true, DBMs are stored in primitive arrays of doubles and closed in place.
+    * This is much faster, but bounds which are not representable as doubles are rounded towards +oo.
+    * Otherwise, DBMs are exact and stored as half-matrices, exploiting coherence.
+    * @param parallelClosure if true, the strong closure of DBMs with many variables runs on all the cores.
+    */
+  def apply(doubleDBM : Boolean = false, parallelClosure : Boolean = false) =
+    new OctagonDomain[OptimizedOctagon[RationalExt]](dbmFactory(doubleDBM), parallelClosure) {
     def makeTop(dim : Int) = new CachingOctagon(Right(factory.top((OctagonDim(dim).toDBMDim))))
     def makeBottom(dim: Int) = new BottomOptOcta(OctagonDim(dim))
   }
+
+  /**
+    * Builds the octagon domain where variables are partitioned in independent
+    * blocks, each one with its own DBM. See `DecomposedOctagon`.
+    * @param doubleDBM as in `apply`.
+    * @param parallelClosure as in `apply`.
+    */
+  def decomposed(doubleDBM : Boolean = false, parallelClosure : Boolean = false) =
+    new OctagonDomain[DecomposedOctagon[RationalExt]](dbmFactory(doubleDBM), parallelClosure) {
+    def makeTop(dim : Int) = DecomposedOctagon.top[RationalExt](OctagonDim(dim))
+    def makeBottom(dim: Int) = new BottomDecOcta(OctagonDim(dim))
+  }
 }
@@ -0,0 +1,41 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.domains.numerical
+import it.unich.jandom.utils.dbm._
+import it.unich.jandom.domains.numerical.octagon._
+import it.unich.jandom.domains.numerical.octagon.optimized._
+import it.unich.jandom.utils.numberext.DoubleExt
+
+/**
+  * The native octagon domain with bounds represented by doubles. DBMs are
+  * stored in primitive arrays and every operation on bounds is rounded
+  * towards +∞, hence the domain is correct w.r.t. real arithmetic. It is
+  * less precise than `OctagonDomain` when bounds are not representable as
+  * doubles, but much faster.
+  * @param parallelClosure if true, DBMs with many variables are closed in parallel.
+  */
+class OctagonDoubleDomain(parallelClosure : Boolean = false) extends OctagonGenericDomain[DoubleExt, OptimizedOctagon[DoubleExt]](
+    new DoubleDBMFactory[DoubleExt]()(DoubleExt, DoubleCodec.DoubleExtCodec), parallelClosure)(DoubleExt) {
+  def makeTop(dim : Int) = new CachingOctagon(Right(factory.top((OctagonDim(dim).toDBMDim))))
+  def makeBottom(dim: Int) = new BottomOptOcta(OctagonDim(dim))
+}
+
+object OctagonDoubleDomain {
+  def apply(parallelClosure : Boolean = false) = new OctagonDoubleDomain(parallelClosure)
+}
@@ -40,6 +40,13 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
 
   val widenings = Seq(WideningDescription.default[Property])
 
+  /**
+    * @inheritdoc
+    * Parallelotopes are immutable, including the inverse of their shape matrix, hence the domain
+    * is thread-safe.
+    */
+  override def isThreadSafe: Boolean = true
+
   /**
     * Build a non-empty parallelotope. If the parallelotope is not empty, the result is undetermined.
     *
@@ -67,7 +74,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
     val low = Bounds.fill(n)(RationalExt.NegativeInfinity)
     val high = Bounds.fill(n)(RationalExt.PositiveInfinity)
     val A = DenseMatrix.eye(n)
-    new Property(false, low, A, high)
+    new Property(false, low, A, high, DenseMatrix.eye(n))
   }
 
   /**
@@ -91,7 +98,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
     val low = Bounds.fill(n)(RationalExt.one)
     val high = Bounds.fill(n)(RationalExt.zero)
     val A = DenseMatrix.eye(n)
-    new Property(true, low, A, high)
+    new Property(true, low, A, high, DenseMatrix.eye(n))
   }
 
   /**
@@ -166,21 +173,42 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
     * @param A       is the constraint matrix. It should be invertible.
     * @param low     lower bounds.
     * @param high    higher bounds.
+    * @param knownInverse the inverse of `A` when it is already known, or null.
     * @note `low` and `high` should have the same length. The  matrix `A` should be invertible
     *       of the same size of the two vectors.
     * @throws IllegalArgumentException if `low` and `high` are not of the same length, if `A` is not
     *                                  square or if `A` has not the same size of `low`.
     */
-  final class Property(
+  final class Property private[ParallelotopeRationalDomain](
                         val isEmpty: Boolean,
                         val low: Bounds,
                         val A: DenseMatrix,
-                        val high: Bounds)
+                        val high: Bounds,
+                        knownInverse: DenseMatrix)
     extends NumericalProperty[Property] {
 
+    /**
+      * Builds a parallelotope, computing the inverse of the constraint matrix `A`.
+      */
+    def this(isEmpty: Boolean, low: Bounds, A: DenseMatrix, high: Bounds) = this(isEmpty, low, A, high, null)
+
     require(low.length == A.rows)
     require(low.length == A.cols)
-    require(Try(A \ DenseMatrix.eye(dimension)).isSuccess, s"The shape matrix ${A} is not invertible")
+
+    /**
+      * The inverse of the constraint matrix. Most operations need to solve linear systems with `A`,
+      * hence the inverse is computed once when the parallelotope is built, or it is derived
+      * incrementally by the operation which builds the parallelotope.
+      */
+    val Ainv: DenseMatrix =
+      if (knownInverse != null)
+        knownInverse
+      else {
+        val inv = Try(A.inverse)
+        require(inv.isSuccess, s"The shape matrix ${A} is not invertible")
+        inv.get
+      }
+
     require(normalized)
 
     type Domain = ParallelotopeRationalDomain
@@ -206,7 +234,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       if (isEmpty)
         that
       else {
-        val thisRotated = this.rotate(that.A)
+        val thisRotated = this.rotate(that.A, that.Ainv)
         if (thisRotated < that) {
           val newlow = thisRotated.low.copy
           val newhigh = thisRotated.high.copy
@@ -214,9 +242,9 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
             if (thisRotated.low(i) > that.low(i)) newlow(i) = RationalExt.NegativeInfinity
             if (thisRotated.high(i) < that.high(i)) newhigh(i) = RationalExt.PositiveInfinity
           }
-          new Property(false, newlow, that.A, newhigh)
+          new Property(false, newlow, that.A, newhigh, that.Ainv)
         } else {
-          val thatRotated = that.rotate(A)
+          val thatRotated = that.rotate(A, Ainv)
           val newlow = low.copy
           val newhigh = high.copy
           for (i <- 0 to dimension - 1) {
@@ -224,7 +252,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
             if (thatRotated.high(i) > high(i)) newhigh(i) = RationalExt.PositiveInfinity
 
           }
-          new Property(false, newlow, A, newhigh)
+          new Property(false, newlow, A, newhigh, Ainv)
         }
       }
     }
@@ -241,14 +269,14 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       } else if (this.isEmpty) {
         this
       } else {
-        val thatRotated = that.rotate(A)
+        val thatRotated = that.rotate(A, Ainv)
         val newlow = low.copy
         val newhigh = high.copy
         for (i <- 0 to dimension - 1) {
           if (low(i).isInfinity) newlow(i) = thatRotated.low(i)
           if (high(i).isInfinity) newhigh(i) = thatRotated.high(i)
         }
-        new Property(false, newlow, A, newhigh)
+        new Property(false, newlow, A, newhigh, Ainv)
       }
     }
 
@@ -290,9 +318,9 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
        * that (2). This is used to refine priorities.
        */
       def priority(v: DenseVector, ownedBy: Int = 0): PrioritizedConstraint = {
-        val y1 = A.t \ v
+        val y1 = Ainv.transposeTimes(v)
         val (l1, u1) = domain.extremalsInBox(y1, low, high)
-        val y2 = that.A.t \ v
+        val y2 = that.Ainv.transposeTimes(v)
         val (l2, u2) = domain.extremalsInBox(y2, that.low, that.high)
 
         val p =
@@ -382,8 +410,8 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       else if (dimension == 0)
         this
       else {
-        val thisRotated = this.rotate(that.A)
-        val thatRotated = that.rotate(this.A)
+        val thisRotated = this.rotate(that.A, that.Ainv)
+        val thatRotated = that.rotate(this.A, this.Ainv)
         val Q = scala.collection.mutable.ArrayBuffer[PrioritizedConstraint]()
 
         val bulk = this.A vertcat that.A
@@ -428,16 +456,16 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
     def unionWeak(that: Property): Property = {
       require(dimension == that.dimension)
       if (isEmpty)
-        that.rotate(A)
+        that.rotate(A, Ainv)
       else if (that.isEmpty)
         this
       else {
-        val result = that.rotate(A)
+        val result = that.rotate(A, Ainv)
         for (i <- 0 until dimension) {
           result.low(i) = result.low(i) min low(i)
           result.high(i) = result.high(i) max high(i)
         }
-        new Property(false, result.low, result.A, result.high) //this is to normalize
+        new Property(false, result.low, result.A, result.high, Ainv) //this is to normalize
       }
     }
 
@@ -456,7 +484,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       else if (that.isEmpty)
         ParallelotopeRationalDomain.this.bottom(A)
       else {
-        val result = that.rotate(A)
+        val result = that.rotate(A, Ainv)
         for (i <- 0 until dimension) {
           result.low(i) = result.low(i) max low(i)
           result.high(i) = result.high(i) min high(i)
@@ -464,7 +492,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
         if ((0 until result.low.length) exists { i => (result.low(i) > result.high(i)) })
           bottom
         else
-          new Property(false, result.low, result.A, result.high) //this is to normalize
+          new Property(false, result.low, result.A, result.high, Ainv) //this is to normalize
       }
     }
 
@@ -495,8 +523,12 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
           val ei = DenseVector.zeros(dimension)
           ei(n) = Rational.one
           val newA = A - (A.col(n) * (coeff - ei).t) / coeff(n)
+          // newA is A * (I - e_n (coeff - e_n)^T / coeff(n)), whose inverse only differs from the
+          // inverse of A in the n-th row, which becomes coeff^T * Ainv
+          val newAinv = Ainv.copy
+          newAinv.rowUpdate(n, Ainv.transposeTimes(coeff))
 
-          new Property(false, newlow, newA, newhigh)
+          new Property(false, newlow, newA, newhigh, newAinv)
         } else {
           // non-invertible assignment
           val newP = nonDeterministicAssignment(n)
@@ -504,17 +536,22 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
           val j = ((0 until Aprime.rows) find {
             !Aprime(_, n).isZero
           }).get
-          for (s <- 0 until dimension if !Aprime(s, n).isZero && s != j)
-            Aprime.rowUpdate(s, Aprime.row(s) - Aprime.row(j) * (Aprime(s, n) / Aprime(j, n)))
+          var AprimeInv = Option(newP.Ainv)
+          for (s <- 0 until dimension if !Aprime(s, n).isZero && s != j) {
+            val newRow = Aprime.row(s) - Aprime.row(j) * (Aprime(s, n) / Aprime(j, n))
+            Aprime.rowUpdate(s, newRow)
+            AprimeInv = AprimeInv flatMap { DenseMatrix.rowUpdatedInverse(_, s, newRow) }
+          }
           val ei = DenseVector.zeros(dimension)
           ei(n) = Rational.one
           Aprime.rowUpdate(j, ei - coeff)
+          AprimeInv = AprimeInv flatMap { DenseMatrix.rowUpdatedInverse(_, j, ei - coeff) }
           val newlow = newP.low.copy
           val newhigh = newP.high.copy
           newlow(j) = known
           newhigh(j) = known
 
-          new Property(false, newlow, Aprime, newhigh)
+          new Property(false, newlow, Aprime, newhigh, AprimeInv.orNull)
         }
       }
     }
@@ -547,7 +584,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       else {
         val known = lf.known
         val coeffs = DenseVector(lf.homcoeffs.padTo(dimension, Rational.zero): _*)
-        val coeffsTransformed = A.t \ coeffs
+        val coeffsTransformed = Ainv.transposeTimes(coeffs)
 
         val removeCandidates = (0 until dimension) find { i => !coeffsTransformed(i).isZero && low(i).isInfinity && high(i).isInfinity }
         removeCandidates match {
@@ -578,7 +615,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
                 }
                 case _ =>
               }
-              new Property(false, newlow, A, newhigh)
+              new Property(false, newlow, A, newhigh, Ainv)
             }
           }
           case Some(chosen) => {
@@ -587,7 +624,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
             val newhigh = high.copy
             newA.rowUpdate(chosen, coeffs)
             newhigh(chosen) = -known
-            new Property(false, low, newA, newhigh)
+            new Property(false, low, newA, newhigh, DenseMatrix.rowUpdatedInverse(Ainv, chosen, coeffs).orNull)
           }
         }
       }
@@ -648,6 +685,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
           val rowPivot = A.row(pivot)
 
           val newA = A.copy
+          var newAinv = Option(Ainv)
           val newlow = low.copy
           val newhigh = high.copy
 
@@ -655,7 +693,9 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
             val value1 = rowPivot(n)
             val value2 = A(i, n)
             val rowi = A.row(i)
-            newA.rowUpdate(i, rowPivot * value2 - rowi * value1)
+            val newRow = rowPivot * value2 - rowi * value1
+            newA.rowUpdate(i, newRow)
+            newAinv = newAinv flatMap { DenseMatrix.rowUpdatedInverse(_, i, newRow) }
             val (minPivot, maxPivot) = if (A(i, n) < Rational.zero) (high(pivot), low(pivot)) else (low(pivot), high(pivot))
             val (mini, maxi) = if (-A(pivot, n) < Rational.zero) (high(i), low(i)) else (low(i), high(i))
             newlow(i) = minPivot * value2 - mini * value1
@@ -663,7 +703,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
           }
           newlow(pivot) = RationalExt.NegativeInfinity
           newhigh(pivot) = RationalExt.PositiveInfinity
-          new Property(false, newlow, newA, newhigh)
+          new Property(false, newlow, newA, newhigh, newAinv.orNull)
         }
       }
     }
@@ -675,10 +715,11 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
         val e = DenseMatrix.zeros(dimension + 1, 1)
         e(dimension, 0) = Rational.one
         val newA = (A vertcat DenseMatrix.zeros(1, dimension)) horzcat e
+        val newAinv = (Ainv vertcat DenseMatrix.zeros(1, dimension)) horzcat e
         val newlow = low vertcat Bounds(RationalExt.NegativeInfinity)
         val newhigh = high vertcat Bounds(RationalExt.PositiveInfinity)
 
-        new Property(false, newlow, newA, newhigh)
+        new Property(false, newlow, newA, newhigh, newAinv)
       }
     }
 
@@ -747,7 +788,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       else {
         val coeff = tcoeff.padTo(dimension, Rational.zero).toArray
         val vec = new DenseVector(coeff)
-        val newvec = A.t \ vec
+        val newvec = Ainv.transposeTimes(vec)
         val (min, max) = domain.extremalsInBox(newvec, low, high)
         (min + lf.known, max + lf.known)
       }
@@ -796,12 +837,18 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
       * @note `Aprime` should be an invertible matrix of the same dimension as `this`.
       * @throws IllegalArgumentException if `Aprime` is not square or has not the correct dimension.
       */
-    def rotate(Aprime: DenseMatrix): Property = {
+    def rotate(Aprime: DenseMatrix): Property = rotate(Aprime, null)
+
+    /**
+      * The same as `rotate(Aprime)`, when the inverse `AprimeInv` of `Aprime` is already known.
+      * If `AprimeInv` is null, it is computed.
+      */
+    private def rotate(Aprime: DenseMatrix, AprimeInv: DenseMatrix): Property = {
       require(dimension == Aprime.rows && dimension == Aprime.cols)
       if (isEmpty)
         this
       else {
-        val B = Aprime * (A \ DenseMatrix.eye(dimension))
+        val B = Aprime * Ainv
         val newlow = Bounds.fill(dimension)(RationalExt.zero)
         val newhigh = Bounds.fill(dimension)(RationalExt.zero)
         B.foreachPair {
@@ -814,10 +861,38 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
               newlow(i) += high(j) * v
             }
         }
-        new Property(false, newlow, Aprime, newhigh)
+        new Property(false, newlow, Aprime, newhigh, AprimeInv)
       }
     }
 
+    /**
+      * Two parallelotopes are equal when they represent the same set, possibly with different
+      * shape matrices. Hence, the hash code is computed on the smallest box containing the
+      * parallelotope. The bounds of the i-th variable are obtained from the i-th row of `Ainv`, so
+      * that the whole box is computed in O(n^2) time without building linear forms. Since
+      * parallelotopes are immutable, it is computed once.
+      */
+    override lazy val hashCode: Int = {
+      var hash = dimension
+      if (!isEmpty)
+        for (i <- 0 until dimension) {
+          var min = RationalExt.zero
+          var max = RationalExt.zero
+          for (j <- 0 until dimension) {
+            val c = Ainv(i, j)
+            if (c > Rational.zero) {
+              min += low(j) * c
+              max += high(j) * c
+            } else if (c < Rational.zero) {
+              min += high(j) * c
+              max += low(j) * c
+            }
+          }
+          hash = 41 * (41 * hash + min.hashCode) + max.hashCode
+        }
+      hash
+    }
+
     override def <=[B >: Property](that: B)(implicit arg0: (B) => PartiallyOrdered[B]): Boolean =
       that match {
         // we use ParallelotopeRationalDomain#Property instead of just Property to avoid a warning
@@ -829,7 +904,7 @@ class ParallelotopeRationalDomain private(favorAxis: Int) extends NumericalDomai
           else if (that.isTop)
             true
           else {
-            val ptemp = this.rotate(that.A)
+            val ptemp = this.rotate(that.A, that.Ainv)
             (0 to ptemp.low.length - 1) forall { i => ptemp.low(i) >= that.low(i) && ptemp.high(i) <= that.high(i) }
           }
         case _ => false
@@ -46,6 +46,12 @@ class ProductDomain[D1 <: NumericalDomain, D2 <: NumericalDomain](val dom1: D1,
       })
   }
 
+  /**
+   * @inheritdoc
+   * The product is thread-safe when both the components are.
+   */
+  override def isThreadSafe: Boolean = dom1.isThreadSafe && dom2.isThreadSafe
+
   private val d12 = dom1Todom2(dom1, dom2)
   private val d21 = dom2Todom1(dom2, dom1)
 
@@ -179,6 +185,18 @@ class ProductDomain[D1 <: NumericalDomain, D2 <: NumericalDomain](val dom1: D1,
         p1.mkString(vars) + " / " + p2.mkString(vars)
     }
 
+    /**
+      * Consistent with `tryCompareTo`, where all the bottom and all the top elements are equal.
+      * Since properties are immutable, it is computed once.
+      */
+    override lazy val hashCode: Int =
+      if (isBottom)
+        dimension
+      else if (isTop)
+        -dimension - 1
+      else
+        31 * p1.hashCode + p2.hashCode
+
     def tryCompareTo[B >: Property](that: B)(implicit arg0: (B) => PartiallyOrdered[B]): Option[Int] = {
       that match {
         case that: Property =>
@@ -194,7 +212,7 @@ class ProductDomain[D1 <: NumericalDomain, D2 <: NumericalDomain](val dom1: D1,
             Option(1)
           else if (that.isTop)
             Option(-1)
-          else if (p1 == this.p1 && p2 == that.p2)
+          else if (p1 == that.p1 && p2 == that.p2)
             Option(0)
           else
             Option.empty
@@ -0,0 +1,370 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.domains.numerical
+
+import java.lang.management.ManagementFactory
+import java.lang.ref.WeakReference
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{AtomicLongArray, LongAdder}
+
+import scala.jdk.CollectionConverters._
+
+import it.unich.jandom.domains.{NarrowingDescription, WideningDescription}
+import it.unich.jandom.utils.numberext.RationalExt
+import it.unich.scalafix.Box
+import spire.math.Rational
+
+/**
+ * A numerical domain which decorates another numerical domain, collecting statistics on the
+ * operations of its properties. For each operation and each dimension, it counts the calls and
+ * it keeps an histogram of their latencies and the number of bytes they allocate. Properties
+ * behave exactly as the properties of the decorated domain, hence the decorator may be used
+ * in place of any numerical domain.
+ *
+ * Collecting statistics costs two reads of the clock, and two reads of the allocation counter
+ * of the current thread when allocations are measured, for each operation. Statistics are kept
+ * in concurrent counters, hence the domain is thread-safe when the decorated domain is.
+ * @param dom the decorated domain.
+ * @param allocations whether to measure the bytes allocated by each operation. It is ignored
+ * when the JVM does not support the measurement of allocations, or when it is disabled. The
+ * decorator never changes this JVM-wide setting, which may be enabled by the caller with
+ * `ThreadMXBean.setThreadAllocatedMemoryEnabled`.
+ */
+class ProfilingDomain[D <: NumericalDomain](val dom: D, allocations: Boolean = true) extends NumericalDomain {
+
+  import ProfilingDomain._
+
+  private val stats = Array.fill(Operation.maxId)(new ConcurrentHashMap[Int, Stats])
+
+  private val allocationBean = ManagementFactory.getThreadMXBean match {
+    case bean: com.sun.management.ThreadMXBean
+      if allocations && bean.isThreadAllocatedMemorySupported && bean.isThreadAllocatedMemoryEnabled =>
+      Some(bean)
+    case _ => None
+  }
+
+  private def allocatedBytes(): Long = allocationBean match {
+    case Some(bean) => bean.getCurrentThreadAllocatedBytes
+    case None => 0
+  }
+
+  /**
+   * Evaluates `body`, recording it as an execution of `op` on properties of dimension `dim`.
+   */
+  private def profile[A](op: Operation.Value, dim: Int)(body: => A): A = {
+    val bytes = allocatedBytes()
+    val start = System.nanoTime()
+    try body finally {
+      val nanos = System.nanoTime() - start
+      stats(op.id).computeIfAbsent(dim, _ => new Stats).record(nanos, allocatedBytes() - bytes)
+    }
+  }
+
+  /**
+   * Returns true if the bytes allocated by each operation are measured.
+   */
+  def measuresAllocations: Boolean = allocationBean.isDefined
+
+  /**
+   * Returns the statistics collected so far, sorted by operation and dimension.
+   */
+  def report: Seq[OperationSummary] =
+    for {
+      op <- Operation.values.toSeq
+      (dim, s) <- stats(op.id).asScala.toSeq.sortBy(_._1)
+    } yield s.summary(op, dim)
+
+  /**
+   * Forgets the statistics collected so far.
+   */
+  def reset(): Unit = stats foreach { _.clear() }
+
+  val widenings = for (w <- dom.widenings)
+    yield WideningDescription(w.name, w.description, Box { (a: Property, b: Property) =>
+      a.wrap(profile(Operation.Widening, a.dimension) { w.box(a.p, b.p) })
+    })
+
+  override val narrowings = for (n <- dom.narrowings)
+    yield NarrowingDescription(n.name, n.description, Box { (a: Property, b: Property) =>
+      a.wrap(profile(Operation.Narrowing, a.dimension) { n.box(a.p, b.p) })
+    })
+
+  def top(n: Int) = new Property(profile(Operation.Top, n) { dom.top(n) })
+
+  def bottom(n: Int) = new Property(profile(Operation.Bottom, n) { dom.bottom(n) })
+
+  override def unionAll(init: Property, props: IterableOnce[Property]): Property =
+    init.wrap(profile(Operation.Union, init.dimension) { dom.unionAll(init.p, props.iterator.map(_.p)) })
+
+  /**
+   * The wrappers of the canonical properties of the decorated domain. It only keeps weak
+   * references, like `InternTable`.
+   */
+  private val wrappers = new java.util.WeakHashMap[dom.Property, WeakReference[Property]]
+
+  /**
+   * @inheritdoc
+   * Properties are interned by the decorated domain, and equal properties share the same wrapper,
+   * so that interned properties are identical whenever the decorated ones are equal.
+   */
+  override def intern(p: Property): Property = {
+    val q = dom.intern(p.p)
+    wrappers.synchronized {
+      val ref = wrappers.get(q)
+      val canonical = if (ref == null) null else ref.get
+      if (canonical != null)
+        canonical
+      else {
+        val w = p.wrap(q)
+        wrappers.put(q, new WeakReference(w))
+        w
+      }
+    }
+  }
+
+  /**
+   * @inheritdoc
+   * The decorator is thread-safe when the decorated domain is.
+   */
+  override def isThreadSafe: Boolean = dom.isThreadSafe
+
+  override def toString = s"Profiling($dom)"
+
+  /**
+   * A property of the decorated domain, whose operations are profiled. All the operations are
+   * forwarded to the decorated property, including those which have a default implementation,
+   * so that the specialized implementations of the decorated domain are used.
+   */
+  class Property(val p: dom.Property) extends NumericalProperty[Property] {
+
+    type Domain = ProfilingDomain.this.type
+
+    def domain = ProfilingDomain.this
+
+    def dimension = p.dimension
+
+    /**
+     * Returns a property for `q`, which is `this` when `q` is the decorated property itself.
+     */
+    private[ProfilingDomain] def wrap(q: dom.Property): Property = if (q eq p) this else new Property(q)
+
+    def union(that: Property) = wrap(profile(Operation.Union, dimension) { p union that.p })
+
+    def intersection(that: Property) = wrap(profile(Operation.Intersection, dimension) { p intersection that.p })
+
+    def widening(that: Property) = wrap(profile(Operation.Widening, dimension) { p widening that.p })
+
+    def narrowing(that: Property) = wrap(profile(Operation.Narrowing, dimension) { p narrowing that.p })
+
+    def nonDeterministicAssignment(n: Int) =
+      wrap(profile(Operation.NonDeterministicAssignment, dimension) { p.nonDeterministicAssignment(n) })
+
+    def linearAssignment(n: Int, lf: LinearForm) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.linearAssignment(n, lf) })
+
+    def linearInequality(lf: LinearForm) =
+      wrap(profile(Operation.LinearInequality, dimension) { p.linearInequality(lf) })
+
+    def linearDisequality(lf: LinearForm) =
+      wrap(profile(Operation.LinearDisequality, dimension) { p.linearDisequality(lf) })
+
+    override def linearInequalities(lfs: Seq[LinearForm]) =
+      wrap(profile(Operation.LinearInequalities, dimension) { p.linearInequalities(lfs) })
+
+    override def connect(other: Property, common: Int) =
+      wrap(profile(Operation.Connect, dimension) { p.connect(other.p, common) })
+
+    override def constantAssignment(n: Int, c: Rational) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.constantAssignment(n, c) })
+
+    override def variableAssignment(n: Int, m: Int) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.variableAssignment(n, m) })
+
+    override def variableAdd(n: Int, m: Int) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.variableAdd(n, m) })
+
+    override def variableSub(n: Int, m: Int) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.variableSub(n, m) })
+
+    override def constantAdd(n: Int, c: Rational) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.constantAdd(n, c) })
+
+    override def variableNeg(n: Int) =
+      wrap(profile(Operation.LinearAssignment, dimension) { p.variableNeg(n) })
+
+    override def variableMul(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableMul(n, m) })
+
+    override def variableDiv(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableDiv(n, m) })
+
+    override def variableRem(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableRem(n, m) })
+
+    override def variableShl(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableShl(n, m) })
+
+    override def variableShr(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableShr(n, m) })
+
+    override def variableUshr(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableUshr(n, m) })
+
+    override def variableAnd(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableAnd(n, m) })
+
+    override def variableOr(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableOr(n, m) })
+
+    override def variableXor(n: Int, m: Int) =
+      wrap(profile(Operation.NonLinearAssignment, dimension) { p.variableXor(n, m) })
+
+    def minimize(lf: LinearForm): RationalExt = profile(Operation.Minimize, dimension) { p.minimize(lf) }
+
+    def maximize(lf: LinearForm): RationalExt = profile(Operation.Maximize, dimension) { p.maximize(lf) }
+
+    def frequency(lf: LinearForm): Option[Rational] = profile(Operation.Frequency, dimension) { p.frequency(lf) }
+
+    def constraints = p.constraints
+
+    def isPolyhedral = p.isPolyhedral
+
+    def addVariable() = wrap(profile(Operation.AddVariable, dimension) { p.addVariable() })
+
+    override def addVariables(m: Int) = wrap(profile(Operation.AddVariable, dimension) { p.addVariables(m) })
+
+    def delVariable(n: Int) = wrap(profile(Operation.DelVariable, dimension) { p.delVariable(n) })
+
+    override def delVariables(vs: Range) = wrap(profile(Operation.DelVariable, dimension) { p.delVariables(vs) })
+
+    def mapVariables(rho: Seq[Int]) = wrap(profile(Operation.MapVariables, dimension) { p.mapVariables(rho) })
+
+    def isEmpty = p.isEmpty
+
+    def isTop = p.isTop
+
+    def isBottom = p.isBottom
+
+    def top = domain.top(dimension)
+
+    def bottom = domain.bottom(dimension)
+
+    def mkString(vars: Seq[String]) = p.mkString(vars)
+
+    override def toString = p.toString
+
+    override def hashCode = p.hashCode
+
+    def tryCompareTo[B >: Property](that: B)(implicit arg0: (B) => PartiallyOrdered[B]): Option[Int] = that match {
+      case that: Property => profile(Operation.Compare, dimension) { p tryCompareTo that.p }
+      case _ => None
+    }
+  }
+}
+
+object ProfilingDomain {
+
+  /**
+   * The operations whose statistics are collected.
+   */
+  object Operation extends Enumeration {
+    val Top = Value("top")
+    val Bottom = Value("bottom")
+    val Union = Value("union")
+    val Intersection = Value("intersection")
+    val Widening = Value("widening")
+    val Narrowing = Value("narrowing")
+    val NonDeterministicAssignment = Value("nonDeterministicAssignment")
+    val LinearAssignment = Value("linearAssignment")
+    val LinearInequality = Value("linearInequality")
+    val LinearDisequality = Value("linearDisequality")
+    val LinearInequalities = Value("linearInequalities")
+    val NonLinearAssignment = Value("nonLinearAssignment")
+    val Connect = Value("connect")
+    val Minimize = Value("minimize")
+    val Maximize = Value("maximize")
+    val Frequency = Value("frequency")
+    val AddVariable = Value("addVariable")
+    val DelVariable = Value("delVariable")
+    val MapVariables = Value("mapVariables")
+    val Compare = Value("tryCompareTo")
+  }
+
+  /**
+   * The number of buckets of latency histograms. Bucket `i` counts the executions which took
+   * less than `2^i` nanoseconds, and at least `2^(i-1)` nanoseconds when `i` is positive.
+   */
+  val buckets = 40
+
+  private def bucket(nanos: Long): Int = (64 - java.lang.Long.numberOfLeadingZeros(nanos max 0)) min (buckets - 1)
+
+  private class Stats {
+    val calls = new LongAdder
+    val nanos = new LongAdder
+    val bytes = new LongAdder
+    val histogram = new AtomicLongArray(buckets)
+
+    def record(elapsed: Long, allocated: Long): Unit = {
+      calls.increment()
+      nanos.add(elapsed)
+      bytes.add(allocated)
+      histogram.incrementAndGet(bucket(elapsed))
+    }
+
+    def summary(op: Operation.Value, dim: Int) =
+      OperationSummary(op, dim, calls.sum, nanos.sum, bytes.sum, Array.tabulate(buckets)(histogram.get).toIndexedSeq)
+  }
+
+  /**
+   * The statistics of an operation on properties of a given dimension.
+   * @param operation the operation
+   * @param dimension the dimension of the properties
+   * @param calls the number of executions
+   * @param nanos the total time of the executions, in nanoseconds
+   * @param bytes the total number of bytes allocated by the executions
+   * @param histogram the latency histogram, as described in [[ProfilingDomain.buckets]]
+   */
+  case class OperationSummary(operation: Operation.Value, dimension: Int, calls: Long, nanos: Long, bytes: Long,
+      histogram: IndexedSeq[Long]) {
+
+    /**
+     * Returns an upper bound of the `q`-quantile of latencies, in nanoseconds, for `q` in `[0,1]`.
+     */
+    def quantile(q: Double): Long = {
+      require(q >= 0 && q <= 1)
+      val target = math.ceil(q * calls).toLong max 1
+      var i = 0
+      var seen = histogram(0)
+      while (seen < target && i < buckets - 1) {
+        i += 1
+        seen += histogram(i)
+      }
+      1L << i
+    }
+
+    override def toString =
+      s"$operation (dimension $dimension): $calls calls, ${nanos / 1000} µs, ${bytes / calls} bytes/call, " +
+        s"median < ${quantile(0.5)} ns, p99 < ${quantile(0.99)} ns"
+  }
+
+  /**
+   * Builds a profiling decorator for the domain `dom`.
+   */
+  def apply[D <: NumericalDomain](dom: D, allocations: Boolean = true) = new ProfilingDomain(dom, allocations)
+}
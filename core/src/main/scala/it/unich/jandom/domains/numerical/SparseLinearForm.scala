@@ -0,0 +1,149 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.domains.numerical
+
+import scala.collection.immutable.ArraySeq
+import scala.collection.mutable.ArrayBuffer
+
+import spire.math.Rational
+
+/**
+ * The class SparseLinearForm is an implementation of the LinearForm trait which only keeps
+ * the non-zero homogeneous coefficients. Hence, it is convenient for linear forms which only
+ * mention a few variables of a large environment. Operations which do not return sequences of
+ * coefficients are linear in the number of non-zero coefficients.
+ * @param known the constant term of the linear form.
+ * @param indices the indexes of the variables with a non-zero coefficient, in increasing order.
+ * @param values the non-zero coefficients of the variables in `indices`.
+ * @param dimension the number of dimensions of the linear form, which may be greater than the
+ * largest index in `indices`.
+ */
+class SparseLinearForm private (val known: Rational, indices: Array[Int], values: Array[Rational], val dimension: Int)
+  extends LinearForm {
+
+  def coeffs: Seq[Rational] = {
+    val a = Array.fill(dimension + 1)(Rational.zero)
+    a(0) = known
+    for (k <- indices.indices) a(indices(k) + 1) = values(k)
+    ArraySeq.unsafeWrapArray(a)
+  }
+
+  def pairs: Seq[(Int, Rational)] = indices.indices map { k => (indices(k), values(k)) }
+
+  def homcoeffs = coeffs.tail
+
+  def hom = if (known.isZero) this else new SparseLinearForm(Rational.zero, indices, values, dimension)
+
+  def isConstant = indices.isEmpty
+
+  def isZero = isConstant && known.isZero
+
+  def unary_- = new SparseLinearForm(-known, indices, values map (x => -x), dimension)
+
+  /**
+   * @inheritdoc
+   * It merges the non-zero coefficients of the two linear forms.
+   */
+  def +(that: LinearForm): LinearForm = {
+    val thatPairs = that.pairs
+    val newpairs = new ArrayBuffer[(Int, Rational)](indices.length + thatPairs.length)
+    var k = 0
+    for ((j, c) <- thatPairs) {
+      while (k < indices.length && indices(k) < j) {
+        newpairs += indices(k) -> values(k)
+        k += 1
+      }
+      if (k < indices.length && indices(k) == j) {
+        val sum = values(k) + c
+        if (!sum.isZero) newpairs += j -> sum
+        k += 1
+      } else
+        newpairs += j -> c
+    }
+    while (k < indices.length) {
+      newpairs += indices(k) -> values(k)
+      k += 1
+    }
+    LinearForm.fromPairs(known + that.known, newpairs, dimension max that.dimension)
+  }
+
+  def -(that: LinearForm): LinearForm = this + (-that)
+
+  def *(coeff: Rational): LinearForm =
+    if (coeff.isZero)
+      new SparseLinearForm(Rational.zero, Array.emptyIntArray, Array.empty[Rational], dimension)
+    else
+      new SparseLinearForm(known * coeff, indices, values map (_ * coeff), dimension)
+
+  def *(that: LinearForm): Option[LinearForm] = {
+    if (isConstant)
+      Option(that * known)
+    else if (that.isConstant)
+      Option(this * that.known)
+    else
+      Option.empty
+  }
+
+  def /(coeff: Rational): LinearForm = new SparseLinearForm(known / coeff, indices, values map (_ / coeff), dimension)
+
+  def /(that: LinearForm): Option[LinearForm] = {
+    if (that.isConstant && !that.known.isZero)
+      Option(this / that.known)
+    else
+      Option.empty
+  }
+
+  def mkString(vars: Seq[String]): String =
+    LinearForm.mkString((0 -> known) +: (pairs map { case (i, c) => (i + 1, c) }), vars)
+
+  override def padded(n: Int): LinearForm = {
+    require(n > 0, "A linear form should have at least the constant term")
+    require(indices forall { _ < n - 1 }, s"Variables with non-zero coefficients cannot be removed from $this")
+    if (dimension + 1 == n) this else new SparseLinearForm(known, indices, values, n - 1)
+  }
+}
+
+/**
+ * Factory object for the SparseLinearForm class.
+ */
+object SparseLinearForm {
+  /**
+   * Builds a sparse linear form given the constant term and the homogeneous coefficients.
+   * @param known the constant term of the linear form.
+   * @param pairs a sequence of pairs (i,ci), where i is the index of a variable and ci its
+   * coefficient. Zero coefficients are discarded, and coefficients of the same variable are summed.
+   * @param dimension the dimension of the linear form, which should be greater than all the indexes.
+   */
+  def apply(known: Rational, pairs: Seq[(Int, Rational)], dimension: Int): SparseLinearForm = {
+    val sorted = pairs.sortBy(_._1)
+    val indices = new ArrayBuffer[Int](sorted.length)
+    val values = new ArrayBuffer[Rational](sorted.length)
+    for ((i, c) <- sorted) {
+      require(i >= 0 && i < dimension, s"Index $i is not valid for a linear form of dimension $dimension")
+      if (indices.nonEmpty && indices.last == i)
+        values(values.length - 1) += c
+      else {
+        indices += i
+        values += c
+      }
+    }
+    val nonZero = values.indices filter { k => !values(k).isZero }
+    new SparseLinearForm(known, nonZero.map(indices).toArray, nonZero.map(values).toArray, dimension)
+  }
+}
@@ -42,6 +42,12 @@ abstract class SumDomain[D1 <: NumericalDomain, D2 <: NumericalDomain] extends N
       this(w1.box(a.p1, b.p1), w2.box(a.p2, b.p2))
     })
 
+  /**
+   * @inheritdoc
+   * The sum is thread-safe when both the components are.
+   */
+  override def isThreadSafe: Boolean = dom1.isThreadSafe && dom2.isThreadSafe
+
   abstract class Sum extends NumericalProperty[Property] {
 
     this: Property =>
@@ -43,6 +43,15 @@ trait Octagon[N <: IField[N], O <: Octagon[N, O]]
   def test_vj0_plus_vi0_le_c(vj0 : Var, vi0 : Var, c : N) : O
   def test_minus_vj0_minus_vi0_plus_c_le_0(vj0 : Var, vi0 : Var, c : N) : O
 
+  /**
+    * Intersection with all the constraints m(i,j) <= c for (i, j, c) in
+    * `cells`, where m is the DBM of this octagon. Cells should be
+    * coherent, i.e. each constraint should also be given for the cell
+    * (bar j, bar i). It is equivalent to a sequence of the tests
+    * above, but the result needs to be closed only once.
+    */
+  def test_cells(cells : Seq[(DBMIdx, N)]) : O
+
   // Abstract assignment (Mine' 2006 fig. 15 p. 35)
   def forget(f : Var) : O
   def assign_vj0_gets_c(j0 : Var, c : N) : O
@@ -86,6 +95,7 @@ trait BottomOctagon[N <: IField[N], O <: Octagon[N, O]] {
   def test_vj0_minus_vi0_plus_c_le_0(vj0 : Var, vi0 : Var, c : N) : O = bottom
   def test_vj0_plus_vi0_le_c(vj0 : Var, vi0 : Var, c : N) : O = bottom
   def test_minus_vj0_minus_vi0_plus_c_le_0(vj0 : Var, vi0 : Var, c : N) : O = bottom
+  def test_cells(cells : Seq[(DBMIdx, N)]) : O = bottom
 
   def get_ineq_vi_minus_vj_leq_c(i : SignedVarIdx, j : SignedVarIdx) : Option[N] = None
 
@@ -21,12 +21,14 @@ import  it.unich.jandom.domains.numerical.BoxRationalDomain
 
 import it.unich.jandom.domains.numerical.LinearForm
 import it.unich.jandom.domains.numerical.NumericalProperty
+import it.unich.jandom.utils.numberext.IField
 import it.unich.jandom.utils.numberext.RationalExt
 import spire.math.Rational
-import it.unich.jandom.utils.numberext.StaticIField
+import it.unich.jandom.utils.numberext.RationalIField
 import scala.language.implicitConversions
 import math.PartiallyOrdered
 import it.unich.jandom.domains.numerical._
+import it.unich.jandom.utils.dbm.DBMIdx
 
 /**
   * This class adapts a NumericalProperty interface to the Octagon
@@ -36,10 +38,14 @@ import it.unich.jandom.domains.numerical._
   *
   * There is no actual octagon-related logic besides dispatching, nor
   * any additional state mantained herein.
+  *
+  * Constants in linear forms are converted to N with the rounding
+  * which keeps the result sound: downwards for tests, and in both
+  * directions for assignments, whose results are then joined.
   */
-class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrait[O]]
+class OctagonPropertyModule[N <: IField[N], O <: Octagon[N, O], D <: OctagonDomainTrait[N, O]]
   (octDomain : D)
-  (implicit ifield : StaticIField[RationalExt]) {
+  (implicit ifield : RationalIField[N]) {
 
   val boxDomain = BoxRationalDomain()
   def fromBox (b : BoxRationalDomain#Property) : OctagonProperty = {
@@ -64,6 +70,23 @@ class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrai
 
     implicit def octagonToProperty (o : O) : Property = OctagonProperty(o)
 
+    /**
+      * Applies an assignment of a constant `c`. When `c` is not exactly
+      * representable in N, the result is the join of the assignments of
+      * its closest lower and upper approximations.
+      */
+    private def assignConstant(c : Rational)(assign : N => O) : O = {
+      val lo = ifield.fromRationalDown(c)
+      val hi = ifield.fromRationalUp(c)
+      if (lo == hi) assign(lo) else assign(lo) union assign(hi)
+    }
+
+    /**
+      * The constant `c` of a test `... + c <= 0`, rounded so that the
+      * test gets weaker.
+      */
+    private def testConstant(c : Rational) : N = ifield.fromRationalDown(c)
+
     def domain = octDomain
     def dimension = o.dimension.octagonDimToInt
     def widening(that : Property) = o.widening(that.o)
@@ -76,6 +99,13 @@ class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrai
       */
     def nonDeterministicAssignment(n: Int): Property = o.forget(Var(n + 1))
 
+    /**
+      * Returns the non-zero homogeneous coefficients of `lf`, with the
+      * index of the corresponding variable.
+      */
+    private def nonZeroCoeffs(lf : LinearForm) : Seq[(Rational, Int)] =
+      lf.pairs map (_.swap)
+
     /**
       * Dispatches a linearAssignment call to the handler for the
       * appropriate octagon exact abstract assignment operator (as
@@ -84,45 +114,41 @@ class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrai
       */
     def linearAssignment(j0 : Int, l: LinearForm): Property = {
       val lf = l.padded(dimension + 1)
-      assert(lf.homcoeffs.size > j0, ""+lf + lf.homcoeffs + j0 + dimension)
-      val zipped = lf.homcoeffs.zipWithIndex
-      if (zipped.filter(_._1 != 0).size == 0)
-        // Case 1. {{ Vj0 <- c }}
-        o.assign_vj0_gets_c(Var(j0 + 1), lf.known)
-      else if (zipped.filter(_._1 != 0).size == 1) {
-        if (lf.homcoeffs(j0) == 1) {
-          // Case 2. {{ Vj0 <- Vj0 + c }}
-          if (lf.known == 0)
-            o // vj <- vj + 0
-          else
-            o.assign_vj0_gets_vj0_plus_c(Var(j0 + 1), lf.known)
-        } else if (lf.homcoeffs(j0) == -1) {
-          // Case 4. {{ Vj0 <- - Vj0 + c }}
-          if (lf.known == 0)
-            o.assign_vj0_gets_minus_vj0(Var(j0 + 1)) // TODO: totally useless?
-          else
-            o.assign_vj0_gets_minus_vj0_plus_c(Var(j0 + 1), lf.known)
-        } else {
-          // 1 coeff; possibly case 3. 5 or 7
-          val coeff = zipped.filter(_._1 != 0).head._1
-          val i0 = zipped.filter(_._1 != 0).head._2
-          if (coeff == 1) {
+      assert(lf.dimension > j0, ""+lf + lf.homcoeffs + j0 + dimension)
+      nonZeroCoeffs(lf) match {
+        case Seq() =>
+          // Case 1. {{ Vj0 <- c }}
+          assignConstant(lf.known)(o.assign_vj0_gets_c(Var(j0 + 1), _))
+        case Seq((coeff, i0)) =>
+          if (i0 == j0 && coeff == 1) {
+            // Case 2. {{ Vj0 <- Vj0 + c }}
+            if (lf.known == 0)
+              o // vj <- vj + 0
+            else
+              assignConstant(lf.known)(o.assign_vj0_gets_vj0_plus_c(Var(j0 + 1), _))
+          } else if (i0 == j0 && coeff == -1) {
+            // Case 4. {{ Vj0 <- - Vj0 + c }}
+            if (lf.known == 0)
+              o.assign_vj0_gets_minus_vj0(Var(j0 + 1)) // TODO: totally useless?
+            else
+              assignConstant(lf.known)(o.assign_vj0_gets_minus_vj0_plus_c(Var(j0 + 1), _))
+          } else if (i0 != j0 && coeff == 1) {
             // Case 3. {{ Vj0 <- Vi0 + c }}
-            o.assign_vj0_gets_vi0_plus_c(Var(j0 + 1), Var(i0 + 1), lf.known)
-          } else if (coeff == -1) {
+            assignConstant(lf.known)(o.assign_vj0_gets_vi0_plus_c(Var(j0 + 1), Var(i0 + 1), _))
+          } else if (i0 != j0 && coeff == -1) {
             // Case ??? {{ Vj0 <- -Vi0 }}
             if (lf.known == 0)
               o.assign_vj0_gets_minus_vi0(Var(j0 + 1), Var(i0 + 1)) // TODO: totally useless?
             else
-              o.assign_vj0_gets_minus_vi0_plus_c(Var(j0 + 1), Var(i0 + 1), lf.known)
+              assignConstant(lf.known)(o.assign_vj0_gets_minus_vi0_plus_c(Var(j0 + 1), Var(i0 + 1), _))
           } else {
             // coeff is not -1, +1, use box fallback
             fromBox(toBox.linearAssignment(j0, l))
           }
-        }
-      } else
-        // Use fallback: More than 2 non-zero coefficients
-        fromBox(toBox.linearAssignment(j0, l))
+        case _ =>
+          // Use fallback: More than 2 non-zero coefficients
+          fromBox(toBox.linearAssignment(j0, l))
+      }
     }
 
     /**
@@ -136,50 +162,88 @@ class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrai
       if (o.isBottom)
         this // TODO: Is this useless? If o is bottom its own transfer
              // functions should be okay already
-      else {
-        val zipped = lf.homcoeffs.zipWithIndex
-        if (zipped.filter(_._1 != 0).size == 0) {
+      else nonZeroCoeffs(lf) match {
+        case Seq() =>
           if (lf.known <= 0)
             this // The solution to 0x1 + 0x2 + ... + 0xn + c <= 0 is "anything" if c <= 0
           else // lf.known > 0
             bottom
           // The solution to 0x1 + 0x2 + ... + 0xn + c <= 0 is _|_ if c > 0
-        } else if (zipped.filter(_._1 != 0).size == 1) {
-          val coeff = zipped.filter(_._1 != 0).head._1
-          val j0 = zipped.filter(_._1 != 0).head._2
+        case Seq((coeff, j0)) =>
           if (coeff == 1)
             // Case 1. {{ Vj0 + c <= 0 ? }}
-            o.test_vj0_plus_c_le_0(Var(j0 + 1), lf.known)
+            o.test_vj0_plus_c_le_0(Var(j0 + 1), testConstant(lf.known))
           else if (coeff == -1)
             // Case 2. {{ -Vj0 + c <= 0 ? }}
-            o.test_minus_vj0_plus_c_le_0(Var(j0 + 1), lf.known)
+            o.test_minus_vj0_plus_c_le_0(Var(j0 + 1), testConstant(lf.known))
           else
             // Use box fallback: {{ k Vj0 + c <= 0 ? }} for k != 1, -1
             fromBox(toBox.linearInequality(lf))
-        } else if (zipped.filter(_._1 != 0).size == 2) {
-          val coeffj0 = zipped.filter(_._1 != 0).head._1
-          val j0 = zipped.filter(_._1 != 0).head._2
-          val coeffi0 = zipped.filter(_._1 != 0).tail.head._1
-          val i0 = zipped.filter(_._1 != 0).tail.head._2
+        case Seq((coeffj0, j0), (coeffi0, i0)) =>
           if (coeffj0 == 1 & coeffi0 == -1)
             // Case 3.  {{ Vj0 - Vi0 + c <= 0 ? }}
-            o.test_vj0_minus_vi0_plus_c_le_0(Var(j0 + 1), Var(i0 + 1), lf.known)
+            o.test_vj0_minus_vi0_plus_c_le_0(Var(j0 + 1), Var(i0 + 1), testConstant(lf.known))
           else if (coeffj0 == -1 & coeffi0 == 1)
             // Case 3 bis.  (with Vj0 <-> Vi0)
-            o.test_vj0_minus_vi0_plus_c_le_0(Var(i0 + 1), Var(j0 + 1), lf.known)
+            o.test_vj0_minus_vi0_plus_c_le_0(Var(i0 + 1), Var(j0 + 1), testConstant(lf.known))
           else if (coeffj0 == 1 & coeffi0 == 1)
             // Case 4.  {{ Vj0 + Vi0 + c <= 0 ? }}
-            o.test_vj0_plus_vi0_le_c(Var(i0 + 1), Var(j0 + 1), lf.known)
+            o.test_vj0_plus_vi0_le_c(Var(i0 + 1), Var(j0 + 1), testConstant(lf.known))
           else if (coeffj0 == -1 & coeffi0 == -1)
             // Case 5. {{ -Vj0 - Vi0 + c <= 0 ? }}
-            o.test_minus_vj0_minus_vi0_plus_c_le_0(Var(j0 + 1), Var(i0 + 1), lf.known)
+            o.test_minus_vj0_minus_vi0_plus_c_le_0(Var(j0 + 1), Var(i0 + 1), testConstant(lf.known))
           else
             // Use box fallback:  {{ k Vj0 + k' Vi0 + c <= 0 ? }} for k, k' not in 1, -1
             fromBox(toBox.linearInequality(lf))
-        } else {
+        case _ =>
           // Use fallback: More than 2 non-zero coefficients
           fromBox(toBox.linearInequality(lf))
-        }
+      }
+    }
+
+    /**
+      * Returns the DBM cells, with their bounds, which encode the
+      * constraint `lf <= 0` as in the tests of Mine' 2006 fig. 20
+      * p. 42, or None if `lf` is not octagonal or has no variables.
+      */
+    private def octagonalCells(lf : LinearForm) : Option[Seq[(DBMIdx, N)]] = {
+      def cell(i : SignedVarIdx, j : SignedVarIdx, c : N) = (DBMIdx(i.i, j.i), c)
+      lazy val c = testConstant(lf.known)
+      nonZeroCoeffs(lf) match {
+        case Seq((coeff, j)) if coeff == 1 || coeff == -1 =>
+          val vj = Var(j + 1)
+          // {{ Vj + c <= 0 ? }} or {{ -Vj + c <= 0 ? }}
+          if (coeff == 1)
+            Some(Seq(cell(vj.negForm, vj.posForm, -c._x_2)))
+          else
+            Some(Seq(cell(vj.posForm, vj.negForm, -c._x_2)))
+        case Seq((coeffj, j), (coeffi, i)) if (coeffj == 1 || coeffj == -1) && (coeffi == 1 || coeffi == -1) =>
+          // {{ +-Vj +-Vi + c <= 0 ? }} is Vj' - Vi' <= -c for the signed forms
+          // Vj' of +-Vj and Vi' of -+Vi, and its coherent twin
+          val sj = if (coeffj == 1) Var(j + 1).posForm else Var(j + 1).negForm
+          val si = if (coeffi == 1) Var(i + 1).negForm else Var(i + 1).posForm
+          Some(Seq(cell(si, sj, -c), cell(sj.bar, si.bar, -c)))
+        case _ => None
+      }
+    }
+
+    /**
+      * Intersection with all the half-planes `lf <= 0`. The octagonal
+      * ones are all applied to the DBM before closing it, hence the
+      * closure is computed once. The other ones are then applied one at
+      * a time with `linearInequality`.
+      */
+    override def linearInequalities(lfs: Seq[LinearForm]): Property = {
+      val encoded = lfs.map(lf => (lf, octagonalCells(lf)))
+      val cells = encoded.flatMap(_._2.getOrElse(Seq()))
+      val others = encoded.collect { case (lf, None) => lf }
+      val tightened : Property = if (cells.isEmpty) this else o.test_cells(cells)
+      if (others.isEmpty)
+        tightened
+      else {
+        val approximated = others.foldLeft(tightened)(_.linearInequality(_))
+        // The box fallback loses the relational constraints, so we apply them again
+        if (cells.isEmpty) approximated else approximated.o.test_cells(cells)
       }
     }
 
@@ -230,7 +294,7 @@ class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrai
       else {(for {
         i <- o.dimension.allVars.flatMap(x => Seq(x.posForm, x.negForm)) : Seq[SignedVarIdx];
         j <- o.dimension.allVars.flatMap(x => Seq(x.posForm, x.negForm)) : Seq[SignedVarIdx];
-        c : RationalExt = o.get_ineq_vi_minus_vj_leq_c(i,j).get
+        c : RationalExt = ifield.toRationalExt(o.get_ineq_vi_minus_vj_leq_c(i,j).get)
         if (!c.isInfinity) // +oo if there is no constraint (Mine 2006 p. 7)
         if (i != j) // Don't care about x - x = 0
         arri = Array
@@ -264,7 +328,23 @@ class OctagonPropertyModule[O <: Octagon[RationalExt, O], D <: OctagonDomainTrai
     def isBottom = o.isBottom
     def bottom = octDomain.makeBottom(this.dimension)
     def top = octDomain.makeTop(this.dimension)
-    override def hashCode = 123456 + o.hashCode
+
+    /**
+      * Only depends on the strongly closed form of the octagon, which is
+      * what `tryCompareTo` compares, hence equal properties have the same
+      * hash code whatever representation the octagon uses. Since
+      * properties are immutable, it is computed once.
+      */
+    override lazy val hashCode : Int =
+      if (isBottom)
+        123456 + dimension
+      else {
+        val n2 = 2 * dimension
+        var h = n2
+        for (i <- 1 to n2; j <- 1 to ((i - 1) | 1) + 1)
+          h = 31 * h + o.get_ineq_vi_minus_vj_leq_c(SignedVarIdx(j), SignedVarIdx(i)).hashCode
+        h
+      }
 
     def tryCompareTo[B >: OctagonProperty](other: B)(implicit arg0: (B) => PartiallyOrdered[B]): Option[Int] =
       other match {
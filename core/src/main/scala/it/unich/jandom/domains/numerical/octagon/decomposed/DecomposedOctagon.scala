@@ -0,0 +1,347 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.domains.numerical.octagon.decomposed
+import it.unich.jandom.domains.numerical.octagon._
+import it.unich.jandom.domains.numerical.octagon.optimized._
+import it.unich.jandom.utils.DisjointSets
+import it.unich.jandom.utils.dbm._
+import it.unich.jandom.utils.numberext.IField
+import it.unich.jandom.utils.numberext.StaticIField
+
+/**
+  * An octagon decomposed in independent blocks of variables, each one
+  * kept as a separate `OptimizedOctagon` (a.k.a. variable packing).
+  * Closure only works on a single block, hence its cost is cubic in
+  * the size of the largest block instead of in the number of
+  * variables.
+  *
+  * Two blocks are merged only when a test or an assignment relates
+  * variables across them. Non-invertible assignments detach the
+  * assigned variable from its block, so blocks may also split.
+  *
+  * Constraints between variables in different blocks are not stored:
+  * they are those obtained by the strengthening step from the bounds
+  * of each variable (Mine' 2006 p. 19), so that the result of tests,
+  * assignments and comparisons is the same as for a non-decomposed
+  * octagon. Union, widening and narrowing are computed block by block
+  * on the coarsest common partition, which may lose some relations
+  * between blocks which the non-decomposed union would find.
+  */
+sealed trait DecomposedOctagon[N <: IField[N]] extends Octagon[N, DecomposedOctagon[N]]
+
+case class BottomDecOcta[N <: IField[N]] (dimension : OctagonDim)
+    extends DecomposedOctagon[N] with BottomOctagon[N, DecomposedOctagon[N]] {
+
+  def bottom = this
+  def tryCompareTo[B >: DecomposedOctagon[N]](other: B)
+    (implicit arg0: (B) => PartiallyOrdered[B]): Option[Int] =
+    other match {
+      case that : DecomposedOctagon[N @unchecked] => if (that.isBottom) Some(0) else Some(-1)
+      case _ => None
+    }
+}
+
+/**
+  * A block of a decomposed octagon. The `k`-th variable of `oct` is
+  * the variable `vars(k)` of the decomposed octagon.
+  * @param vars the (1-based) indexes of the variables in the block, in increasing order.
+  */
+private[decomposed] class Block[N <: IField[N]](val vars : Array[Int], val oct : NonBottomOptOcta[N])
+
+/**
+  * A non-bottom decomposed octagon. For each variable `v`, `blockOf(v)`
+  * is the index in `blocks` of its block, and `pos(v)` its position
+  * inside the block. Position 0 of both arrays is unused.
+  */
+class NonBottomDecOcta[N <: IField[N]] private[decomposed]
+  (val dimension : OctagonDim,
+    private val blocks : Vector[Block[N]],
+    private val blockOf : Array[Int],
+    private val pos : Array[Int])
+  (implicit ifield : StaticIField[N], cs : IncrementalMineFloydWarshall[N], fac : DBMFactory[N])
+    extends DecomposedOctagon[N] {
+
+  import DecomposedOctagon.singletonTop
+
+  /**
+    * Translates a variable into the corresponding variable of its block.
+    */
+  private def local(v : Var) : Var = Var(pos(v.i) + 1)
+
+  private def local(s : SignedVarIdx) : SignedVarIdx = s match {
+    case _ : VPlusIdx => local(s.toVar).posForm
+    case _ => local(s.toVar).negForm
+  }
+
+  private def updated(b : Int, o : OptimizedOctagon[N]) : DecomposedOctagon[N] = o match {
+    case o : NonBottomOptOcta[N @unchecked] =>
+      new NonBottomDecOcta(dimension, blocks.updated(b, new Block(blocks(b).vars, o)), blockOf, pos)
+    case _ => BottomDecOcta(dimension)
+  }
+
+  /**
+    * Applies `f` to the octagon of the block of `v`.
+    */
+  private def onBlockOf(v : Var)(f : NonBottomOptOcta[N] => OptimizedOctagon[N]) : DecomposedOctagon[N] = {
+    val b = blockOf(v.i)
+    updated(b, f(blocks(b).oct))
+  }
+
+  /**
+    * Returns an octagon on the variables `vars`, which should be a union
+    * of blocks, with the constraints of all these blocks. The result
+    * is not closed.
+    */
+  private def merged(vars : Array[Int]) : NonBottomOptOcta[N] = {
+    val first = blocks(blockOf(vars(0)))
+    if (first.vars.length == vars.length)
+      first.oct
+    else {
+      val dbms = vars.map(blockOf).distinct.map(b => b -> blocks(b).oct.anyDbm).toMap
+      // Block and signed index in the block of the signed index s of the result
+      def source(s : Int) = {
+        val v = vars((s - 1) / 2)
+        (blockOf(v), 2 * pos(v) + 2 - s % 2)
+      }
+      val m = fac.fromFun(OctagonDim(vars.length).toDBMDim, (idx : DBMIdx) => {
+        val (bi, si) = source(idx.i)
+        val (bj, sj) = source(idx.j)
+        if (bi == bj) dbms(bi)(DBMIdx(si, sj)) else ifield.PositiveInfinity
+      })
+      new CachingOctagon[N](Left(m))
+    }
+  }
+
+  /**
+    * Returns an equivalent octagon where `v` and `w` are in the same block.
+    */
+  private def related(v : Var, w : Var) : NonBottomDecOcta[N] = {
+    val bv = blockOf(v.i)
+    val bw = blockOf(w.i)
+    if (bv == bw)
+      this
+    else {
+      val vars = (blocks(bv).vars ++ blocks(bw).vars).sorted
+      DecomposedOctagon(dimension, blocks.indices.filter(b => b != bv && b != bw).map(blocks) :+ new Block(vars, merged(vars)))
+    }
+  }
+
+  /**
+    * Returns an octagon where `v` is the only variable of its block, with
+    * no constraint on `v`, and calls `f` on it. If `v` is already alone,
+    * `f` is called on this octagon, with its constraints on `v`.
+    */
+  private def withDetached(v : Var)(f : NonBottomDecOcta[N] => DecomposedOctagon[N]) : DecomposedOctagon[N] = {
+    val b = blockOf(v.i)
+    val block = blocks(b)
+    if (block.vars.length == 1)
+      f(this)
+    else block.oct.closedDbm match {
+      case None => BottomDecOcta(dimension)
+      case Some(closed) =>
+        val p = pos(v.i)
+        def source(s : Int) = if (s <= 2 * p) s else s + 2
+        // The projection of a strongly closed DBM is strongly closed
+        val rest = cs.makeClosed(OctagonDim(block.vars.length - 1).toDBMDim)(
+          (idx : DBMIdx) => closed(DBMIdx(source(idx.i), source(idx.j))))
+        f(DecomposedOctagon(dimension,
+          blocks.updated(b, new Block(block.vars.filter(_ != v.i), new CachingOctagon[N](Right(rest)))) :+ singletonTop(v.i)))
+    }
+  }
+
+  /**
+    * Returns the blocks of the coarsest partition of the variables which
+    * is coarser than the partitions of both `this` and `that`.
+    */
+  private def commonBlocks(that : NonBottomDecOcta[N]) : Seq[Array[Int]] = {
+    val sets = DisjointSets(dimension.allVars.map(_.i) : _*)
+    for (block <- blocks ++ that.blocks; v <- block.vars) sets.union(block.vars(0), v)
+    dimension.allVars.map(_.i).groupBy(sets(_)).values.map(_.toArray).toSeq
+  }
+
+  private def blockwise(that : NonBottomDecOcta[N])(op : (NonBottomOptOcta[N], NonBottomOptOcta[N]) => OptimizedOctagon[N]) : DecomposedOctagon[N] = {
+    val parts = commonBlocks(that).map(vars => (vars, op(merged(vars), that.merged(vars))))
+    val nonBottom = parts.collect { case (vars, o : NonBottomOptOcta[N @unchecked]) => new Block(vars, o) }
+    if (nonBottom.size < parts.size)
+      BottomDecOcta(dimension)
+    else
+      DecomposedOctagon(dimension, nonBottom)
+  }
+
+  def test_vj0_plus_c_le_0 (j0 : Var, c : N) : DecomposedOctagon[N] =
+    onBlockOf(j0)(_.test_vj0_plus_c_le_0(local(j0), c))
+
+  def test_minus_vj0_plus_c_le_0 (j0 : Var, c : N) : DecomposedOctagon[N] =
+    onBlockOf(j0)(_.test_minus_vj0_plus_c_le_0(local(j0), c))
+
+  def test_vj0_minus_vi0_plus_c_le_0(j0 : Var, i0 : Var, c : N) : DecomposedOctagon[N] = {
+    val r = related(j0, i0)
+    r.onBlockOf(j0)(_.test_vj0_minus_vi0_plus_c_le_0(r.local(j0), r.local(i0), c))
+  }
+
+  def test_vj0_plus_vi0_le_c(j0 : Var, i0 : Var, c : N) : DecomposedOctagon[N] = {
+    val r = related(j0, i0)
+    r.onBlockOf(j0)(_.test_vj0_plus_vi0_le_c(r.local(j0), r.local(i0), c))
+  }
+
+  def test_minus_vj0_minus_vi0_plus_c_le_0(j0 : Var, i0 : Var, c : N) : DecomposedOctagon[N] = {
+    val r = related(j0, i0)
+    r.onBlockOf(j0)(_.test_minus_vj0_minus_vi0_plus_c_le_0(r.local(j0), r.local(i0), c))
+  }
+
+  def test_cells(cells : Seq[(DBMIdx, N)]) : DecomposedOctagon[N] = {
+    def varOf(s : Int) = Var((s + 1) / 2)
+    val r = cells.foldLeft(this) { case (d, (idx, _)) => d.related(varOf(idx.i), varOf(idx.j)) }
+    def local(s : Int) = 2 * r.pos(varOf(s).i) + 2 - s % 2
+    cells.groupBy(cell => r.blockOf(varOf(cell._1.i).i)).foldLeft(r : DecomposedOctagon[N]) {
+      case (d : NonBottomDecOcta[N @unchecked], (b, blockCells)) =>
+        d.updated(b, d.blocks(b).oct.test_cells(blockCells.map {
+          case (idx, c) => (DBMIdx(local(idx.i), local(idx.j)), c)
+        }))
+      case (bottom, _) => bottom
+    }
+  }
+
+  def forget(f : Var) : DecomposedOctagon[N] =
+    withDetached(f)(d => d.onBlockOf(f)(_.forget(d.local(f))))
+
+  def assign_vj0_gets_c(j0 : Var, c : N) : DecomposedOctagon[N] =
+    withDetached(j0)(d => d.onBlockOf(j0)(_.assign_vj0_gets_c(d.local(j0), c)))
+
+  def assign_vj0_gets_vj0_plus_c(j0 : Var, c : N) : DecomposedOctagon[N] =
+    onBlockOf(j0)(_.assign_vj0_gets_vj0_plus_c(local(j0), c))
+
+  def assign_vj0_gets_vi0_plus_c(j0 : Var, i0 : Var, c : N) : DecomposedOctagon[N] = {
+    def assign(d : NonBottomDecOcta[N]) = {
+      val r = d.related(j0, i0)
+      r.onBlockOf(j0)(_.assign_vj0_gets_vi0_plus_c(r.local(j0), r.local(i0), c))
+    }
+    // The old constraints on j0 are forgotten, so they should not cause a merge
+    if (blockOf(j0.i) == blockOf(i0.i)) assign(this) else withDetached(j0)(assign)
+  }
+
+  def assign_vj0_gets_minus_vj0(j0 : Var) : DecomposedOctagon[N] =
+    onBlockOf(j0)(_.assign_vj0_gets_minus_vj0(local(j0)))
+
+  protected def assign_vj0_gets_vi0(j0 : Var, i0 : Var) : DecomposedOctagon[N] =
+    assign_vj0_gets_vi0_plus_c(j0, i0, ifield.zero)
+
+  /**
+    * See `NonBottomOptOcta.get_ineq_vi_minus_vj_leq_c` for the meaning
+    * of the indexes. Constraints between different blocks are obtained
+    * by strengthening: m(i,j) = (m(i,bar i) + m(bar j, j)) / 2.
+    */
+  def get_ineq_vi_minus_vj_leq_c(j : SignedVarIdx, i : SignedVarIdx) : Option[N] = {
+    val bj = blockOf(j.toVar.i)
+    val bi = blockOf(i.toVar.i)
+    if (bi == bj)
+      blocks(bi).oct.get_ineq_vi_minus_vj_leq_c(local(j), local(i))
+    else for {
+      mii <- blocks(bi).oct.get_ineq_vi_minus_vj_leq_c(local(i.bar), local(i))
+      mjj <- blocks(bj).oct.get_ineq_vi_minus_vj_leq_c(local(j), local(j.bar))
+    } yield (mii + mjj)._div_2
+  }
+
+  def isEmpty = isBottom
+
+  def isBottom = blocks.exists(_.oct.isBottom)
+
+  def isTop = blocks.forall(_.oct.isTop)
+
+  def union(that : DecomposedOctagon[N]) : DecomposedOctagon[N] = that match {
+    case o : NonBottomDecOcta[N @unchecked] =>
+      assert (o.dimension == this.dimension)
+      if (isBottom) that
+      else if (o.isBottom) this
+      else blockwise(o)(_ union _)
+    case _ => assert (that.dimension == this.dimension); this
+  }
+
+  def intersection(that : DecomposedOctagon[N]) : DecomposedOctagon[N] = that match {
+    case o : NonBottomDecOcta[N @unchecked] =>
+      assert (o.dimension == this.dimension)
+      blockwise(o)(_ intersection _)
+    case _ => assert (that.dimension == this.dimension); that
+  }
+
+  def widening(that : DecomposedOctagon[N]) : DecomposedOctagon[N] = that match {
+    case o : NonBottomDecOcta[N @unchecked] =>
+      if (isBottom) that
+      else if (o.isBottom) this
+      else blockwise(o)(_ widening _)
+    case _ => this
+  }
+
+  def narrowing(that : DecomposedOctagon[N]) : DecomposedOctagon[N] = that match {
+    case o : NonBottomDecOcta[N @unchecked] =>
+      if (isBottom) this
+      else if (o.isBottom) that
+      else blockwise(o)(_ narrowing _)
+    case _ => that
+  }
+
+  def tryCompareTo[B >: DecomposedOctagon[N]](other: B)
+    (implicit arg0: (B) => PartiallyOrdered[B]): Option[Int] =
+    other match {
+      case o : DecomposedOctagon[N @unchecked] =>
+        if (isBottom) {
+          if (o.isBottom) Some(0) else Some(-1)
+        } else o match {
+          case o : NonBottomDecOcta[N @unchecked] if !o.isBottom =>
+            commonBlocks(o).foldLeft(Option(0)) {
+              (res, vars) => res.flatMap { r =>
+                (merged(vars) : OptimizedOctagon[N]).tryCompareTo(o.merged(vars)).flatMap { c =>
+                  if (r == 0) Some(c)
+                  else if (c == 0 || c == r) Some(r)
+                  else None
+                }
+              }
+            }
+          case _ => Some(1)
+        }
+      case _ => None
+    }
+
+  override def toString = blocks.map(b => b.vars.mkString("{", ",", "}")).mkString("DecomposedOctagon(", " ", ")")
+}
+
+object DecomposedOctagon {
+
+  private[decomposed] def singletonTop[N <: IField[N]](v : Int)(implicit ifield : StaticIField[N], cs : IncrementalMineFloydWarshall[N], fac : DBMFactory[N]) : Block[N] =
+    new Block(Array(v), new CachingOctagon[N](Right(fac.top(OctagonDim(1).toDBMDim))))
+
+  private[decomposed] def apply[N <: IField[N]](dimension : OctagonDim, blocks : Seq[Block[N]])
+    (implicit ifield : StaticIField[N], cs : IncrementalMineFloydWarshall[N], fac : DBMFactory[N]) : NonBottomDecOcta[N] = {
+    val n = dimension.octagonDimToInt
+    val blockOf = new Array[Int](n + 1)
+    val pos = new Array[Int](n + 1)
+    for ((block, b) <- blocks.zipWithIndex; (v, p) <- block.vars.zipWithIndex) {
+      blockOf(v) = b
+      pos(v) = p
+    }
+    new NonBottomDecOcta(dimension, blocks.toVector, blockOf, pos)
+  }
+
+  /**
+    * The top decomposed octagon, where each variable is in its own block.
+    */
+  def top[N <: IField[N]](dimension : OctagonDim)
+    (implicit ifield : StaticIField[N], cs : IncrementalMineFloydWarshall[N], fac : DBMFactory[N]) : NonBottomDecOcta[N] =
+    apply(dimension, dimension.allVars.map(v => singletonTop[N](v.i)))
+}
@@ -199,6 +199,22 @@ trait NonBottomOptOcta[N <: IField[N]] extends OptimizedOctagon[N] {
       ifClosed = closeIncrementally(j0)(f(_)))
   }
 
+  def test_cells(cells : Seq[(DBMIdx, N)]) : OptimizedOctagon[N] =
+    if (cells.isEmpty)
+      this
+    else {
+      val bounds = cells.groupMapReduce(_._1)(_._2)(_ min _)
+      def f (m : DBM[N]) (idx : DBMIdx) =
+        bounds.get(idx) match {
+          case Some(c) => m(idx).min(c)
+          case None => m(idx)
+        }
+      // All the cells are tightened first, and the result is closed at most once
+      onEither(
+        ifNonClosed = yieldNonClosed(f(_)),
+        ifClosed = yieldNonClosed(f(_)))
+    }
+
   // If the argument is closed the result is guaranteed to ble closed already
   // (Mine' 2006 Fig. 26 p. 54)
   def forget(f : Var) = preserveClosure(forget_f(_)(f))
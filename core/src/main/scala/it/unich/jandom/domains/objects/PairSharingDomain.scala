@@ -31,6 +31,12 @@ class PairSharingDomain[OM <: ObjectModel](val om: OM) extends ObjectDomain[OM]
 
   def bottom(types: Seq[om.Type]) = apply(Set(), types)
 
+  /**
+   * @inheritdoc
+   * Properties are immutable, hence the domain is thread-safe when the object model is.
+   */
+  override def isThreadSafe: Boolean = om.isThreadSafe
+
   /**
    * Builds a pair sharing object from a set of pairs and a sequence of types.
    * @param ps a set of unordered pairs, which are the pairs of variable which may possibly share
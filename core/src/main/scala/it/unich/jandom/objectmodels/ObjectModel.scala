@@ -174,4 +174,10 @@ trait ObjectModel {
    */
   def mayShare(t1: Type, t2: Type): Boolean
 
+  /**
+   * Returns true if the object model may be queried by several threads at the same time. The
+   * default is false.
+   */
+  def isThreadSafe: Boolean = false
+
 }
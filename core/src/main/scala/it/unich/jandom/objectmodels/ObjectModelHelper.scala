@@ -19,31 +19,33 @@
 package it.unich.jandom.objectmodels
 
 import scala.annotation.tailrec
+import scala.collection.concurrent.TrieMap
 
 /**
  * This trait defines concrete methods which may be used to implement an object model. It is not
  * particularly fast at the moment, since correctness and readability has been favored rather than
  * performance. However, memoization is used to improve performance in some particularly lengthy
- * computations.
+ * computations. Memoization tables are concurrent maps, hence the helper does not prevent an
+ * object model from being thread-safe.
  * @todo make the methods faster
  */
 trait ObjectModelHelper {
   this: ObjectModel =>
 
   /**
-   * A mutable HashMap used for memoizing sharing information.
+   * A concurrent map used for memoizing sharing information.
    */
-  private val sharing = collection.mutable.HashMap[(Type, Type), Boolean]()
+  private val sharing = TrieMap[(Type, Type), Boolean]()
 
   /**
-   * A mutable HashMap used for memoizing reachability information.
+   * A concurrent map used for memoizing reachability information.
    */
-  private val reachable = collection.mutable.HashMap[Type, Set[Type]]()
+  private val reachable = TrieMap[Type, Set[Type]]()
 
   /**
-   * A mutable HashMap used for memoizing concreteApproximations
+   * A concurrent map used for memoizing concreteApproximations
    */
-  private val glb = collection.mutable.HashMap[(Type, Type), Option[Type]]()
+  private val glb = TrieMap[(Type, Type), Option[Type]]()
 
   def pathExists(t: Type, fs: Field*): Boolean = {
     if (fs.isEmpty)
@@ -165,7 +167,6 @@ trait ObjectModelHelper {
     case Some(types) =>
       types
     case None =>
-      reachable(t) = Set()
       val set = collection.mutable.Set[Type]()
       val queue = collection.mutable.Queue[Type](t)
       while (queue.nonEmpty) {
@@ -0,0 +1,108 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.targets
+
+import java.util.concurrent._
+
+import scala.concurrent.duration.Duration
+
+/**
+  * Runs the jobs of a batch analyzer on a bounded pool of threads, and returns their results in
+  * the order they finish. Each job receives a `Watchdog`, which measures the time spent on the
+  * job and, once armed, interrupts the job after `timeout`. Jobs should turn the interruption
+  * into their own result.
+  *
+  * @param threads the number of jobs run at the same time
+  * @param timeout the maximum time allowed for each job, from when its watchdog is armed
+  * @param name    the name of the batch, used for the thread of the timer
+  */
+class BatchRunner(threads: Int, timeout: Duration, name: String) {
+
+  require(threads > 0, "the number of threads should be positive")
+
+  /**
+    * Measures the time spent on a job, and interrupts it after `timeout` once armed.
+    */
+  class Watchdog private[BatchRunner](timer: ScheduledExecutorService) {
+    private val start = System.nanoTime()
+    // the lock guarantees that the thread is not interrupted after the job has completed
+    private val thread = Thread.currentThread()
+    private val lock = new Object
+    private var running = true
+    private var alarm: Option[ScheduledFuture[_]] = None
+
+    /**
+      * The time spent on the job, in milliseconds.
+      */
+    def elapsed: Long = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+
+    /**
+      * Starts counting the timeout. Work done before, such as loading the target, is not limited.
+      */
+    def arm(): Unit =
+      if (timeout.isFinite && alarm.isEmpty)
+        alarm = Some(timer.schedule((() => lock.synchronized { if (running) thread.interrupt() }): Runnable,
+          timeout.toNanos, TimeUnit.NANOSECONDS))
+
+    private[BatchRunner] def disarm(): Unit = {
+      alarm.foreach(_.cancel(false))
+      lock.synchronized { running = false }
+      Thread.interrupted()
+    }
+  }
+
+  /**
+    * Runs all the `jobs`.
+    *
+    * @return an iterator over the results, in the order the jobs finish. All the jobs are
+    *         submitted immediately, hence they proceed even if the iterator is not consumed.
+    */
+  def run[R](jobs: Iterator[Watchdog => R]): Iterator[R] = {
+    val executor = Executors.newFixedThreadPool(threads)
+    val timer = Executors.newSingleThreadScheduledExecutor { (r: Runnable) =>
+      val t = new Thread(r, s"$name-timer")
+      t.setDaemon(true)
+      t
+    }
+    val completion = new ExecutorCompletionService[R](executor)
+    var submitted = 0
+    for (job <- jobs) {
+      completion.submit { () =>
+        val watchdog = new Watchdog(timer)
+        try job(watchdog) finally watchdog.disarm()
+      }
+      submitted += 1
+    }
+    executor.shutdown()
+    if (submitted == 0) timer.shutdown()
+
+    new Iterator[R] {
+      private var received = 0
+
+      def hasNext: Boolean = received < submitted
+
+      def next(): R = {
+        if (!hasNext) throw new NoSuchElementException("no more results")
+        received += 1
+        if (received == submitted) timer.shutdown()
+        completion.take().get()
+      }
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.targets
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+import scala.jdk.CollectionConverters._
+
+import jdk.jfr.{Category, Event, Label, Name}
+
+/**
+ * Collects metrics of the fixpoint computations of the native analyzers, for each program point.
+ * It counts evaluations of program points, applications of widenings and narrowings, and it
+ * measures the time spent in transfer functions and in joins. Moreover, it counts the iterations
+ * of each phase of the analysis. An iteration is a round over all the program points for the
+ * strategies which evaluate the program points in a fixed order, and a single evaluation for
+ * the strategies based on worklists.
+ *
+ * A collector is enabled by storing it in `Parameters.metrics`. It is thread-safe, hence it may
+ * be used by parallel analyses, and it may be shared by several analyses, in which case metrics
+ * are summed.
+ */
+class FixpointMetrics {
+
+  import FixpointMetrics._
+
+  private class Counters {
+    val evaluations = new LongAdder
+    val widenings = new LongAdder
+    val narrowings = new LongAdder
+    val transferNanos = new LongAdder
+    val joinNanos = new LongAdder
+  }
+
+  private val points = new ConcurrentHashMap[Any, Counters]
+
+  private val iterations = new ConcurrentHashMap[String, LongAdder]
+
+  private def counters(pp: Any): Counters = points.computeIfAbsent(pp, _ => new Counters)
+
+  /**
+   * Records an evaluation of the program point `pp`.
+   */
+  def evaluation(pp: Any): Unit = counters(pp).evaluations.increment()
+
+  /**
+   * Records an application of widening at the program point `pp`.
+   */
+  def widening(pp: Any): Unit = counters(pp).widenings.increment()
+
+  /**
+   * Records an application of narrowing at the program point `pp`.
+   */
+  def narrowing(pp: Any): Unit = counters(pp).narrowings.increment()
+
+  /**
+   * Records an iteration of the phase `phase`.
+   */
+  def iteration(phase: String): Unit = iterations.computeIfAbsent(phase, _ => new LongAdder).increment()
+
+  /**
+   * Evaluates `body`, recording its time as spent in the transfer functions of `pp`.
+   */
+  def transfer[A](pp: Any)(body: => A): A = {
+    val start = System.nanoTime()
+    try body finally counters(pp).transferNanos.add(System.nanoTime() - start)
+  }
+
+  /**
+   * Evaluates `body`, recording its time as spent in the joins at `pp`.
+   */
+  def join[A](pp: Any)(body: => A): A = {
+    val start = System.nanoTime()
+    try body finally counters(pp).joinNanos.add(System.nanoTime() - start)
+  }
+
+  /**
+   * Returns the metrics collected so far.
+   */
+  def summary: Summary = {
+    val pointSummaries = for ((pp, c) <- points.asScala.toSeq) yield PointSummary(pp, c.evaluations.sum,
+      c.widenings.sum, c.narrowings.sum, c.transferNanos.sum, c.joinNanos.sum)
+    Summary(pointSummaries.sortBy(-_.nanos), iterations.asScala.view.mapValues(_.sum).toMap)
+  }
+
+  /**
+   * Forgets all the metrics collected so far.
+   */
+  def reset(): Unit = {
+    points.clear()
+    iterations.clear()
+  }
+}
+
+object FixpointMetrics {
+
+  /**
+   * The metrics of a program point.
+   * @param point the program point
+   * @param evaluations the number of evaluations of the program point
+   * @param widenings the number of applications of widening
+   * @param narrowings the number of applications of narrowing
+   * @param transferNanos the time spent in the transfer functions, in nanoseconds
+   * @param joinNanos the time spent in joins, in nanoseconds
+   */
+  case class PointSummary(point: Any, evaluations: Long, widenings: Long, narrowings: Long, transferNanos: Long, joinNanos: Long) {
+    /**
+     * The total time spent in the program point.
+     */
+    def nanos: Long = transferNanos + joinNanos
+
+    override def toString =
+      s"$point: $evaluations evaluations, $widenings widenings, $narrowings narrowings, " +
+        s"${transferNanos / 1000} µs in transfer functions, ${joinNanos / 1000} µs in joins"
+  }
+
+  /**
+   * The metrics of an analysis.
+   * @param points the metrics of each program point, sorted by decreasing total time
+   * @param iterations the number of iterations of each phase
+   */
+  case class Summary(points: Seq[PointSummary], iterations: Map[String, Long]) {
+    /**
+     * Returns the metrics of the program point `pp`, if it has been evaluated.
+     */
+    def apply(pp: Any): Option[PointSummary] = points.find(_.point == pp)
+
+    /**
+     * Commits a JFR event for each program point and for each phase. Events are only recorded
+     * when a flight recording is active.
+     */
+    def commitEvents(): Unit = {
+      for (p <- points) {
+        val event = new PointMetricsEvent
+        if (event.isEnabled) {
+          event.point = p.point.toString
+          event.evaluations = p.evaluations
+          event.widenings = p.widenings
+          event.narrowings = p.narrowings
+          event.transferNanos = p.transferNanos
+          event.joinNanos = p.joinNanos
+          event.commit()
+        }
+      }
+      for ((phase, n) <- iterations) {
+        val event = new PhaseMetricsEvent
+        if (event.isEnabled) {
+          event.phase = phase
+          event.iterations = n
+          event.commit()
+        }
+      }
+    }
+
+    override def toString = {
+      val its = (for ((phase, n) <- iterations.toSeq.sortBy(_._1)) yield s"$phase: $n iterations").mkString("\n")
+      (its +: points.map(_.toString)).mkString("\n")
+    }
+  }
+
+  /**
+   * The JFR event for the metrics of a program point.
+   */
+  @Name("it.unich.jandom.PointMetrics")
+  @Label("Fixpoint Metrics of a Program Point")
+  @Category(Array("Jandom"))
+  class PointMetricsEvent extends Event {
+    @Label("Program Point") var point: String = _
+    @Label("Evaluations") var evaluations: Long = _
+    @Label("Widenings") var widenings: Long = _
+    @Label("Narrowings") var narrowings: Long = _
+    @Label("Transfer Time (ns)") var transferNanos: Long = _
+    @Label("Join Time (ns)") var joinNanos: Long = _
+  }
+
+  /**
+   * The JFR event for the number of iterations of a phase of the analysis.
+   */
+  @Name("it.unich.jandom.PhaseMetrics")
+  @Label("Fixpoint Iterations of a Phase")
+  @Category(Array("Jandom"))
+  class PhaseMetricsEvent extends Event {
+    @Label("Phase") var phase: String = _
+    @Label("Iterations") var iterations: Long = _
+  }
+}
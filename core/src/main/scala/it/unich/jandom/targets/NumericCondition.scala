@@ -18,7 +18,9 @@
 
 package it.unich.jandom.targets
 
+import it.unich.jandom.domains.numerical.LinearForm
 import it.unich.jandom.domains.numerical.NumericalProperty
+import it.unich.jandom.targets.NumericExpression.LinearExpression
 
 /**
  * This is the abstract class for all numeric conditions. Each condition has an opposite method
@@ -44,6 +46,14 @@ sealed abstract class NumericCondition {
    */
   val dimension: Int
 
+  /**
+   * Returns the linear forms `lf` such that the condition is equivalent to the
+   * conjunction of the constraints `lf <= 0`, if the condition may be expressed in
+   * this way. Then, the condition may be analyzed with a single call to
+   * `linearInequalities`.
+   */
+  def linearInequalities: Option[Seq[LinearForm]] = None
+
   /**
    * Returns the textual representation of the condition, with the provided variable names.
    * @param vars symbolic names of variables in the condition.
@@ -117,7 +127,20 @@ object NumericCondition {
       case ComparisonOperators.GTE => (-numexpr).lteZero(input)
       case ComparisonOperators.GT => (-numexpr).ltZero(input)
       case ComparisonOperators.NEQ => numexpr.neqZero(input)
-      case ComparisonOperators.EQ => (-numexpr).lteZero(numexpr.lteZero(input))
+      case ComparisonOperators.EQ => linearInequalities match {
+        case Some(lfs) => input.linearInequalities(lfs)
+        case None => (-numexpr).lteZero(numexpr.lteZero(input))
+      }
+    }
+
+    override lazy val linearInequalities: Option[Seq[LinearForm]] = numexpr match {
+      case LinearExpression(lf) => op match {
+        case ComparisonOperators.LTE | ComparisonOperators.LT => Some(Seq(lf))
+        case ComparisonOperators.GTE | ComparisonOperators.GT => Some(Seq(-lf))
+        case ComparisonOperators.EQ => Some(Seq(lf, -lf))
+        case ComparisonOperators.NEQ => None
+      }
+      case _ => None
     }
 
     lazy val opposite = new AtomicCond(numexpr, ComparisonOperators.opposite(op))
@@ -153,7 +176,11 @@ object NumericCondition {
    */
   case class AndCond(cond1: NumericCondition, cond2: NumericCondition) extends NumericCondition {
     lazy val opposite = new OrCond(cond1.opposite, cond2.opposite)
-    override def analyze[Property <: NumericalProperty[Property]](input: Property): Property = cond2.analyze(cond1.analyze(input))
+    override def analyze[Property <: NumericalProperty[Property]](input: Property): Property = linearInequalities match {
+      case Some(lfs) => input.linearInequalities(lfs)
+      case None => cond2.analyze(cond1.analyze(input))
+    }
+    override lazy val linearInequalities: Option[Seq[LinearForm]] = for (lfs1 <- cond1.linearInequalities; lfs2 <- cond2.linearInequalities) yield lfs1 ++ lfs2
     override def mkString(vars: Seq[String]) = "(" + cond1.mkString(vars) + " && " + cond2.mkString(vars) + ")"
     val dimension = cond1.dimension max cond2.dimension
   }
@@ -194,6 +221,7 @@ object NumericCondition {
    */
   object BRandomCond extends NumericCondition {
     val opposite = BRandomCond
+    override val linearInequalities: Option[Seq[LinearForm]] = Some(Seq())
     override def analyze[Property <: NumericalProperty[Property]](input: Property) = input
     override def mkString(vars: Seq[String]) = "brandom()"
     val dimension = 0
@@ -205,6 +233,7 @@ object NumericCondition {
    */
   object TrueCond extends NumericCondition {
     val opposite = FalseCond
+    override val linearInequalities: Option[Seq[LinearForm]] = Some(Seq())
     override def analyze[Property <: NumericalProperty[Property]](input: Property) = input
     override def mkString(vars: Seq[String]) = "TRUE"
     val dimension = 0
@@ -21,6 +21,7 @@ package it.unich.jandom.targets
 import it.unich.jandom.targets.parameters._
 import it.unich.jandom.targets.parameters.NarrowingSpecs._
 import it.unich.jandom.targets.parameters.WideningSpecs._
+import it.unich.jandom.utils.MemoCache
 import it.unich.scalafix.BoxAssignment
 
 /**
@@ -144,17 +145,122 @@ abstract class Parameters[Tgt <: Target[Tgt]] {
   var nestingLevel = 0
 
   /**
-   * This is a java writer where the analyzer write debug informations
+   * If it is true, the analyzers share equal properties among program points with `domain.intern`.
+   * This reduces the memory used by large annotations, and makes comparisons of equal properties
+   * cheap, at the cost of computing their hash codes.
    */
-  var debugWriter = new java.io.Writer {
+  var interning = false
+
+  /**
+   * Returns the property which should be stored in an annotation in place of `p`: the canonical
+   * property equal to `p` if `interning` is true, `p` itself otherwise.
+   */
+  def intern(p: Property): Property = if (interning) domain.intern(p) else p
+
+  private var _transferCache: Option[MemoCache[(AnyRef, Parameters.Identity[Property]), Property]] = None
+
+  /**
+   * The maximum number of results of transfer functions which are memoized by `transfer`.
+   * The default is 0, which disables memoization. Setting this parameter empties the cache.
+   */
+  def transferCacheSize: Int = _transferCache.map(_.maxSize).getOrElse(0)
+
+  def transferCacheSize_=(size: Int): Unit = {
+    require(size >= 0, "the size of the cache should not be negative")
+    _transferCache = if (size == 0) None else Some(new MemoCache(size))
+  }
+
+  /**
+   * The cache used by `transfer`, if memoization is enabled.
+   */
+  def transferCache: Option[MemoCache[(AnyRef, Parameters.Identity[Property]), Property]] = _transferCache
+
+  /**
+   * Returns the result of the transfer function identified by `key` on `input`. If memoization
+   * is enabled and the same key has already been applied to the very same `input`, the
+   * previous result is returned without evaluating `result`. Keys are generally program
+   * elements, such as transitions or conditions, and they are compared with their `equals`.
+   * Inputs are compared by reference: properties which are equal but have different
+   * representations, such as parallelotopes with different shapes, may have different
+   * images through a transfer function. Enabling `interning` makes equal inputs identical,
+   * and raises the hit rate of the cache.
+   */
+  def transfer(key: AnyRef, input: Property)(result: => Property): Property = _transferCache match {
+    case None => result
+    case Some(cache) => cache.getOrElseUpdate((key, new Parameters.Identity(input)), result)
+  }
+
+  /**
+   * The collector of the metrics of the fixpoint computation, such as the number of evaluations
+   * and the time spent in each program point. The default is None, which disables metrics.
+   */
+  var metrics: Option[FixpointMetrics] = None
+
+  /**
+   * Evaluates `body`, recording its time as spent in the transfer functions of `pp` if metrics
+   * are enabled. Since `body` is passed by name, a closure is allocated even when metrics are
+   * disabled: hot loops should check `metrics` themselves.
+   */
+  def timeTransfer[A](pp: Any)(body: => A): A = metrics match {
+    case None => body
+    case Some(m) => m.transfer(pp)(body)
+  }
+
+  /**
+   * Evaluates `body`, recording its time as spent in the joins at `pp` if metrics are enabled.
+   * As for `timeTransfer`, hot loops should check `metrics` themselves.
+   */
+  def timeJoin[A](pp: Any)(body: => A): A = metrics match {
+    case None => body
+    case Some(m) => m.join(pp)(body)
+  }
+
+  /**
+   * The writer used when debugging is disabled: it discards everything.
+   */
+  private val noDebugWriter: java.io.Writer = new java.io.Writer {
     override def write(cbuf: Array[Char], off: Int, len: Int) = {}
     override def flush() = {}
     override def close() = {}
     override def toString = ""
   }
 
-  def log(msg: String): Unit = {
-    debugWriter.write(" " * nestingLevel * 3)
-    debugWriter.write(msg)
+  /**
+   * This is a java writer where the analyzer write debug informations. Debugging is
+   * enabled by replacing the default writer, which discards everything.
+   */
+  var debugWriter: java.io.Writer = noDebugWriter
+
+  /**
+   * Returns true if debug informations are written somewhere, i.e., if `debugWriter`
+   * is not the default writer.
+   */
+  def debugging: Boolean = debugWriter ne noDebugWriter
+
+  /**
+   * Writes a message to `debugWriter`, indented according to `nestingLevel`. The
+   * message is passed by name, and it is only built when `debugging` is true, hence
+   * logging abstract properties costs nothing when debugging is disabled.
+   */
+  def log(msg: => String): Unit = {
+    if (debugging) {
+      debugWriter.write(" " * nestingLevel * 3)
+      debugWriter.write(msg)
+    }
+  }
+}
+
+object Parameters {
+  /**
+   * A wrapper which compares the wrapped value by reference. It is used for the keys of caches
+   * whose entries should only be shared by the same object.
+   */
+  final class Identity[A](val value: A) {
+    override def equals(that: Any): Boolean = that match {
+      case other: Identity[_] => other.value.asInstanceOf[AnyRef] eq value.asInstanceOf[AnyRef]
+      case _ => false
+    }
+
+    override def hashCode: Int = System.identityHashCode(value)
   }
 }
@@ -0,0 +1,240 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.targets
+
+import scala.collection.mutable
+import scala.jdk.CollectionConverters._
+
+import it.unich.jandom.domains.AbstractProperty
+
+/**
+ * A bounded store of the summaries of procedures, used by context-sensitive interpretations. A
+ * summary maps a procedure and an input, called context, to the output of the procedure. Since
+ * the semantics of procedures is monotone, the summary of a context may be reused for all the
+ * inputs which are smaller than the context: when `subsumption` is enabled, `lookup` returns such
+ * a summary when there is no summary for the input itself.
+ *
+ * The number of contexts of a procedure is controlled by a `ContextAbstraction`, while the total
+ * number of summaries is bounded by `maxSize`. When the store is full, the least recently used
+ * summary is discarded. Contexts whose analysis is in progress are registered with `enter` and
+ * `exit`, and they are taken into account by the abstraction, so that recursive calls with
+ * growing inputs only have a bounded number of contexts. The store is not thread-safe.
+ *
+ * With the default parameters, each input is a different context and only the summaries of the
+ * input itself are returned, as a plain unbounded memoization table.
+ *
+ * @tparam K the type of procedures
+ * @tparam P the type of properties
+ * @param maxSize the maximum number of summaries kept in the store
+ * @param contexts the abstraction of the inputs of procedures
+ * @param subsumption whether the summaries of greater contexts are reused for smaller inputs
+ */
+class SummaryCache[K, P <: AbstractProperty[P]](val maxSize: Int = Int.MaxValue,
+                                                val contexts: SummaryCache.ContextAbstraction = SummaryCache.Exact,
+                                                val subsumption: Boolean = false) {
+
+  import SummaryCache._
+
+  require(maxSize > 0, "the size of the store should be positive")
+
+  // summaries in access order, so that the first one is the least recently used
+  private val summaries = new java.util.LinkedHashMap[(K, P), P](16, 0.75f, true)
+
+  // the contexts of each procedure, from the least to the most recently added
+  private val contextsOf = mutable.HashMap[K, mutable.ArrayBuffer[P]]()
+
+  // the contexts of each procedure whose analysis is in progress, from the outermost to the innermost
+  private val inProgressOf = mutable.HashMap[K, mutable.ArrayBuffer[P]]()
+
+  private var _hits, _subsumptionHits, _misses, _evictions = 0L
+
+  /**
+   * Returns the summary of `key` for `input`, if there is a summary for `input` or, when
+   * `subsumption` is enabled, for a context which is greater than `input`.
+   */
+  def lookup(key: K, input: P): Option[P] = {
+    val exact = summaries.get((key, input))
+    if (exact != null) {
+      _hits += 1
+      Some(exact)
+    } else (if (subsumption) contextsOf.get(key).flatMap(_.find(_ >= input)) else None) match {
+      case Some(context) =>
+        _subsumptionHits += 1
+        Some(summaries.get((key, context)))
+      case None =>
+        _misses += 1
+        None
+    }
+  }
+
+  /**
+   * Returns the summary of `key` for the context `context` itself, which is generally the result
+   * of `context`. Inputs which are abstracted to the same context share the same summary, also
+   * when `subsumption` is disabled. As for `lookup`, each call is counted as a hit or a miss.
+   */
+  def lookupContext(key: K, context: P): Option[P] = {
+    val output = summaries.get((key, context))
+    if (output != null) {
+      _hits += 1
+      Some(output)
+    } else {
+      _misses += 1
+      None
+    }
+  }
+
+  /**
+   * Returns the context in which `key` should be analyzed for the input `input`, according to
+   * the context abstraction. Both the contexts with a summary and those in progress are taken
+   * into account, the latter being the most recent. The result is always greater than or equal
+   * to `input`.
+   */
+  def context(key: K, input: P): P = {
+    val running = inProgressOf.getOrElse(key, mutable.ArrayBuffer.empty[P])
+    val previous = contextsOf.getOrElse(key, mutable.ArrayBuffer.empty[P]) ++ running
+    contexts match {
+      case Exact => input
+      case KLimited(k) =>
+        if (previous.size < k) input
+        else if (running.size >= k) running.last widening (running.last union input)
+        else previous.last union input
+      case Widened =>
+        if (previous.isEmpty) input else previous.last widening (previous.last union input)
+    }
+  }
+
+  /**
+   * Registers that the analysis of `key` in the context `context` has started.
+   * @return false if the analysis of `key` in `context` is already in progress, true otherwise
+   */
+  def enter(key: K, context: P): Boolean = {
+    val running = inProgressOf.getOrElseUpdate(key, mutable.ArrayBuffer.empty[P])
+    if (running contains context)
+      false
+    else {
+      running += context
+      true
+    }
+  }
+
+  /**
+   * Registers that the analysis of `key` in the context `context` has finished.
+   */
+  def exit(key: K, context: P): Unit = inProgressOf.get(key) foreach { running =>
+    running -= context
+    if (running.isEmpty) inProgressOf -= key
+  }
+
+  /**
+   * Stores the summary `output` of `key` for the context `context`. When contexts are abstracted,
+   * the summaries of `key` for smaller contexts are discarded, since they are no longer needed to
+   * keep the number of contexts bounded.
+   */
+  def update(key: K, context: P, output: P): Unit = {
+    val keyContexts = contextsOf.getOrElseUpdate(key, mutable.ArrayBuffer.empty[P])
+    if (contexts != Exact)
+      for (c <- keyContexts.filter(_ <= context)) remove(key, c)
+    if (summaries.put((key, context), output) == null)
+      contextsOf.getOrElseUpdate(key, mutable.ArrayBuffer.empty[P]) += context
+    while (summaries.size > maxSize) {
+      val (k, c) = summaries.keySet.iterator.next()
+      remove(k, c)
+      _evictions += 1
+    }
+  }
+
+  private def remove(key: K, context: P): Unit = {
+    summaries.remove((key, context))
+    contextsOf.get(key) foreach { cs =>
+      cs -= context
+      if (cs.isEmpty) contextsOf -= key
+    }
+  }
+
+  /**
+   * Returns the contexts of `key` which have a summary.
+   */
+  def contextsFor(key: K): Seq[P] = contextsOf.get(key).fold(Seq.empty[P])(_.toSeq)
+
+  /**
+   * The number of summaries in the store.
+   */
+  def size: Int = summaries.size
+
+  /**
+   * Returns the statistics on the use of the store.
+   */
+  def stats: Stats = Stats(_hits, _subsumptionHits, _misses, _evictions, size)
+
+  /**
+   * Removes all the summaries from the store.
+   */
+  def clear(): Unit = {
+    summaries.clear()
+    contextsOf.clear()
+    inProgressOf.clear()
+  }
+
+  override def toString: String =
+    summaries.asScala.map { case ((k, c), o) => s"$k: $c -> $o" }.mkString("\n")
+}
+
+object SummaryCache {
+
+  /**
+   * An abstraction of the inputs of procedures, which determines the contexts in which they
+   * are analyzed.
+   */
+  sealed abstract class ContextAbstraction
+
+  /**
+   * Each input is a different context.
+   */
+  case object Exact extends ContextAbstraction
+
+  /**
+   * Each procedure has at most `k` contexts. When a procedure already has `k` contexts, a new
+   * input is joined with its most recent context. When `k` contexts are in progress, the input
+   * is widened with the innermost one, so that recursive calls with growing inputs are analyzed
+   * a finite number of times.
+   */
+  case class KLimited(k: Int) extends ContextAbstraction {
+    require(k > 0, "the number of contexts should be positive")
+  }
+
+  /**
+   * Each procedure has a single context, which is widened with all the inputs which are not
+   * smaller than it, including the contexts in progress. It guarantees that procedures are
+   * analyzed a finite number of times.
+   */
+  case object Widened extends ContextAbstraction
+
+  /**
+   * The statistics of a summary store.
+   * @param hits the number of lookups which found a summary for the input itself
+   * @param subsumptionHits the number of lookups which found a summary for a greater context
+   * @param misses the number of lookups which found no summary
+   * @param evictions the number of summaries discarded because the store was full
+   * @param size the number of summaries in the store
+   */
+  case class Stats(hits: Long, subsumptionHits: Long, misses: Long, evictions: Long, size: Int) {
+    override def toString =
+      s"$hits hits, $subsumptionHits hits by subsumption, $misses misses, $evictions evictions, $size summaries"
+  }
+}
@@ -69,7 +69,8 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
    * of the CFG, so be careful to preserve this property.
    */
   def extractOutput(params: Parameters)(ann: Annotation[ProgramPoint, params.Property]): params.Property = {
-    graph.getTails.asScala map { (node) => analyzeBlock(params)(node, ann(node)).last } reduce { _ union _ }
+    val outputs = graph.getTails.asScala map { (node) => analyzeBlock(params)(node, ann(node)).last }
+    params.domain.unionAll(outputs.head, outputs.tail)
   }
 
   /**
@@ -105,7 +106,7 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
    */
   def analyzeFromInput(params: Parameters)(input: params.Property): Annotation[ProgramPoint, params.Property] = {
     val ann = getAnnotation[params.Property]
-    for (node <- graph.getHeads().asScala) ann(node) = expandPropertyWithLocalVariables(params)(input)
+    for (node <- graph.getHeads().asScala) ann(node) = params.intern(expandPropertyWithLocalVariables(params)(input))
     analyzeFromAnnotation(params)(ann)
   }
 
@@ -116,7 +117,7 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
    */
   def analyze(params: Parameters): Annotation[ProgramPoint, params.Property] = {
     val ann = getAnnotation[params.Property]
-    for (node <- graph.getHeads.asScala) ann(node) = topProperty(node, params)
+    for (node <- graph.getHeads.asScala) ann(node) = params.intern(topProperty(node, params))
     analyzeFromAnnotation(params)(ann)
   }
 
@@ -127,23 +128,42 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
     val annEdge = HashMap[Edge, params.Property]()
     val taskList = Queue.empty[ProgramPoint].appendAll(graph.getHeads.asScala)
 
+    // analyzes `node` in the phase `phase`, checking metrics here so that no closure is built
+    // for timing when they are disabled
+    def transfer(node: ProgramPoint, phase: String) = params.metrics match {
+      case None => analyzeBlock(params)(node, ann(node))
+      case Some(m) =>
+        m.iteration(phase)
+        m.evaluation(node)
+        m.transfer(node)(analyzeBlock(params)(node, ann(node)))
+    }
+
     // ASCENDING phase
     params.log("Ascening Phase\n")
     while (!taskList.isEmpty) {
       val node = taskList.dequeue()
+      checkInterrupted()
       params.log(s"node ${node}input ${ann(node)}\n")
-      val result = analyzeBlock(params)(node, ann(node))
+      val result = transfer(node, "ascending")
       params.log("result " + result.mkString(",") + "\n")
       for ((succ, out) <- graph.getSuccsOf(node).asScala zip result) {
         annEdge((node, succ)) = out
         if (graph.getPredsOf(succ).size() > 1 && (ann contains succ)) {
           params.log(s"join $succ : ${ann(succ)} with $out")
-          val succval: params.Property = if (ordering.lteq(succ, node)) {
-            params.log(s" widening")
-            params.widening(node)(ann(succ), out)
-          } else
-            ann(succ) union out
-          if (succval > ann(succ)) {
+          def join() =
+            if (ordering.lteq(succ, node)) {
+              params.log(s" widening")
+              params.widening(node)(ann(succ), out)
+            } else
+              ann(succ) union out
+          val succval: params.Property = params.intern(params.metrics match {
+            case None => join()
+            case Some(m) =>
+              if (ordering.lteq(succ, node)) m.widening(succ)
+              m.join(succ)(join())
+          })
+          // interned properties which are identical need not be compared
+          if ((succval ne ann(succ)) && succval > ann(succ)) {
             params.log(s" update with $succval\n")
             ann(succ) = succval
             taskList.enqueue(succ)
@@ -151,7 +171,7 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
             params.log(s" not updated\n")
           }
         } else {
-          ann(succ) = out
+          ann(succ) = params.intern(out)
           taskList.enqueue(succ)
         }
       }
@@ -162,20 +182,31 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
     params.log("Descending Phase\n")
     while (!taskList.isEmpty) {
       val node = taskList.dequeue()
+      checkInterrupted()
       params.log(s"node ${node} input ${ann(node)} ")
-      val result = analyzeBlock(params)(node, ann(node))
+      val result = transfer(node, "descending")
       params.log("result " + (graph.getSuccsOf(node).asScala zip result).mkString(" ; ") + "\n")
       for ((succ, out) <- graph.getSuccsOf(node).asScala zip result) {
         annEdge((node, succ)) = out
-        val newinput = ann(succ) intersection (graph.getPredsOf(succ).asScala map { e => annEdge((e, succ)) } reduce { _ union _ })
+        val incoming = graph.getPredsOf(succ).asScala map { e => annEdge((e, succ)) }
+        def join() = ann(succ) intersection params.domain.unionAll(incoming.head, incoming.tail)
+        val newinput = params.metrics match {
+          case None => join()
+          case Some(m) => m.join(succ)(join())
+        }
         params.log(s"narrow $succ : ${ann(succ)} with $newinput ")
         // this may probably cause an infinite loop
-        val succval = if (ordering.lteq(succ, node)) {
-          params.narrowing(node)(ann(succ), newinput)
+        val succval = params.intern(if (ordering.lteq(succ, node)) {
+          params.metrics match {
+            case None => params.narrowing(node)(ann(succ), newinput)
+            case Some(m) =>
+              m.narrowing(succ)
+              m.join(succ)(params.narrowing(node)(ann(succ), newinput))
+          }
         } else
-          newinput
+          newinput)
         params.log(s"result $succval\n")
-        if (succval < ann(succ)) {
+        if ((succval ne ann(succ)) && succval < ann(succ)) {
           ann(succ) = succval
           taskList.enqueue(succ)
         }
@@ -183,4 +214,11 @@ abstract class ControlFlowGraph[Tgt <: ControlFlowGraph[Tgt, Node], Node] extend
     }
     ann
   }
+
+  /**
+   * Throws an InterruptedException if the current thread has been interrupted. It is called by
+   * the analyzer at each evaluation of a node, so that long analyses may be cancelled.
+   */
+  private def checkInterrupted(): Unit =
+    if (Thread.interrupted()) throw new InterruptedException("analysis interrupted")
 }
@@ -53,6 +53,10 @@ class EQS[U, V](eqs: GraphEquationSystem[U, V, _], val lastPP: Option[U] = None)
     val solver = iterationStrategy match {
       case IterationStrategy.Kleene => Solver.KleeneSolver
       case IterationStrategy.Worklist => Solver.WorkListSolver
+      case IterationStrategy.Priority => Solver.PriorityWorkListSolver
+      case IterationStrategy.Recursive => Solver.HierarchicalOrderingSolver
+      case IterationStrategy.Parallel =>
+        throw new IllegalArgumentException("Parallel iteration strategy not supported")
     }
 
     val boxscope = wideningScope match {
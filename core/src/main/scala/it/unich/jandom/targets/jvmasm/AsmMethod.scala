@@ -232,13 +232,25 @@ class AsmMethod(val methodNode: MethodNode) extends Target[AsmMethod] {
     val taskList = Queue[BasicBlock](startBlock)
     while (!taskList.isEmpty) {
       val b = taskList.dequeue()
-      val result = b.analyze(ann(b))
+      // metrics are checked here so that no closure is built for timing when they are disabled
+      val result = params.metrics match {
+        case None => b.analyze(ann(b))
+        case Some(m) =>
+          m.iteration("ascending")
+          m.evaluation(b)
+          m.transfer(b)(b.analyze(ann(b)))
+      }
       for ((block, state) <- result) {
         if (ann contains block) {
-          val newstate = if (block.widening)
-            ann(block) widening state
-          else
-            ann(block) union state
+          val newstate = params.metrics match {
+            case None => if (block.widening) ann(block) widening state else ann(block) union state
+            case Some(m) =>
+              if (block.widening) {
+                m.widening(block)
+                m.join(block)(ann(block) widening state)
+              } else
+                m.join(block)(ann(block) union state)
+          }
           if (newstate > ann(block)) {
             ann(block) = state
             taskList.enqueue(block)
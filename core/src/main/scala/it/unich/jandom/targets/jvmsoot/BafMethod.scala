@@ -42,281 +42,278 @@ class BafMethod(method: SootMethod, io: Boolean) extends SootCFG[BafMethod, Bloc
     * @note In developing this method we are assuming that, if a unit has a fall-through, it is the first
     *       successor returned by `getSuccsOf`.
     */
-  protected def analyzeBlock(params: Parameters)(node: Block, initprop: params.Property): Seq[params.Property] = {
-    var exits = Seq[params.Property]()
-    var currprop = initprop
+  protected def compile(node: Block): IndexedSeq[FrameOp] = {
+    import FrameOp._
 
-    def analyzeTargetArgInst(unit: TargetArgInst, prop: params.Property) = unit match {
-      case _: GotoInst => (prop, prop)
-      case _: JSRInst => (prop, prop)
-      case _: IfCmpLtInst => prop.testLt
-      case _: IfCmpGtInst => prop.testGt
-      case _: IfCmpLeInst => prop.testLe
-      case _: IfCmpGeInst => prop.testGe
-      case _: IfCmpEqInst => prop.testEq
-      case _: IfCmpNeInst => prop.testNe
-      case _: IfLtInst => prop.evalConstant(0).testLt
-      case _: IfGtInst => prop.evalConstant(0).testGt
-      case _: IfLeInst => prop.evalConstant(0).testLe
-      case _: IfGeInst => prop.evalConstant(0).testGe
-      case _: IfEqInst => prop.evalConstant(0).testEq
-      case _: IfNeInst => prop.evalConstant(0).testNe
-      case _: IfNonNullInst => prop.evalNull().testNe
-      case _: IfNullInst => prop.evalNull().testEq
+    def compileTargetArgInst(unit: TargetArgInst): Seq[FrameOp] = unit match {
+      case _: GotoInst => Seq(Exit)
+      case _: JSRInst => Seq(Exit)
+      case _: IfCmpLtInst => Seq(Branch(TestLt))
+      case _: IfCmpGtInst => Seq(Branch(TestGt))
+      case _: IfCmpLeInst => Seq(Branch(TestLe))
+      case _: IfCmpGeInst => Seq(Branch(TestGe))
+      case _: IfCmpEqInst => Seq(Branch(TestEq))
+      case _: IfCmpNeInst => Seq(Branch(TestNe))
+      case _: IfLtInst => Seq(EvalConstant(0), Branch(TestLt))
+      case _: IfGtInst => Seq(EvalConstant(0), Branch(TestGt))
+      case _: IfLeInst => Seq(EvalConstant(0), Branch(TestLe))
+      case _: IfGeInst => Seq(EvalConstant(0), Branch(TestGe))
+      case _: IfEqInst => Seq(EvalConstant(0), Branch(TestEq))
+      case _: IfNeInst => Seq(EvalConstant(0), Branch(TestNe))
+      case _: IfNonNullInst => Seq(EvalNull, Branch(TestNe))
+      case _: IfNullInst => Seq(EvalNull, Branch(TestEq))
     }
 
-    for (unit <- node.iterator().asScala)
-      currprop = unit match {
+    node.iterator().asScala.toIndexedSeq.flatMap[FrameOp] { (unit: soot.Unit) =>
+      try unit match {
         case unit: AddInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalAdd
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalAdd)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: AndInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalBinOp
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalBinOp)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: ArrayLengthInst =>
-          currprop.evalLength
+          Seq(EvalLength)
         case _: ArrayReadInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case _: ArrayWriteInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: CmpgInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalBinOp
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalBinOp)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: CmpInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalBinOp
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalBinOp)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: CmplInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalBinOp
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalBinOp)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: DivInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalDiv
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalDiv)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: Dup1_x1Inst =>
           unit.getOp1Type match {
             case _: PrimType => unit.getUnder1Type match {
-              case _: PrimType => currprop.evalDup1_x1()
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: PrimType => Seq(EvalDup1_x1)
+              case _: Type => Seq(Unsupported(unit))
             }
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: Dup1_x2Inst =>
           unit.getOp1Type match {
             case _: PrimType => unit.getUnder1Type match {
-              case _: LongType => currprop.evalDup1_x1()
-              case _: DoubleType => currprop.evalDup1_x1()
+              case _: LongType => Seq(EvalDup1_x1)
+              case _: DoubleType => Seq(EvalDup1_x1)
               case _: PrimType => unit.getUnder2Type match {
-                case _: PrimType => currprop.evalDup1_x2()
-                case _: Type => throw UnsupportedSootUnitException(unit)
+                case _: PrimType => Seq(EvalDup1_x2)
+                case _: Type => Seq(Unsupported(unit))
               }
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: Type => Seq(Unsupported(unit))
             }
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: Dup1Inst =>
           unit.getOp1Type match {
-            case _: PrimType => currprop.evalDup1()
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalDup1)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: Dup2_x1Inst =>
           unit.getOp1Type match {
             case _: LongType => unit.getOp2Type match {
-              case _: PrimType => currprop.evalDup1_x1()
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: PrimType => Seq(EvalDup1_x1)
+              case _: Type => Seq(Unsupported(unit))
             }
             case _: DoubleType => unit.getOp2Type match {
-              case _: PrimType => currprop.evalDup1_x1()
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: PrimType => Seq(EvalDup1_x1)
+              case _: Type => Seq(Unsupported(unit))
             }
             case _: PrimType => unit.getOp2Type match {
               case _: PrimType => unit.getUnder1Type match {
-                case _: PrimType => currprop.evalDup2_x1()
-                case _: Type => throw UnsupportedSootUnitException(unit)
+                case _: PrimType => Seq(EvalDup2_x1)
+                case _: Type => Seq(Unsupported(unit))
               }
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: Type => Seq(Unsupported(unit))
             }
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: Dup2_x2Inst =>
           unit.getOp1Type match {
             case _: LongType => unit.getOp2Type match {
               case _: PrimType => unit.getUnder1Type match {
-                case _: PrimType => currprop.evalDup1_x2()
-                case _: Type => throw UnsupportedSootUnitException(unit)
+                case _: PrimType => Seq(EvalDup1_x2)
+                case _: Type => Seq(Unsupported(unit))
               }
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: Type => Seq(Unsupported(unit))
             }
             case _: DoubleType => unit.getOp2Type match {
               case _: PrimType => unit.getUnder1Type match {
-                case _: PrimType => currprop.evalDup1_x2()
-                case _: Type => throw UnsupportedSootUnitException(unit)
+                case _: PrimType => Seq(EvalDup1_x2)
+                case _: Type => Seq(Unsupported(unit))
               }
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: Type => Seq(Unsupported(unit))
             }
             case _: PrimType => unit.getOp2Type match {
               case _: PrimType => unit.getUnder1Type match {
                 case _: PrimType => unit.getUnder2Type match {
-                  case _: PrimType => currprop.evalDup2_x2()
-                  case _: Type => throw UnsupportedSootUnitException(unit)
+                  case _: PrimType => Seq(EvalDup2_x2)
+                  case _: Type => Seq(Unsupported(unit))
                 }
-                case _: Type => throw UnsupportedSootUnitException(unit)
+                case _: Type => Seq(Unsupported(unit))
               }
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: Type => Seq(Unsupported(unit))
             }
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: Dup2Inst =>
           unit.getOp1Type match {
-            case _: LongType => currprop.evalDup1()
-            case _: DoubleType => currprop.evalDup1()
+            case _: LongType => Seq(EvalDup1)
+            case _: DoubleType => Seq(EvalDup1)
             case _: PrimType => unit.getOp2Type match {
-              case _: PrimType => currprop.evalDup2()
-              case _: Type => throw UnsupportedSootUnitException(unit)
+              case _: PrimType => Seq(EvalDup2)
+              case _: Type => Seq(Unsupported(unit))
             }
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: DynamicInvokeInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case _: EnterMonitorInst =>
-          currprop.enterMonitor()
+          Seq(EnterMonitor(None))
         case _: ExitMonitorInst =>
-          currprop.exitMonitor()
+          Seq(ExitMonitor(None))
         case unit: FieldGetInst =>
-          currprop.evalField(f = unit.getField)
+          Seq(EvalField(None, unit.getField))
         case unit: FieldPutInst =>
-          currprop.assignField(f = unit.getField)
+          Seq(AssignField(None, unit.getField))
         case _: IdentityInst =>
-          currprop
+          Seq()
         case unit: IncInst =>
           unit.getConstant match {
-            case i: IntConstant => currprop.evalInc(localMap(unit.getLocal), i.value)
-            case i: FloatConstant => currprop.evalInc(localMap(unit.getLocal), i.value)
-            case i: DoubleConstant => currprop.evalInc(localMap(unit.getLocal), i.value)
-            case _: Constant => throw UnsupportedSootUnitException(unit)
+            case i: IntConstant => Seq(EvalInc(localMap(unit.getLocal), i.value))
+            case i: FloatConstant => Seq(EvalInc(localMap(unit.getLocal), i.value))
+            case i: DoubleConstant => Seq(EvalInc(localMap(unit.getLocal), i.value))
+            case _: Constant => Seq(Unsupported(unit))
           }
         case _: InstanceCastInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: InstanceOfInst =>
-          currprop.evalInstance(unit.getCheckType)
+          Seq(EvalInstance(unit.getCheckType))
         case unit: InterfaceInvokeInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: LoadInst =>
-          currprop.evalLocal(localMap(unit.getLocal))
+          Seq(EvalLocal(localMap(unit.getLocal)))
         case _: LookupSwitchInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: MulInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalMul
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalMul)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: NegInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalNeg
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalNeg)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: NewArrayInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: NewInst =>
-          currprop.evalNew(unit.getBaseType)
+          Seq(EvalNew(unit.getBaseType))
         case _: NewMultiArrayInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case _: NopInst =>
-          currprop
+          Seq()
         case unit: OrInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalBinOp
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalBinOp)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: PopInst =>
-          currprop.restrict(unit.getWordCount)
+          Seq(Restrict(unit.getWordCount))
         case _: PrimitiveCastInst =>
-          currprop
+          Seq()
         case unit: PushInst =>
           unit.getConstant match {
-            case i: IntConstant => currprop.evalConstant(i.value)
-            case i: FloatConstant => currprop.evalConstant(i.value)
-            case i: DoubleConstant => currprop.evalConstant(i.value)
-            case _: NullConstant => currprop.evalNull()
-            case i: StringConstant => currprop.evalConstant(i.value)
-            case _: Constant => throw UnsupportedSootUnitException(unit)
+            case i: IntConstant => Seq(EvalConstant(i.value))
+            case i: FloatConstant => Seq(EvalConstant(i.value))
+            case i: DoubleConstant => Seq(EvalConstant(i.value))
+            case _: NullConstant => Seq(EvalNull)
+            case i: StringConstant => Seq(EvalString(i.value))
+            case _: Constant => Seq(Unsupported(unit))
           }
         case unit: RemInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalRem
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalRem)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: RetInst =>
-          exits :+= currprop
-          currprop
+          Seq(Exit)
         case _: ReturnInst =>
-          exits :+= currprop
-          currprop
+          Seq(Exit)
         case _: ReturnVoidInst =>
-          exits :+= currprop
-          currprop
+          Seq(Exit)
         case unit: ShlInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalShl
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalShl)
+            case _: Type => Seq(Unsupported(unit))
           }
         case unit: ShrInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalShr
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalShr)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: SpecialInvokeInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: StaticGetInst =>
-          currprop.evalStaticField(unit.getField)
+          Seq(EvalStaticField(unit.getField))
         case _: StaticInvokeInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: StaticPutInst =>
-          currprop.assignStaticField(f = unit.getField)
+          Seq(AssignStaticField(unit.getField))
         case unit: StoreInst =>
-          currprop.assignLocal(localMap(unit.getLocal))
+          Seq(AssignLocal(localMap(unit.getLocal)))
         case unit: SubInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalSub
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalSub)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: SwapInst =>
-          currprop.evalSwap()
+          Seq(EvalSwap)
         case _: TableSwitchInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: TargetArgInst =>
           // le istruzioni if<cond> assumiamo che il valore di confronto sia intero
-          val (tbranch, fbranch) = analyzeTargetArgInst(unit, currprop)
-          exits :+= tbranch
-          fbranch
+          compileTargetArgInst(unit)
         case _: ThrowInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: UshrInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalUshr
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalUshr)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: VirtualInvokeInst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
         case unit: XorInst =>
           unit.getOpType match {
-            case _: PrimType => currprop.evalBinOp
-            case _: Type => throw UnsupportedSootUnitException(unit)
+            case _: PrimType => Seq(EvalBinOp)
+            case _: Type => Seq(Unsupported(unit))
           }
         case _: Inst =>
-          throw UnsupportedSootUnitException(unit)
+          Seq(Unsupported(unit))
+      } catch {
+        // the unit contains values which are not supported: the error is only raised if the
+        // unit is reached by the analysis
+        case _: MatchError => Seq(Unsupported(unit))
       }
-    if (node.getTail.fallsThrough()) exits +:= currprop
-    exits
+    }
   }
 }
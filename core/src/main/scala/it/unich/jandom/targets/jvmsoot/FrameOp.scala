@@ -0,0 +1,162 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.targets.jvmsoot
+
+import it.unich.jandom.targets.NumericCondition
+
+import soot.{SootField, SootMethod, Type}
+import soot.jimple.Constant
+
+/**
+  * An operation on a `SootFrameProperty`. The units of a block are compiled by `SootCFG` into a
+  * sequence of operations, where the dispatch on the kind of units, the types of operands, the
+  * indexes of locals and the linear forms of conditions have already been resolved. Hence the
+  * fixpoint iteration only executes these operations.
+  *
+  * Most operations correspond to a single method of `SootFrameProperty`. When the index of a local
+  * is `None`, the default argument of the corresponding method is used.
+  */
+sealed abstract class FrameOp
+
+object FrameOp {
+
+  case object EvalNull extends FrameOp
+
+  case class EvalGlobal(c: Constant) extends FrameOp
+
+  case class EvalConstant(c: Double) extends FrameOp
+
+  case class EvalString(c: String) extends FrameOp
+
+  case class EvalNew(tpe: Type) extends FrameOp
+
+  case class EvalCast(tpe: Type) extends FrameOp
+
+  case class EvalInstance(tpe: Type) extends FrameOp
+
+  case class EvalLocal(i: Int) extends FrameOp
+
+  case class EvalField(i: Option[Int], f: SootField) extends FrameOp
+
+  case class EvalStaticField(f: SootField) extends FrameOp
+
+  case class EvalInc(i: Int, c: Double) extends FrameOp
+
+  case object EvalAdd extends FrameOp
+
+  case object EvalSub extends FrameOp
+
+  case object EvalMul extends FrameOp
+
+  case object EvalDiv extends FrameOp
+
+  case object EvalRem extends FrameOp
+
+  case object EvalShl extends FrameOp
+
+  case object EvalShr extends FrameOp
+
+  case object EvalUshr extends FrameOp
+
+  case object EvalBinOp extends FrameOp
+
+  case object EvalNeg extends FrameOp
+
+  case object EvalLength extends FrameOp
+
+  case object EvalGt extends FrameOp
+
+  case object EvalGe extends FrameOp
+
+  case object EvalLt extends FrameOp
+
+  case object EvalLe extends FrameOp
+
+  case object EvalEq extends FrameOp
+
+  case object EvalNe extends FrameOp
+
+  case object EvalSwap extends FrameOp
+
+  case object EvalDup1 extends FrameOp
+
+  case object EvalDup1_x1 extends FrameOp
+
+  case object EvalDup1_x2 extends FrameOp
+
+  case object EvalDup2 extends FrameOp
+
+  case object EvalDup2_x1 extends FrameOp
+
+  case object EvalDup2_x2 extends FrameOp
+
+  case class Restrict(n: Int) extends FrameOp
+
+  case class AssignLocal(i: Int) extends FrameOp
+
+  case class AssignField(i: Option[Int], f: SootField) extends FrameOp
+
+  case class AssignStaticField(f: SootField) extends FrameOp
+
+  case class EnterMonitor(i: Option[Int]) extends FrameOp
+
+  case class ExitMonitor(i: Option[Int]) extends FrameOp
+
+  /**
+    * Calls `method` with the last `inputs` dimensions of the frame as input, using the interpretation
+    * in the parameters. The output of the call is connected to the frame on the first `common` dimensions.
+    */
+  case class Invoke(method: SootMethod, inputs: Int, common: Int) extends FrameOp
+
+  /**
+    * Adds the current frame to the exits of the block.
+    */
+  case object Exit extends FrameOp
+
+  /**
+    * Tests the condition `test` on the current frame. The frame where the condition holds is added
+    * to the exits of the block, the other one becomes the current frame.
+    */
+  case class Branch(test: Test) extends FrameOp
+
+  /**
+    * Throws an `UnsupportedSootUnitException` for `unit`, when the unit is reached by the analysis.
+    */
+  case class Unsupported(unit: soot.Unit) extends FrameOp
+
+  /**
+    * A condition tested by a `Branch`.
+    */
+  sealed abstract class Test
+
+  case object TestGt extends Test
+
+  case object TestGe extends Test
+
+  case object TestLt extends Test
+
+  case object TestLe extends Test
+
+  case object TestEq extends Test
+
+  case object TestNe extends Test
+
+  case class TestLinear(cond: NumericCondition) extends Test
+
+}
@@ -43,7 +43,11 @@ class JimpleMethod(method: SootMethod, io: Boolean) extends SootCFG[JimpleMethod
   val body: Body = method.retrieveActiveBody()
   val graph = new soot.jandom.UnitBlockGraph(body)
 
-  protected def analyzeBlock(params: Parameters)(node: Block, initprop: params.Property): Seq[params.Property] = {
+  protected def compile(node: Block): IndexedSeq[FrameOp] = {
+    import FrameOp._
+
+    val ops = scala.collection.mutable.ArrayBuffer.empty[FrameOp]
+
     /*
      * Convert a `Value` into a LinearForm, if possible.
      * @param v the Value to convert.
@@ -115,195 +119,190 @@ class JimpleMethod(method: SootMethod, io: Boolean) extends SootCFG[JimpleMethod
     }
 
     /*
-     * Analyze a boolean expression in the guard of an If statement. It tries to convert v into a linear
-     * condition. If it does not succeed, analyzes it recursively.
-     * @param v the `Value` to analyze
-     * @param prop the abstract initial state
-     * @return the abstract end states. The first state is for the "then"-branch, the second
-     * state is for the "else"-branch.
+     * Compile a boolean expression in the guard of an If statement. It tries to convert v into a linear
+     * condition. If it does not succeed, compiles it recursively.
+     * @param v the `Value` to compile
+     * @return the test of the branch. The "then"-branch is taken when the test succeeds.
      */
-    def analyzeCond(v: Value, prop: params.Property): (params.Property, params.Property) = {
+    def compileCond(v: Value): Test = {
       val optionalLc = if (v.getType.isInstanceOf[PrimType])
         jimpleExprToLinearCond(v)
       else
         None
       optionalLc match {
         case Some(lc) =>
-          prop.testLinearCondition(lc)
+          TestLinear(lc)
         case None =>
           v match {
             case v: ConditionExpr =>
-              val res1 = analyzeExpr(v.getOp1, prop)
-              val res2 = analyzeExpr(v.getOp2, res1)
+              compileExpr(v.getOp1)
+              compileExpr(v.getOp2)
               v match {
-                case _: GtExpr => res2.testGt
-                case _: GeExpr => res2.testGe
-                case _: LtExpr => res2.testLt
-                case _: LeExpr => res2.testLe
-                case _: EqExpr => res2.testEq
-                case _: NeExpr => res2.testNe
+                case _: GtExpr => TestGt
+                case _: GeExpr => TestGe
+                case _: LtExpr => TestLt
+                case _: LeExpr => TestLe
+                case _: EqExpr => TestEq
+                case _: NeExpr => TestNe
               }
           }
       }
     }
 
     /*
-     * Analyze an invocation in Jimple.
-     * @param v the invoke expression to analyze
-     * @param prop the abstract initial state
-     * @return the abstract end state. The last dimension of property corresponds to the
-     * returned value.
+     * Compile an invocation in Jimple. The last dimension of the resulting property corresponds
+     * to the returned value.
+     * @param v the invoke expression to compile
      */
-    def analyzeInvokeExpr(v: InvokeExpr, prop: params.Property): params.Property = {
-      import scala.language.existentials
+    def compileInvokeExpr(v: InvokeExpr): Unit = {
       val method = v.getMethod
-      val (baseprop, implicitArgs) = v match {
+      val implicitArgs = v match {
         case v: InstanceInvokeExpr =>
-          (analyzeExpr(v.getBase, prop), 1)
+          compileExpr(v.getBase)
+          1
         case _: StaticInvokeExpr =>
-          (prop, 0)
+          0
         case _: DynamicInvokeExpr =>
           throw new IllegalArgumentException("Invoke dynamic not yet supported")
       }
-      val callprop = v.getArgs.asScala.foldLeft(baseprop) { case (p, arg) => analyzeExpr(arg, p) }
-      val inputprop = callprop.extract(v.getArgCount + implicitArgs)
-      val exitprop = params.interpretation match {
-        case Some(inte) => inte(method, inputprop)
-        case None => throw new IllegalArgumentException("Interprocedural analysis")
-      }
-      callprop.connect(exitprop, method.getParameterCount + implicitArgs)
+      v.getArgs.asScala foreach compileExpr
+      ops += Invoke(method, v.getArgCount + implicitArgs, method.getParameterCount + implicitArgs)
     }
 
     /*
-     * Analyze an expression in Jimple.
-     * @param v the `Value` to analyze
-     * @param prop the abstract initial state
-     * @return the abstract end state
+     * Compile an expression in Jimple. The resulting operations push the value of `v` on the frame.
+     * @param v the `Value` to compile
      */
-    def analyzeExpr(v: Value, prop: params.Property): params.Property = {
+    def compileExpr(v: Value): Unit = {
       v match {
         case _: NullConstant =>
-          prop.evalNull()
+          ops += EvalNull
         case v: StringConstant =>
-          prop.evalGlobal(v)
+          ops += EvalGlobal(v)
         case v: IntConstant =>
-          prop.evalConstant(v.value)
+          ops += EvalConstant(v.value)
         case v: StaticFieldRef =>
-          prop.evalStaticField(v.getField)
+          ops += EvalStaticField(v.getField)
         case v: Local =>
-          prop.evalLocal(localMap(v))
+          ops += EvalLocal(localMap(v))
         case v: BinopExpr =>
-          val res1 = analyzeExpr(v.getOp1, prop)
-          val res2 = analyzeExpr(v.getOp2, res1)
-          v match {
-            case _: AddExpr => res2.evalAdd
-            case _: SubExpr => res2.evalSub
-            case _: MulExpr => res2.evalMul
-            case _: DivExpr => res2.evalDiv
-            case _: RemExpr => res2.evalRem
-            case _: ShlExpr => res2.evalShl
-            case _: ShrExpr => res2.evalShr
-            case _: UshrExpr => res2.evalUshr
+          compileExpr(v.getOp1)
+          compileExpr(v.getOp2)
+          ops += (v match {
+            case _: AddExpr => EvalAdd
+            case _: SubExpr => EvalSub
+            case _: MulExpr => EvalMul
+            case _: DivExpr => EvalDiv
+            case _: RemExpr => EvalRem
+            case _: ShlExpr => EvalShl
+            case _: ShrExpr => EvalShr
+            case _: UshrExpr => EvalUshr
 
             // bitwise expressions (not supported yet)
-            case _: AndExpr => res2.evalBinOp
-            case _: OrExpr => res2.evalBinOp
-            case _: XorExpr => res2.evalBinOp
+            case _: AndExpr => EvalBinOp
+            case _: OrExpr => EvalBinOp
+            case _: XorExpr => EvalBinOp
 
             // boolean expressions (not supported yet)
-            case _: CmpExpr => res2.evalBinOp
-            case _: CmpgExpr => res2.evalBinOp
-            case _: CmplExpr => res2.evalBinOp
+            case _: CmpExpr => EvalBinOp
+            case _: CmpgExpr => EvalBinOp
+            case _: CmplExpr => EvalBinOp
 
-            case _: GtExpr => res2.evalGt
-            case _: GeExpr => res2.evalGe
-            case _: LtExpr => res2.evalLt
-            case _: LeExpr => res2.evalLe
-            case _: EqExpr => res2.evalEq
-            case _: NeExpr => res2.evalNe
-          }
+            case _: GtExpr => EvalGt
+            case _: GeExpr => EvalGe
+            case _: LtExpr => EvalLt
+            case _: LeExpr => EvalLe
+            case _: EqExpr => EvalEq
+            case _: NeExpr => EvalNe
+          })
         case v: UnopExpr =>
           v match {
-            case _: LengthExpr => prop.evalLength
-            case _: NegExpr => prop.evalNeg
+            case _: LengthExpr => ops += EvalLength
+            case _: NegExpr => ops += EvalNeg
           }
-        case v: AnyNewExpr => prop.evalNew(v.getType)
-        case v: InvokeExpr => analyzeInvokeExpr(v, prop)
-        case _: InstanceOfExpr => prop.evalNull()
-        case v: CastExpr => prop.evalCast(v.getCastType)
-        case v: InstanceFieldRef => prop.evalField(localMap(v.getBase.asInstanceOf[Local]), v.getField)
+        case v: AnyNewExpr => ops += EvalNew(v.getType)
+        case v: InvokeExpr => compileInvokeExpr(v)
+        case _: InstanceOfExpr => ops += EvalNull
+        case v: CastExpr => ops += EvalCast(v.getCastType)
+        case v: InstanceFieldRef => ops += EvalField(Some(localMap(v.getBase.asInstanceOf[Local])), v.getField)
       }
     }
 
-    var exits = Seq[params.Property]()
-    var currprop = initprop
-    for (unit <- node.asScala)
-      unit match {
+    /*
+     * Compile the assignment of the top of the frame to `v`.
+     */
+    def compileAssignment(v: Value): Unit = v match {
+      case local: Local =>
+        ops += AssignLocal(localMap(local))
+      case field: InstanceFieldRef =>
+        val local = field.getBase.asInstanceOf[Local]
+        ops += AssignField(Some(localMap(local)), field.getField)
+    }
+
+    for (unit <- node.asScala) {
+      val start = ops.length
+      try unit match {
         case unit: AssignStmt =>
-          val expr = analyzeExpr(unit.getRightOp, currprop)
-          unit.getLeftOp match {
-            case local: Local =>
-              currprop = expr.assignLocal(localMap(local))
-            case field: InstanceFieldRef =>
-              val local = field.getBase.asInstanceOf[Local]
-              currprop = expr.assignField(localMap(local), field.getField)
-          }
+          compileExpr(unit.getRightOp)
+          compileAssignment(unit.getLeftOp)
         case unit: BreakpointStmt =>
-          throw UnsupportedSootUnitException(unit)
+          ops += Unsupported(unit)
         case unit: IdentityStmt =>
-          val expr = unit.getRightOp match {
+          unit.getRightOp match {
             case v: ParameterRef =>
               // we assume that the ordering is: @this, @parameter0, parameter1, ...
-              currprop.evalLocal(v.getIndex + (if (method.isStatic) 0 else 1))
+              ops += EvalLocal(v.getIndex + (if (method.isStatic) 0 else 1))
+              compileAssignment(unit.getLeftOp)
             case _: ThisRef =>
               // we assume that @this is in position 0
-              currprop.evalLocal(0)
+              ops += EvalLocal(0)
+              compileAssignment(unit.getLeftOp)
             case _ =>
-              throw UnsupportedSootUnitException(unit)
-          }
-          currprop = unit.getLeftOp match {
-            case local: Local =>
-              expr.assignLocal(localMap(local))
-            case field: InstanceFieldRef =>
-              val local = field.getBase.asInstanceOf[Local]
-              expr.assignField(localMap(local), field.getField)
+              ops += Unsupported(unit)
           }
         case unit: EnterMonitorStmt =>
           unit.getOp match {
             case local: Local =>
-              currprop = currprop.enterMonitor(localMap(local))
+              ops += EnterMonitor(Some(localMap(local)))
           }
         case unit: ExitMonitorStmt =>
           unit.getOp match {
             case local: Local =>
-              currprop = currprop.exitMonitor(localMap(local))
+              ops += ExitMonitor(Some(localMap(local)))
           }
         case _: GotoStmt =>
-          exits :+= currprop
+          ops += Exit
         case unit: IfStmt =>
-          val (tbranch, fbranch) = analyzeCond(unit.getCondition, currprop)
-          exits :+= tbranch
-          currprop = fbranch
+          val test = compileCond(unit.getCondition)
+          ops += Branch(test)
         case unit: InvokeStmt =>
-          currprop = analyzeInvokeExpr(unit.getInvokeExpr, currprop)
-          if (unit.getInvokeExpr.getType != VoidType.v()) currprop = currprop.restrict(1)
+          compileInvokeExpr(unit.getInvokeExpr)
+          if (unit.getInvokeExpr.getType != VoidType.v()) ops += Restrict(1)
         case unit: LookupSwitchStmt =>
-          throw UnsupportedSootUnitException(unit)
+          ops += Unsupported(unit)
         case _: NopStmt =>
         case unit: RetStmt =>
-          throw UnsupportedSootUnitException(unit)
+          ops += Unsupported(unit)
         case unit: ReturnStmt =>
           // ReturnStmt is implemented by evaluating the returned expression. In this way, the
-          // obtained abstract state has one dimension more than the other program points.
-          exits :+= analyzeExpr(unit.getOp, currprop)
+          // obtained abstract state has one dimension more than the other program points. Since
+          // a return statement ends its block, the current frame is not used anymore.
+          compileExpr(unit.getOp)
+          ops += Exit
         case _: ReturnVoidStmt =>
-          exits :+= currprop
+          ops += Exit
         case _: TableSwitchStmt =>
-          throw UnsupportedSootUnitException(unit)
+          ops += Unsupported(unit)
         case _: ThrowStmt =>
-          throw UnsupportedSootUnitException(unit)
+          ops += Unsupported(unit)
+      } catch {
+        // the unit contains values which are not supported, such as dynamic invocations: the
+        // error is only raised if the unit is reached by the analysis
+        case _: MatchError | _: IllegalArgumentException =>
+          ops.dropRightInPlace(ops.length - start)
+          ops += Unsupported(unit)
       }
-    if (node.getTail.fallsThrough()) exits +:= currprop
-    exits
+    }
+    ops.toIndexedSeq
   }
 }
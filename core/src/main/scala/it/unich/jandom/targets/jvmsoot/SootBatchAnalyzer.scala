@@ -0,0 +1,140 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.targets.jvmsoot
+
+import scala.concurrent.duration.Duration
+import scala.jdk.CollectionConverters._
+
+import it.unich.jandom.targets.{BatchRunner, Parameters}
+import soot.toolkits.graph.Block
+import soot.{Scene, SootMethod}
+
+/**
+  * Analyzes many methods concurrently on a bounded pool of threads, with an intraprocedural
+  * analysis where calls are interpreted by `TopSootInterpretation`. Each method is analyzed with
+  * its own `Parameters`, and results are returned in the order the analyses finish.
+  *
+  * Soot is not thread-safe, hence the targets, i.e., the bodies of the methods, are built and
+  * compiled one at a time holding `sootLock`, while the analyses run in parallel. All the analyses
+  * share `domain`, hence methods are analyzed one at a time when the domain is not thread-safe.
+  * A method whose analysis takes longer than `timeout` is interrupted: the time spent building
+  * its body is not counted.
+  *
+  * @tparam T        the target, either `JimpleMethod` or `BafMethod`
+  * @param target    builds the target of a method
+  * @param domain    the domain used for all the analyses
+  * @param configure a function which sets the parameters of each analysis, such as widenings
+  *                  and narrowings
+  * @param threads   the number of methods analyzed at the same time, when the domain is thread-safe
+  * @param timeout   the maximum time allowed for the analysis of each method
+  */
+class SootBatchAnalyzer[T <: SootCFG[T, Block]](target: SootMethod => T,
+                                                val domain: SootFrameDomain,
+                                                configure: Parameters[T] => Unit = (_: Parameters[T]) => (),
+                                                threads: Int = Runtime.getRuntime.availableProcessors,
+                                                timeout: Duration = Duration.Inf) {
+
+  require(threads > 0, "the number of threads should be positive")
+
+  private val runner = new BatchRunner(if (domain.isThreadSafe) threads else 1, timeout, "soot-batch")
+
+  /**
+    * The result of the analysis of a method.
+    */
+  sealed abstract class Result {
+    /**
+      * The analyzed method.
+      */
+    val method: SootMethod
+
+    /**
+      * The time spent on the method, in milliseconds.
+      */
+    val millis: Long
+  }
+
+  /**
+    * A method which has been analyzed. The result of the analysis is kept as the annotated
+    * text of the method, so that the properties may be garbage collected.
+    */
+  case class Analyzed(method: SootMethod, output: String, millis: Long) extends Result {
+    override def toString: String = s"${method.getSignature}: analyzed in $millis ms\n$output"
+  }
+
+  /**
+    * A method whose analysis has been interrupted after `timeout`.
+    */
+  case class TimedOut(method: SootMethod, millis: Long) extends Result {
+    override def toString: String = s"${method.getSignature}: timed out after $millis ms"
+  }
+
+  /**
+    * A method which could not be loaded or analyzed.
+    */
+  case class Failed(method: SootMethod, error: Throwable, millis: Long) extends Result {
+    override def toString: String = s"${method.getSignature}: failed after $millis ms with $error"
+  }
+
+  /**
+    * Analyzes all the `methods`.
+    *
+    * @return an iterator over the results, in the order the analyses finish. All the analyses
+    *         are submitted immediately, hence they proceed even if the iterator is not consumed.
+    */
+  def analyze(methods: IterableOnce[SootMethod]): Iterator[Result] =
+    runner.run(methods.iterator.map { method => (watchdog: runner.Watchdog) => analyzeJob(method, watchdog) })
+
+  private def analyzeJob(method: SootMethod, watchdog: BatchRunner#Watchdog): Result = {
+    try {
+      val tgt = sootLock.synchronized {
+        val t = target(method)
+        t.prepare()
+        t
+      }
+      watchdog.arm()
+      val params = new Parameters[T] {
+        val domain: T#DomainBase = SootBatchAnalyzer.this.domain
+      }
+      configure(params)
+      params.interpretation = Some(new TopSootInterpretation[T, params.type](params))
+      val ann = tgt.analyze(params)
+      // printing uses Soot
+      Analyzed(method, sootLock.synchronized { tgt.mkString(params)(ann) }, watchdog.elapsed)
+    } catch {
+      case _: InterruptedException => TimedOut(method, watchdog.elapsed)
+      case e: Exception => Failed(method, e, watchdog.elapsed)
+    }
+  }
+}
+
+object SootBatchAnalyzer {
+  /**
+    * Returns the concrete methods of the classes `classNames` in `scene`. Classes are loaded
+    * and marked as application classes.
+    */
+  def concreteMethods(scene: Scene, classNames: Iterable[String]): Seq[SootMethod] = sootLock.synchronized {
+    for {
+      className <- classNames.toSeq
+      klass = scene.loadClassAndSupport(className)
+      _ = klass.setApplicationClass()
+      method <- klass.getMethods.asScala.toSeq
+      if method.isConcrete
+    } yield method
+  }
+}
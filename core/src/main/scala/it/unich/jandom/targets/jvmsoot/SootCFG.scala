@@ -20,6 +20,7 @@ package it.unich.jandom.targets.jvmsoot
 
 import java.io._
 
+import scala.collection.concurrent.TrieMap
 import scala.jdk.CollectionConverters._
 import it.unich.jandom.targets.Annotation
 import it.unich.jandom.targets.Environment
@@ -81,7 +82,12 @@ abstract class SootCFG[Tgt <: SootCFG[Tgt, Node], Node <: Block](val method: Soo
     * has no entry for parameters, only for locals). Every program state has a number of dimensions equal to
     * the number of element of localTypes.
     */
-  lazy val localTypes: Seq[Type] = (if (io) inputTypes else Seq()) ++ (locals map (_.getType()))
+  lazy val localTypes: Seq[Type] = (if (io) inputTypes else Seq()) ++ declaredLocalTypes
+
+  /**
+    * The types of the local variables of the body, in the order of `locals`.
+    */
+  private lazy val declaredLocalTypes: Seq[Type] = locals map (_.getType())
 
   /**
     * The size of the environment within the method analyzer.
@@ -130,12 +136,134 @@ abstract class SootCFG[Tgt <: SootCFG[Tgt, Node], Node <: Block](val method: Soo
     env
   }
 
+  /**
+    * The compiled code of the nodes analyzed so far.
+    */
+  private val compiled = TrieMap[Node, IndexedSeq[FrameOp]]()
+
+  /**
+    * Compiles the units in `node` into a sequence of operations on frames. Units which are not
+    * supported should be compiled into `FrameOp.Unsupported`, so that an error is only raised when
+    * they are reached by the analysis.
+    */
+  protected def compile(node: Node): IndexedSeq[FrameOp]
+
+  /**
+    * Returns the compiled code of `node`. Each node is compiled only once, the first time it is
+    * required, since its code does not depend on the parameters of the analysis.
+    */
+  def code(node: Node): IndexedSeq[FrameOp] = compiled.getOrElseUpdate(node, compile(node))
+
+  /**
+    * Computes the ordering, the map of locals and the code of all the nodes, which use Soot and
+    * would otherwise be computed lazily during the analysis. When the target is analyzed while
+    * other threads use Soot, it should be called holding `sootLock`, so that the analysis itself
+    * does not access Soot.
+    */
+  def prepare(): Unit = {
+    ordering
+    localMap
+    localTypes
+    lastPP
+    graph.asScala foreach code
+  }
+
+  /**
+    * @inheritdoc
+    * It executes the compiled code of `node`. The exit of the fall-through branch, if any, comes first.
+    */
+  protected def analyzeBlock(params: Parameters)(node: Node, initprop: params.Property): Seq[params.Property] = {
+    import FrameOp._
+
+    def test(t: Test, prop: params.Property): (params.Property, params.Property) = t match {
+      case TestGt => prop.testGt
+      case TestGe => prop.testGe
+      case TestLt => prop.testLt
+      case TestLe => prop.testLe
+      case TestEq => prop.testEq
+      case TestNe => prop.testNe
+      case TestLinear(cond) => prop.testLinearCondition(cond)
+    }
+
+    val ops = code(node)
+    var exits = Seq[params.Property]()
+    var currprop = initprop
+    var i = 0
+    while (i < ops.length) {
+      currprop = ops(i) match {
+        case EvalLocal(j) => currprop.evalLocal(j)
+        case EvalConstant(c) => currprop.evalConstant(c)
+        case AssignLocal(j) => currprop.assignLocal(j)
+        case EvalAdd => currprop.evalAdd
+        case EvalSub => currprop.evalSub
+        case EvalMul => currprop.evalMul
+        case EvalDiv => currprop.evalDiv
+        case EvalRem => currprop.evalRem
+        case EvalShl => currprop.evalShl
+        case EvalShr => currprop.evalShr
+        case EvalUshr => currprop.evalUshr
+        case EvalBinOp => currprop.evalBinOp
+        case EvalNeg => currprop.evalNeg
+        case EvalLength => currprop.evalLength
+        case EvalGt => currprop.evalGt
+        case EvalGe => currprop.evalGe
+        case EvalLt => currprop.evalLt
+        case EvalLe => currprop.evalLe
+        case EvalEq => currprop.evalEq
+        case EvalNe => currprop.evalNe
+        case EvalInc(j, c) => currprop.evalInc(j, c)
+        case Branch(t) =>
+          val (tbranch, fbranch) = test(t, currprop)
+          exits :+= tbranch
+          fbranch
+        case Exit =>
+          exits :+= currprop
+          currprop
+        case EvalNull => currprop.evalNull()
+        case EvalGlobal(c) => currprop.evalGlobal(c)
+        case EvalString(c) => currprop.evalConstant(c)
+        case EvalNew(tpe) => currprop.evalNew(tpe)
+        case EvalCast(tpe) => currprop.evalCast(tpe)
+        case EvalInstance(tpe) => currprop.evalInstance(tpe)
+        case EvalField(None, f) => currprop.evalField(f = f)
+        case EvalField(Some(j), f) => currprop.evalField(j, f)
+        case EvalStaticField(f) => currprop.evalStaticField(f)
+        case EvalSwap => currprop.evalSwap()
+        case EvalDup1 => currprop.evalDup1()
+        case EvalDup1_x1 => currprop.evalDup1_x1()
+        case EvalDup1_x2 => currprop.evalDup1_x2()
+        case EvalDup2 => currprop.evalDup2()
+        case EvalDup2_x1 => currprop.evalDup2_x1()
+        case EvalDup2_x2 => currprop.evalDup2_x2()
+        case Restrict(n) => currprop.restrict(n)
+        case AssignField(None, f) => currprop.assignField(f = f)
+        case AssignField(Some(j), f) => currprop.assignField(j, f)
+        case AssignStaticField(f) => currprop.assignStaticField(f = f)
+        case EnterMonitor(None) => currprop.enterMonitor()
+        case EnterMonitor(Some(j)) => currprop.enterMonitor(j)
+        case ExitMonitor(None) => currprop.exitMonitor()
+        case ExitMonitor(Some(j)) => currprop.exitMonitor(j)
+        case Invoke(callee, inputs, common) =>
+          val inputprop = currprop.extract(inputs)
+          val exitprop = params.interpretation match {
+            case Some(inte) => inte(callee, inputprop)
+            case None => throw new IllegalArgumentException("Interprocedural analysis")
+          }
+          currprop.connect(exitprop, common)
+        case Unsupported(unit) => throw UnsupportedSootUnitException(unit)
+      }
+      i += 1
+    }
+    if (node.getTail.fallsThrough()) exits +:= currprop
+    exits
+  }
+
   /**
     * @inheritdoc
     * It expands the input property adding new variables until exhausting locals.
     */
   protected def expandPropertyWithLocalVariables(params: Parameters)(input: params.Property): params.Property = {
-    body.getLocals.asScala.foldLeft(input) { (current, local) => current.evalUnknown(local.getType) }
+    declaredLocalTypes.foldLeft(input) { (current, tpe) => current.evalUnknown(tpe) }
   }
 
   /**
@@ -161,7 +289,7 @@ abstract class SootCFG[Tgt <: SootCFG[Tgt, Node], Node <: Block](val method: Soo
     if (io)
       expandPropertyWithLocalVariables(params)(params.domain.top(inputTypes))
     else
-      params.domain.top(method.getActiveBody.getLocals.asScala.toSeq map (_.getType))
+      params.domain.top(declaredLocalTypes)
   }
 
   def formatProperty(params: Parameters, lastPP: Boolean = false)(prop: params.Property): String = {
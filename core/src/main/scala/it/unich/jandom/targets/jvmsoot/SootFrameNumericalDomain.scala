@@ -48,6 +48,12 @@ class SootFrameNumericalDomain(val numdom: NumericalDomain) extends SootFrameDom
   val widenings = for (w <- numdom.widenings) yield WideningDescription(w.name, w.description,
     Box { (a: Property, b: Property) => Property(w(a.prop, b.prop), a.stack) })
 
+  /**
+   * @inheritdoc
+   * Frames are immutable, hence the domain is thread-safe when the numerical domain is.
+   */
+  override def isThreadSafe: Boolean = numdom.isThreadSafe
+
   /**
    * A simple helper method for the analogous constructor of abstract numerical frames.
    * @param num
@@ -59,6 +65,13 @@ class SootFrameNumericalDomain(val numdom: NumericalDomain) extends SootFrameDom
    */
   def apply(prop: numdom.Property, tpe: Type) = new Property(prop, tpe)
 
+  /**
+   * @inheritdoc
+   * The union is delegated to the numerical domain, hence it benefits from its own implementation.
+   */
+  override def unionAll(init: Property, props: IterableOnce[Property]): Property =
+    Property(numdom.unionAll(init.prop, props.iterator.map(_.prop)), init.stack)
+
   /**
    * Determines whether `t` is a numeric type
    */
@@ -164,7 +177,7 @@ class SootFrameNumericalDomain(val numdom: NumericalDomain) extends SootFrameDom
 
     def evalCast(t: soot.Type) = Property(this.prop, t :: stack.tail)
 
-    def evalConstant(const: String) = Property(prop.addVariable(), RefType.v(const.getClass().getName()) :: stack)
+    def evalConstant(const: String) = Property(prop.addVariable(), sootLock.synchronized { RefType.v(const.getClass().getName()) } :: stack)
 
     def evalNull(tpe: Type = soot.NullType.v()) = addVariable(tpe)
 
@@ -46,6 +46,12 @@ class SootFrameObjectDomain(val dom: ObjectDomain[SootObjectModel]) extends Soot
   val widenings = for (w <- dom.widenings) yield WideningDescription(w.name, w.description,
     Box { (a: Property, b: Property) => Property(w(a.prop, b.prop), a.stack, a.globals) })
 
+  /**
+   * @inheritdoc
+   * Frames are immutable, hence the domain is thread-safe when the object domain is.
+   */
+  override def isThreadSafe: Boolean = dom.isThreadSafe
+
   /**
    * This class represents a single abstract frame. It tries to support global variables, but it is a kind of hack.
    * @param prop contains the pair sharing properties. Variables are allocated also for non-numerical variables, but they are forced
@@ -102,7 +108,7 @@ class SootFrameObjectDomain(val dom: ObjectDomain[SootObjectModel]) extends Soot
 
     def evalConstant(c: Double) = addUntrackedVariable(DoubleType.v())
 
-    def evalConstant(c: String) = addUntrackedVariable(RefType.v(c.getClass().getName()))
+    def evalConstant(c: String) = addUntrackedVariable(sootLock.synchronized { RefType.v(c.getClass().getName()) })
 
     def evalNull(tpe : Type = soot.NullType.v()) =
       Property(prop.addFreshVariable(tpe).assignNull(size), tpe :: stack, globals)
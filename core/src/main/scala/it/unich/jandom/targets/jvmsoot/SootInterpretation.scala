@@ -18,13 +18,18 @@
 
 package it.unich.jandom.targets.jvmsoot
 
+import java.util.concurrent.CancellationException
+
+import scala.collection.concurrent.TrieMap
 import scala.jdk.CollectionConverters._
 import it.unich.jandom.targets._
+import it.unich.jandom.utils.{ComponentScheduler, Components}
 
 import soot.SootMethod
 import soot.Scene
 import soot.jimple.toolkits.callgraph.CHATransformer
 import soot.jimple.toolkits.callgraph.Sources
+import soot.jimple.toolkits.callgraph.Targets
 import soot.jimple.toolkits.callgraph.TopologicalOrderer
 
 import scala.collection.mutable
@@ -57,88 +62,150 @@ class TopSootInterpretation[Tgt <: SootCFG[Tgt, _], Params <: Parameters[Tgt]](v
   * It does not handle recursion, so it generates an exception if recursion is detected. It should only
   * be used for testing purposes. It only supports the target `JimpleMethod` for now.
   *
+  * Summaries are kept in a `SummaryCache`, hence a method is not analyzed again for an input it has already
+  * been analyzed with or, when `subsumption` is enabled, for an input which is smaller. Inputs are abstracted
+  * into contexts according to `contexts`, and at most `maxSummaries` summaries are kept. The default
+  * parameters analyze each input once, as a plain memoization of the analysis.
+  *
   * @param params the parameters for the analysis
+  * @param maxSummaries the maximum number of summaries kept at the same time
+  * @param contexts the abstraction of the inputs of methods
+  * @param subsumption whether the summaries of greater contexts are reused for smaller inputs
   * @throws IllegalArgumentException if recursive definitions are detected
   */
-class JimpleInterpretation[Params <: Parameters[JimpleMethod]](val params: Params) extends SootInterpretation[JimpleMethod, Params] {
+class JimpleInterpretation[Params <: Parameters[JimpleMethod]](val params: Params, maxSummaries: Int = Int.MaxValue,
+    contexts: SummaryCache.ContextAbstraction = SummaryCache.Exact, subsumption: Boolean = false)
+  extends SootInterpretation[JimpleMethod, Params] {
   /**
-    * It maps each pair `(method, input)` with the pair `(output,rec)`. The first time a pair `(method, input)`
-    * is encountered, the value `(bottom, false)` is put in `inte`. Then, the body of the method is analyzed.
-    * If during the analysis the pair `(method, input)` is required again, execution stops with an exception,
-    * otherwise `(output, true)` is saved into the map.
+    * The summaries of the methods analyzed so far. It also keeps the pairs `(method, context)` whose analysis
+    * is in progress: if one of them is required again, execution stops with an exception.
     */
-  private val inte = scala.collection.mutable.HashMap[(SootMethod, params.Property), (params.Property, Boolean)]()
+  val summaries = new SummaryCache[SootMethod, params.Property](maxSummaries, contexts, subsumption)
+
   private val jmethodCache = scala.collection.mutable.HashMap[SootMethod, JimpleMethod]()
 
-  def apply(method: SootMethod, input: params.Property): params.Property = {
-    if (inte contains ((method, input))) inte((method, input)) match {
-      case (output, true) => output
-      case (_, false) => throw new IllegalArgumentException("Recursive")
-    }
-    else {
-      inte((method, input)) = (params.domain.bottom(SootCFG.outputTypes(method)), false)
-      val jmethod = jmethodCache.getOrElseUpdate(method, new JimpleMethod(method, params.io))
-      val ann = jmethod.analyzeFromInput(params)(input)
-      val output = jmethod.extractOutput(params)(ann)
-      inte((method, input)) = (output, true)
-      output
-    }
+  private var _analyses = 0L
+
+  /**
+    * The number of analyses of method bodies performed so far.
+    */
+  def analyses: Long = _analyses
+
+  def apply(method: SootMethod, input: params.Property): params.Property = summaries.lookup(method, input) match {
+    case Some(output) => output
+    case None =>
+      // inputs abstracted to the same context share its summary
+      val context = summaries.context(method, input)
+      summaries.lookupContext(method, context) match {
+        case Some(output) => output
+        case None =>
+          if (!summaries.enter(method, context)) throw new IllegalArgumentException("Recursive")
+          try {
+            val jmethod = jmethodCache.getOrElseUpdate(method, new JimpleMethod(method, params.io))
+            _analyses += 1
+            val ann = jmethod.analyzeFromInput(params)(context)
+            val output = jmethod.extractOutput(params)(ann)
+            summaries.update(method, context, output)
+            output
+          } finally summaries.exit(method, context)
+      }
   }
 }
 
 /**
   * A `JimpleRecursiveInterpretation` tries to return the semantics of methods by a summary based analysis.
-  * The semantics of all methods is initialized to top for every possible input, then methods are analyzed
-  * with a work-list based approach. Each method has a single possible input context, which is top.
+  * The semantics of all methods is initialized to bottom, then methods are analyzed bottom-up on the
+  * strongly connected components of the call graph. Each method has a single possible input context,
+  * which is top.
+  *
+  * When the domain is thread-safe, components which do not depend on each other are analyzed in parallel
+  * on a fork-join pool. A component is scheduled as soon as all the components it calls are stable, and a
+  * recursive component is solved by a local worklist. Before the parallel phase, bodies are built and
+  * compiled holding `sootLock`, and the widenings and narrowings of all the program points are built, so
+  * that each thread only uses the boxes of the methods it is analyzing. When the domain is not thread-safe,
+  * components are analyzed one at a time on the calling thread. Summaries are kept in a concurrent map.
   */
 class JimpleRecursiveInterpretation[Params <: Parameters[JimpleMethod]](scene: Scene, val params: Params) extends Interpretation[JimpleMethod, Params] {
-  val inte: mutable.HashMap[SootMethod, params.Property] = scala.collection.mutable.HashMap[SootMethod, params.Property]()
-  val targets: mutable.HashMap[SootMethod, Option[JimpleMethod]] = scala.collection.mutable.HashMap[SootMethod, Option[JimpleMethod]]()
-
-  def apply(method: SootMethod, input: params.Property): params.Property = {
-    if (inte contains method)
-      inte(method)
-    else {
-      val bottom = params.domain.bottom(SootCFG.outputTypes(method))
-      inte(method) = bottom
-      bottom
-    }
-  }
+  val inte: TrieMap[SootMethod, params.Property] = TrieMap[SootMethod, params.Property]()
+  val targets: TrieMap[SootMethod, Option[JimpleMethod]] = TrieMap[SootMethod, Option[JimpleMethod]]()
+
+  def apply(method: SootMethod, input: params.Property): params.Property =
+    inte.getOrElseUpdate(method, params.domain.bottom(SootCFG.outputTypes(method)))
 
   def compute(method: SootMethod, input: params.Property): Unit = {
-    val l = new java.util.LinkedList[SootMethod]()
-    l.add(method)
-    scene.setEntryPoints(l)
-    CHATransformer.v().transform()
-    val cg = scene.getCallGraph
-    val tpo = new TopologicalOrderer(cg)
-    tpo.go()
-
-    val order = tpo.order().asScala.reverse // it is enough to get the set of all the elements
-    if (order.isEmpty) order += method
-
-    for (m <- order; if !(targets contains m)) {
-      targets(m) = if (m.isConcrete) Some(new JimpleMethod(m, params.io)) else None
-      inte(m) = params.domain.bottom(SootCFG.outputTypes(m))
+    // Soot is not thread-safe, hence the call graph and bodies are built before the parallel analysis
+    val (order, callees, callers) = sootLock.synchronized {
+      val l = new java.util.LinkedList[SootMethod]()
+      l.add(method)
+      scene.setEntryPoints(l)
+      CHATransformer.v().transform()
+      val cg = scene.getCallGraph
+      val tpo = new TopologicalOrderer(cg)
+      tpo.go()
+
+      val order = tpo.order().asScala.reverse.toSeq // it is enough to get the set of all the elements
+      val nodes = if (order.isEmpty) Seq(method) else order
+
+      for (m <- nodes; if !(targets contains m)) {
+        targets(m) = if (m.isConcrete) {
+          val jmethod = new JimpleMethod(m, params.io)
+          jmethod.prepare()
+          Some(jmethod)
+        } else None
+        inte(m) = params.domain.bottom(SootCFG.outputTypes(m))
+      }
+
+      val methods = nodes.toSet
+      val callees = nodes.map { m =>
+        m -> new Targets(cg.edgesOutOf(m)).asScala.map(_.method).filter(methods).toSeq.distinct
+      }.toMap
+      val callers = nodes.map { m =>
+        m -> new Sources(cg.edgesInto(m)).asScala.map(_.method).filter(methods).toSeq.distinct
+      }.toMap
+      (nodes, callees, callers)
+    }
+    val inputs = order.map { m => m -> params.domain.top(SootCFG.inputTypes(m)) }.toMap
+
+    // Boxes which are not idempotent are copied for each program point the first time they are
+    // required, hence all of them are built here. Each method is only analyzed by one thread at a
+    // time, so that each box is only used by one thread at a time.
+    for (m <- order; jmethod <- targets(m); node <- jmethod.graph.asScala) {
+      params.widening(node)
+      params.narrowing(node)
     }
 
-    val worklist = mutable.Queue.empty[SootMethod].appendAll(order)
-    while (worklist.nonEmpty) {
-      val m = worklist.dequeue()
-      val optJmethod = targets(m)
-      val top = params.domain.top(SootCFG.inputTypes(m))
-      val output = optJmethod match {
-        case None => inte(m)
-        case Some(jmethod) =>
-          val ann = jmethod.analyzeFromInput(params)(top)
-          jmethod.extractOutput(params)(ann)
-      }
-      if (!(inte(m) >= output)) {
-        inte(m) = inte(m) widening output
-        val sources = new Sources(cg.edgesInto(m)).asInstanceOf[java.util.Iterator[SootMethod]]
-        worklist.enqueueAll(sources.asScala)
+    val components = Components.sccs(order, callees)
+    val componentOf = (for ((members, c) <- components.zipWithIndex; m <- members) yield m -> c).toMap
+    val dependents = components.indices map { c =>
+      (for (m <- components(c); caller <- callers(m); d = componentOf(caller); if d != c) yield d).distinct
+    }
+    val scheduler = new ComponentScheduler(dependents, params.domain.isThreadSafe)
+
+    // The callees of the component `c` are already stable, hence only its own methods are iterated.
+    def solve(c: Int): Unit = {
+      val inWorklist = mutable.HashSet.empty[SootMethod] ++= components(c)
+      val worklist = mutable.Queue.empty[SootMethod].appendAll(components(c))
+      while (worklist.nonEmpty) {
+        if (scheduler.cancelled) throw new CancellationException()
+        val m = worklist.dequeue()
+        inWorklist -= m
+        val output = targets(m) match {
+          case None => inte(m)
+          case Some(jmethod) =>
+            val ann = jmethod.analyzeFromInput(params)(inputs(m))
+            jmethod.extractOutput(params)(ann)
+        }
+        if (!(inte(m) >= output)) {
+          inte(m) = inte(m) widening output
+          for (caller <- callers(m); if componentOf(caller) == c && !inWorklist(caller)) {
+            worklist.enqueue(caller)
+            inWorklist += caller
+          }
+        }
       }
     }
+
+    scheduler.run(solve)
   }
 
   override def toString: String = inte.toString
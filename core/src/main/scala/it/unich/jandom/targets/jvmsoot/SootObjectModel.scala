@@ -28,7 +28,8 @@ import soot.jandom.MyFastHierarchy
 
 
 /**
- * An object model for the JVM using the Soot library.
+ * An object model for the JVM using the Soot library. All the queries to Soot are performed
+ * while holding `sootLock`, hence the object model is thread-safe.
  * @author Gianluca Amato <gamato@unich.it>
  * @author Francesca Scozzari <fscozzari@unich.it>
  */
@@ -43,19 +44,25 @@ class SootObjectModel(scene: soot.Scene) extends ObjectModel with ObjectModelHel
    * Returns a MyFastHierarchy, which is a SootFastHirearchy modified to expose direct subinterface
    * relationship.
    */
-  val fh = if (scene.hasFastHierarchy() && scene.getFastHierarchy().isInstanceOf[MyFastHierarchy])
-    scene.getFastHierarchy().asInstanceOf[MyFastHierarchy]
-  else {
-    val newfh = new MyFastHierarchy
-    scene.setFastHierarchy(newfh)
-    newfh
+  val fh = sootLock.synchronized {
+    if (scene.hasFastHierarchy() && scene.getFastHierarchy().isInstanceOf[MyFastHierarchy])
+      scene.getFastHierarchy().asInstanceOf[MyFastHierarchy]
+    else {
+      val newfh = new MyFastHierarchy
+      scene.setFastHierarchy(newfh)
+      newfh
+    }
   }
 
-  def declaredFields(t: Type) = t match {
-    case t: RefType => t.getSootClass().getFields().asScala.toSet
-    case _: PrimType => Set()
-    case _: ArrayType => Set()
-    case _: NullType => Set()
+  override def isThreadSafe: Boolean = true
+
+  def declaredFields(t: Type): Set[Field] = sootLock.synchronized {
+    t match {
+      case t: RefType => t.getSootClass().getFields().asScala.toSet
+      case _: PrimType => Set()
+      case _: ArrayType => Set()
+      case _: NullType => Set()
+    }
   }
 
   def typeOf(f: Field) = f.getType()
@@ -63,7 +70,7 @@ class SootObjectModel(scene: soot.Scene) extends ObjectModel with ObjectModelHel
   def isPrimitive(t: Type) = t.isInstanceOf[PrimType]
 
   def isConcrete(t: Type) = t match {
-    case t: RefType => t.getSootClass().isConcrete()
+    case t: RefType => sootLock.synchronized { t.getSootClass().isConcrete() }
     case _: PrimType => true
     case _: ArrayType => true
     case _: NullType => false
@@ -80,42 +87,46 @@ class SootObjectModel(scene: soot.Scene) extends ObjectModel with ObjectModelHel
    * Returns whether a type is an interface.
    */
   def isInterface(t: Type) =
-    t.isInstanceOf[RefType] && t.asInstanceOf[RefType].getSootClass().isInterface()
+    t.isInstanceOf[RefType] && sootLock.synchronized { t.asInstanceOf[RefType].getSootClass().isInterface() }
 
   /**
     * @inheritdoc
     * For the moment, we consider primitive types to be incomparable, but I do not know
     * if it is the correct way to handle this.
     */
-  def lteq(t1: Type, t2: Type) = fh.canStoreType(t1, t2)
-
-  def parents(t: Type) = t match {
-    case t: RefType =>
-      val k = t.getSootClass()
-      val ifs = for {
-        i <- k.getInterfaces().asScala
-      } yield i.getType()
-      if (k.hasSuperclass())
-        ifs.toSet + k.getSuperclass().getType()
-      else
-        ifs.toSet
-    case _: PrimType => Set()
-    case t: ArrayType => parents(t.baseType) map { (ArrayType.v(_, t.numDimensions)) }
-    case _: NullType => Set()
+  def lteq(t1: Type, t2: Type) = sootLock.synchronized { fh.canStoreType(t1, t2) }
+
+  def parents(t: Type): Set[Type] = sootLock.synchronized {
+    t match {
+      case t: RefType =>
+        val k = t.getSootClass()
+        val ifs = for {
+          i <- k.getInterfaces().asScala
+        } yield i.getType()
+        if (k.hasSuperclass())
+          ifs.toSet + k.getSuperclass().getType()
+        else
+          ifs.toSet
+      case _: PrimType => Set()
+      case t: ArrayType => parents(t.baseType) map { (ArrayType.v(_, t.numDimensions)) }
+      case _: NullType => Set()
+    }
   }
 
-  def children(t: Type) = t match {
-    case t: RefType =>
-      val k = t.getSootClass()
-      if (k.isInterface()) {
-        (fh.getAllImplementersOfInterface(k).asScala map { _.getType() }).toSet ++
-          (fh.getSubinterfaces(k).asScala map { _.getType() }).toSet
-      } else {
-        (fh.getSubclassesOf(k).asScala map { _.getType() }).toSet
-      }
-    case _: PrimType => Set()
-    case t: ArrayType => children(t.baseType) map { (ArrayType.v(_, t.numDimensions)) }
-    case _: NullType => Set()
+  def children(t: Type): Set[Type] = sootLock.synchronized {
+    t match {
+      case t: RefType =>
+        val k = t.getSootClass()
+        if (k.isInterface()) {
+          (fh.getAllImplementersOfInterface(k).asScala map { _.getType() }).toSet ++
+            (fh.getSubinterfaces(k).asScala map { _.getType() }).toSet
+        } else {
+          (fh.getSubclassesOf(k).asScala map { _.getType() }).toSet
+        }
+      case _: PrimType => Set()
+      case t: ArrayType => children(t.baseType) map { (ArrayType.v(_, t.numDimensions)) }
+      case _: NullType => Set()
+    }
   }
 
   /**
@@ -125,10 +136,10 @@ class SootObjectModel(scene: soot.Scene) extends ObjectModel with ObjectModelHel
    */
   def concreteApproxFast(t1: Type, t2: Type): Option[Type] = {
     val tt1 = if (isInterface(t1))
-      scene.getObjectType()
+      sootLock.synchronized { scene.getObjectType() }
     else t1
     val tt2 = if (isInterface(t2))
-      scene.getObjectType()
+      sootLock.synchronized { scene.getObjectType() }
     else t2
     if (lteq(tt1, tt2))
       Some(tt1)
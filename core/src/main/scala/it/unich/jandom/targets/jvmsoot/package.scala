@@ -26,4 +26,11 @@ package it.unich.jandom.targets
  */
 package object jvmsoot {
 
+  /**
+   * The lock which serializes the accesses to Soot, which is not thread-safe. It should be held
+   * by every thread which builds bodies, resolves methods or queries the hierarchy of classes,
+   * when more than one thread may use Soot at the same time.
+   */
+  private[jvmsoot] val sootLock = new Object
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import it.unich.jandom.domains.numerical.NumericalDomain
 import it.unich.jandom.targets._
 import it.unich.jandom.targets.eqs.EQS
 import it.unich.jandom.targets.parameters._
+import it.unich.jandom.utils.{ComponentScheduler, Components}
 import it.unich.scalafix.assignments.InputAssignment
 import it.unich.scalafix.finite.GraphEquationSystem
 import it.unich.scalafix.lattice.Domain
@@ -122,6 +123,108 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
     l.incoming exists isRetreating
   }
 
+  /**
+    * An element of a weak topological ordering: either a single location or a component
+    * with a head and a body.
+    */
+  private sealed trait WTOElement
+
+  private case class WTOVertex(id: Int) extends WTOElement
+
+  private case class WTOComponent(head: Int, body: Seq[WTOElement]) extends WTOElement
+
+  /**
+    * Computes the weak topological ordering of the locations of the LTS, with the algorithm
+    * in F. Bourdoncle, "Efficient chaotic iteration strategies with widenings", FMPA 1993.
+    * Locations which are not reachable from the entry program points are put at the end.
+    * Since it is a lazy val, successive calls do not cause any recomputing.
+    */
+  private lazy val wto: Seq[WTOElement] = {
+    val dfn = Array.fill(numlocs)(0)
+    var num = 0
+    var stack = List.empty[Int]
+
+    def visit(v: Int, partition: collection.mutable.ListBuffer[WTOElement]): Int = {
+      stack = v :: stack
+      num += 1
+      dfn(v) = num
+      var head = num
+      var loop = false
+      for (t <- locations(v).outgoing) {
+        val succ = t.end.id
+        val min = if (dfn(succ) == 0) visit(succ, partition) else dfn(succ)
+        if (min <= head) {
+          head = min
+          loop = true
+        }
+      }
+      if (head == dfn(v)) {
+        dfn(v) = Int.MaxValue
+        var element = stack.head
+        stack = stack.tail
+        if (loop) {
+          while (element != v) {
+            dfn(element) = 0
+            element = stack.head
+            stack = stack.tail
+          }
+          partition.prepend(component(v))
+        } else
+          partition.prepend(WTOVertex(v))
+      }
+      head
+    }
+
+    def component(v: Int): WTOComponent = {
+      val partition = collection.mutable.ListBuffer.empty[WTOElement]
+      for (t <- locations(v).outgoing; if dfn(t.end.id) == 0) visit(t.end.id, partition)
+      WTOComponent(v, partition.toList)
+    }
+
+    val reachable = collection.mutable.ListBuffer.empty[WTOElement]
+    for (loc <- entryPP; if dfn(loc.id) == 0) visit(loc.id, reachable)
+    val unreachable = collection.mutable.ListBuffer.empty[WTOElement]
+    for (loc <- locations; if dfn(loc.id) == 0) visit(loc.id, unreachable)
+    reachable.toList ++ unreachable.toList
+  }
+
+  /**
+    * The set of indexes of the heads of the components in the weak topological ordering.
+    */
+  private lazy val wtoHeads: collection.immutable.BitSet = {
+    def heads(elements: Seq[WTOElement]): Seq[Int] = elements flatMap {
+      case WTOVertex(_) => Seq()
+      case WTOComponent(h, body) => h +: heads(body)
+    }
+    collection.immutable.BitSet(heads(wto): _*)
+  }
+
+  /**
+    * Returns true if `l` is the head of a component in the weak topological ordering.
+    */
+  def isComponentHead(l: Location): Boolean = wtoHeads(l.id)
+
+  /**
+    * The strongly connected components of the LTS, computed with Tarjan's algorithm. The first
+    * element is the sequence of components, each one given by the indexes of its locations, in
+    * topological order. The second element maps the index of each location to the index of its
+    * component. Since it is a lazy val, successive calls do not cause any recomputing.
+    */
+  private lazy val sccs: (IndexedSeq[Seq[Int]], Array[Int]) = {
+    // Tarjan's algorithm returns the components in reverse topological order
+    val ordered = Components.sccs(0 until numlocs, { (v: Int) => locations(v).outgoing.map(_.end.id) }).reverse
+    val componentOf = new Array[Int](numlocs)
+    for ((members, c) <- ordered.zipWithIndex; v <- members) componentOf(v) = c
+    (ordered, componentOf)
+  }
+
+  /**
+    * Throws an InterruptedException if the current thread has been interrupted. It is called by
+    * the analyzer at each evaluation of a location, so that long analyses may be cancelled.
+    */
+  private def checkInterrupted(): Unit =
+    if (Thread.interrupted()) throw new InterruptedException(s"analysis of $name interrupted")
+
   /**
     * An annotation for an LTS. It is implemented with an array of the same length of
     * the number of locations. Therefore, it should be more efficient than a standard
@@ -217,18 +320,73 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
     */
   override def getAnnotation[Property] = new LTSAnnotation[Property]
 
-  def analyze(params: Parameters): Annotation[ProgramPoint, params.Property] = {
+  def analyze(params: Parameters): Annotation[ProgramPoint, params.Property] = analyzeReusing(params)(_ => None)
+
+  /**
+    * Re-analyzes the LTS after some local edits, reusing the result `previous` of the analysis
+    * of the old version of the LTS. Only the locations reachable from the `changes` are analyzed
+    * again.
+    *
+    * Reuse requires the `Parallel` iteration strategy, where each strongly connected component
+    * only depends on the final values of its predecessors. With the other strategies, the value
+    * of a location depends on the intermediate values of its predecessors, hence it is not
+    * possible to reuse final values without changing the result. The result is identical to
+    * `analyze(params)`, provided `previous` has been computed with the same parameters and the
+    * part of the LTS which is not reachable from the changes is unchanged, including the order
+    * of its locations and transitions. When the initial region or the environment is changed,
+    * nothing may be reused, and this is the same as `analyze(params)`.
+    *
+    * @param params   the parameters of the analysis
+    * @param previous the result of the analysis of the old version of the LTS
+    * @param changes  the differences between the old and the new version of the LTS
+    * @throws IllegalArgumentException if the iteration strategy is not `Parallel`
+    */
+  def analyzeIncrementally(params: Parameters)(previous: Annotation[ProgramPoint, params.Property],
+                                               changes: LTS.Changes): Annotation[ProgramPoint, params.Property] = {
+    require(params.iterationStrategy == IterationStrategy.Parallel,
+      "Incremental analysis requires the Parallel iteration strategy")
+    // properties of a different dimension come from an analysis with a different environment
+    if (changes.environment || changes.regions.exists(_.name == "init") || previous.exists(_._2.dimension != env.size))
+      analyze(params)
+    else {
+      // old and new locations are matched by name
+      val byName = locations.map(l => l.name -> l).toMap
+      val previousValues = previous.iterator.map { case (l, p) => l.name -> p }.toMap
+      val changed = changes.transitions.map(_.end) ++ changes.locations ++
+        changes.locations.flatMap(_.outgoing.map(_.end))
+      val seeds = changed.flatMap(l => byName.get(l.name)) ++ locations.filterNot(l => previousValues contains l.name)
+      val affected = collection.mutable.BitSet()
+
+      def visit(l: Location): Unit = if (!affected(l.id)) {
+        affected += l.id
+        l.outgoing.foreach(t => visit(t.end))
+      }
+
+      seeds foreach visit
+      analyzeReusing(params) { l => if (affected(l.id)) None else previousValues.get(l.name) }
+    }
+  }
+
+  /**
+    * The analyzer. The function `reused` returns the final value of those locations whose
+    * analysis may be skipped, and it is only used by the `Parallel` iteration strategy.
+    */
+  private def analyzeReusing(params: Parameters)(reused: Location => Option[params.Property]): Annotation[ProgramPoint, params.Property] = {
+    // the recursive strategy stabilizes components on their heads, hence loops are cut there
+    val isLoopHead: Location => Boolean =
+      if (params.iterationStrategy == IterationStrategy.Recursive) isComponentHead else isJoinNode
+
     // build widening and narrowing for each program point
     val widenings = locations map { l: Location =>
       if (params.wideningLocation == WideningNarrowingLocation.All ||
-        (params.wideningLocation == WideningNarrowingLocation.Loop && isJoinNode(l)))
+        (params.wideningLocation == WideningNarrowingLocation.Loop && isLoopHead(l)))
         Some(params.widening(l))
       else
         None
     }
     val narrowings = locations map { l: Location =>
       if (params.narrowingLocation == WideningNarrowingLocation.All ||
-        (params.narrowingLocation == WideningNarrowingLocation.Loop && isJoinNode(l)))
+        (params.narrowingLocation == WideningNarrowingLocation.Loop && isLoopHead(l)))
         Some(params.narrowing(l))
       else
         None
@@ -236,6 +394,9 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
 
     // build an empty property.. it is used several times, so we speed execution
     val empty = params.domain.bottom(env.size)
+
+    // applies a transition, memoizing the result when `params.transferCacheSize` is positive
+    def post(t: Transition, input: params.Property): params.Property = params.transfer(t, input)(t.analyze(input))
     val initRegion = regions find {
       _.name == "init"
     }
@@ -244,16 +405,44 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
     val initial = initRegion match {
       case Some(Region(_, Some(initloc), initcond)) =>
         locations map {
-          loc => if (loc == initloc) initcond.analyze(params.domain.top(env.size)) else empty
+          loc => params.intern(if (loc == initloc) initcond.analyze(params.domain.top(env.size)) else empty)
         }
       case _ =>
         locations map {
           loc =>
-            (loc.conditions foldLeft params.domain.top(env.size)) {
+            params.intern((loc.conditions foldLeft params.domain.top(env.size)) {
               (prop, cond) => cond.analyze(prop)
-            }
+            })
         }
     }
+
+    // joins the initial value of `loc` with the results of its incoming transitions on `values`
+    // metrics are checked here, so that no closure is built for timing when they are disabled
+    def input(loc: Location, values: Int => params.Property): params.Property = {
+      def transfer() = for (t <- loc.incoming) yield post(t, values(t.start.id))
+      def join(propnew: Seq[params.Property]) = params.domain.unionAll(initial(loc.id), propnew)
+      params.metrics match {
+        case None => join(transfer())
+        case Some(m) =>
+          m.evaluation(loc)
+          val propnew = m.transfer(loc)(transfer())
+          m.join(loc)(join(propnew))
+      }
+    }
+
+    // applies the widening of `loc` when `ascending` and its narrowing otherwise, if they exist
+    def update(loc: Location, ascending: Boolean, old: params.Property, newinput: params.Property): params.Property = {
+      val box = if (ascending) widenings(loc.id) else narrowings(loc.id)
+      if (box.isEmpty)
+        newinput
+      else params.metrics match {
+        case None => box.get(old, newinput)
+        case Some(m) =>
+          if (ascending) m.widening(loc) else m.narrowing(loc)
+          m.join(loc)(box.get(old, newinput))
+      }
+    }
+
     val ann = getAnnotation[params.Property]
 
     if (params.iterationStrategy == IterationStrategy.Kleene) {
@@ -263,12 +452,13 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
       params.log("Beginning ascending chain\n")
       do {
         current = next
-        next = for ((loc, w) <- locations zip widenings) yield {
-          val propnew = for (t <- loc.incoming) yield t.analyze(current(t.start.id))
-          val unionednew = propnew.fold(initial(loc.id))(_ union _)
+        params.metrics.foreach(_.iteration("ascending"))
+        next = for (loc <- locations) yield {
+          checkInterrupted()
+          val unionednew = input(loc, current)
           params.log(s"Node: ${loc.name} Oldvalue: ${current(loc.id).mkString(env.variables)}" +
             s" Newinput: ${unionednew.mkString(env.variables)}")
-          val newvalue = if (w.isEmpty) unionednew else w.get(current(loc.id), unionednew)
+          val newvalue = params.intern(update(loc, ascending = true, current(loc.id), unionednew))
           params.log(s" Newvalue: ${newvalue.mkString(env.variables)}\n")
           newvalue
         }
@@ -277,12 +467,13 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
       params.log("Beginning descending chain\n")
       do {
         current = next
-        next = for ((loc, n) <- locations zip narrowings) yield {
-          val propnew = for (t <- loc.incoming) yield t.analyze(current(t.start.id))
-          val unionednew = propnew.fold(initial(loc.id))(_ union _)
+        params.metrics.foreach(_.iteration("descending"))
+        next = for (loc <- locations) yield {
+          checkInterrupted()
+          val unionednew = input(loc, current)
           params.log(s"Node: ${loc.name} Oldvalue: ${current(loc.id).mkString(env.variables)} " +
             s"Newinput: ${unionednew.mkString(env.variables)}")
-          val newvalue = if (n.isEmpty) unionednew else n.get(current(loc.id), unionednew)
+          val newvalue = params.intern(update(loc, ascending = false, current(loc.id), unionednew))
           params.log(s" Newvalue: ${
             newvalue.mkString(env.variables)
           }\n")
@@ -295,45 +486,116 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
 
     } else {
       val current = initial.toBuffer
-      val workList = collection.mutable.Queue[Int]()
 
-      params.log("Beginning ascending chain\n")
-      workList ++= 0 until numlocs
-      while (workList.nonEmpty) {
-        val locid = workList.dequeue()
+      // Evaluates the location `locid` and updates its value. Returns true if it has changed.
+      def evaluate(locid: Int, ascending: Boolean): Boolean = {
+        checkInterrupted()
         val loc = locations(locid)
-        val w = widenings(locid)
-        val propnew = for (t <- loc.incoming) yield t.analyze(current(t.start.id))
-        val unionednew = propnew.fold(initial(locid))(_ union _)
+        params.metrics match {
+          case None =>
+          case Some(m) => m.iteration(if (ascending) "ascending" else "descending")
+        }
+        val unionednew = input(loc, current)
         params.log(s"Node: ${loc.name} Oldvalue: ${current(loc.id).mkString(env.variables)} " +
           s"Newinput: ${unionednew.mkString(env.variables)}")
-        val newvalue = if (w.isEmpty) unionednew else w.get(current(locid), unionednew)
+        val newvalue = params.intern(update(loc, ascending, current(locid), unionednew))
         params.log(s" Newvalue: ${newvalue.mkString(env.variables)}\n")
-        if (newvalue != current(locid)) {
-          current(locid) = newvalue
-          for (t <- loc.outgoing) {
-            if (!workList.contains(t.end.id)) workList.enqueue(t.end.id)
+        val changed = newvalue != current(locid)
+        if (changed) current(locid) = newvalue
+        changed
+      }
+
+      if (params.iterationStrategy == IterationStrategy.Recursive) {
+        def stabilize(element: WTOElement, ascending: Boolean): Unit = element match {
+          case WTOVertex(id) =>
+            evaluate(id, ascending)
+          case WTOComponent(head, body) =>
+            // the body is evaluated at least once, then until the head is stable
+            var first = true
+            while (evaluate(head, ascending) || first) {
+              first = false
+              body foreach (stabilize(_, ascending))
+            }
+        }
+
+        params.log("Beginning ascending chain\n")
+        wto foreach (stabilize(_, ascending = true))
+        params.log("Beginning descending chain\n")
+        wto foreach (stabilize(_, ascending = false))
+      } else if (params.iterationStrategy == IterationStrategy.Parallel) {
+        import java.util.concurrent.CancellationException
+
+        val (components, componentOf) = sccs
+        val successors = components.indices map { c =>
+          (for (v <- components(c); t <- locations(v).outgoing; d = componentOf(t.end.id); if d != c) yield d).distinct
+        }
+        // components are only solved concurrently when the domain allows it, otherwise they are
+        // solved on the calling thread, in the same order
+        val scheduler = new ComponentScheduler(successors, params.domain.isThreadSafe)
+        val reusable = components map { members => members forall { v => reused(locations(v)).isDefined } }
+
+        // Each component is solved by a worklist, first ascending and then descending. Its
+        // predecessors are already stable, and each component only updates its locations.
+        def solve(c: Int): Unit = {
+          val inWorkList = collection.mutable.BitSet()
+          val workList = collection.mutable.Queue[Int]()
+          for (ascending <- Seq(true, false)) {
+            for (v <- components(c)) {
+              workList.enqueue(v)
+              inWorkList += v
+            }
+            while (workList.nonEmpty) {
+              if (scheduler.cancelled) throw new CancellationException()
+              val locid = workList.dequeue()
+              inWorkList -= locid
+              if (evaluate(locid, ascending))
+                for (t <- locations(locid).outgoing; w = t.end.id; if componentOf(w) == c && !inWorkList(w)) {
+                  workList.enqueue(w)
+                  inWorkList += w
+                }
+            }
           }
         }
-      }
 
-      params.log("Beginning descending chain\n")
-      workList ++= 0 until numlocs
-      while (workList.nonEmpty) {
-        val locid = workList.dequeue()
-        val loc = locations(locid)
-        val n = narrowings(locid)
-        val propnew = for (t <- loc.incoming) yield t.analyze(current(t.start.id))
-        val unionednew = propnew.fold(initial(locid))(_ union _)
-        params.log(s"Node: ${loc.name} Oldvalue: ${current(loc.id).mkString(env.variables)} " +
-          s"Newinput: ${unionednew.mkString(env.variables)}")
-        val newvalue = if (n.isEmpty) unionednew else n.get(current(locid), unionednew)
-        params.log(s" Newvalue: ${newvalue.mkString(env.variables)}\n")
-        if (newvalue != current(locid)) {
-          current(locid) = newvalue
-          for (t <- loc.outgoing; if !workList.contains(t.end.id))
-            workList.enqueue(t.end.id)
+        params.log("Beginning parallel analysis of components\n")
+        scheduler.run { c =>
+          if (reusable(c))
+            for (v <- components(c)) current(v) = params.intern(reused(locations(v)).get)
+          else
+            solve(c)
+        }
+      } else {
+        // the membership of the worklist is kept in a bitset, so that checks are O(1)
+        val inWorkList = collection.mutable.BitSet()
+        val fifo = collection.mutable.Queue[Int]()
+        // locations which are not reachable from the entry points have a negative dfo and come first
+        val priority = collection.mutable.PriorityQueue.empty[Int](Ordering.by { (id: Int) => -dfo(locations(id)) })
+        val usePriority = params.iterationStrategy == IterationStrategy.Priority
+
+        def enqueue(locid: Int): Unit = {
+          if (usePriority) priority.enqueue(locid) else fifo.enqueue(locid)
+          inWorkList += locid
+        }
+
+        def dequeue(): Int = {
+          val locid = if (usePriority) priority.dequeue() else fifo.dequeue()
+          inWorkList -= locid
+          locid
         }
+
+        def chain(ascending: Boolean): Unit = {
+          for (locid <- 0 until numlocs) enqueue(locid)
+          while (inWorkList.nonEmpty) {
+            val locid = dequeue()
+            if (evaluate(locid, ascending))
+              for (t <- locations(locid).outgoing; if !inWorkList(t.end.id)) enqueue(t.end.id)
+          }
+        }
+
+        params.log("Beginning ascending chain\n")
+        chain(ascending = true)
+        params.log("Beginning descending chain\n")
+        chain(ascending = false)
       }
       locations.foreach {
         loc => ann(loc) = current(loc.id)
@@ -369,6 +631,43 @@ class LTS(val name: String, val locations: IndexedSeq[Location], val transitions
 }
 
 object LTS {
+
+  /**
+    * A set of edits between two versions of an LTS, used by `LTS.analyzeIncrementally`. Added
+    * and changed elements belong to the new version, removed elements to the old one. Elements
+    * of the two versions are matched by name.
+    *
+    * @param transitions the added, removed or changed transitions
+    * @param locations   the added, removed or changed locations
+    * @param regions     the added, removed or changed regions
+    * @param environment whether the variables of the two versions are different
+    */
+  case class Changes(transitions: Seq[Transition] = Seq(), locations: Seq[Location] = Seq(), regions: Seq[Region] = Seq(),
+                     environment: Boolean = false)
+
+  /**
+    * Computes the changes between the LTSs `from` and `to`. Elements with the same name are
+    * compared syntactically, and all the elements with a given name are considered changed
+    * when any of them is.
+    */
+  def changes(from: LTS, to: LTS): Changes = {
+    def diff[A](from: Seq[A], to: Seq[A])(name: A => String, same: (A, A) => Boolean): Seq[A] = {
+      val fromByName = from.groupBy(name)
+      val toByName = to.groupBy(name)
+      (fromByName.keySet ++ toByName.keySet).toSeq flatMap { n =>
+        val xs = fromByName.getOrElse(n, Seq())
+        val ys = toByName.getOrElse(n, Seq())
+        if (xs.size == ys.size && (xs zip ys).forall(p => same(p._1, p._2))) Seq() else xs ++ ys
+      }
+    }
+
+    Changes(
+      diff(from.transitions, to.transitions)(_.name, _ syntacticallyEquals _),
+      diff(from.locations, to.locations)(_.name, _ syntacticallyEquals _),
+      diff(from.regions, to.regions)(_.name, _ syntacticallyEquals _),
+      from.env != to.env)
+  }
+
   def apply(name: String, locations: IndexedSeq[Location], transitions: Seq[Transition],
             env: Environment, regions: Seq[Region] = Seq()): LTS =
     new LTS(name, locations, transitions, env, regions)
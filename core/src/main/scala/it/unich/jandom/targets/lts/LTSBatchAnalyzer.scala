@@ -0,0 +1,133 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.targets.lts
+
+import java.nio.channels.ClosedByInterruptException
+import java.nio.file.{Files, Path}
+
+import scala.concurrent.duration.Duration
+
+import it.unich.jandom.domains.numerical.NumericalDomain
+import it.unich.jandom.parsers.FastParser
+import it.unich.jandom.targets.{Annotation, BatchRunner, Parameters}
+
+/**
+  * Analyzes many LTSs concurrently on a bounded pool of threads. Each model is analyzed with
+  * its own `Parameters`, and results are returned in the order the analyses finish.
+  *
+  * A model whose analysis takes longer than `timeout` is interrupted. The analyzer of LTS
+  * checks for interruption at each evaluation of a location, hence the thread is soon
+  * available for the other models.
+  *
+  * @param domain    the numerical domain used for all the analyses
+  * @param configure a function which sets the parameters of each analysis, such as the
+  *                  iteration strategy, widenings and narrowings
+  * @param threads   the number of models analyzed at the same time
+  * @param timeout   the maximum time allowed for each model, including parsing
+  */
+class LTSBatchAnalyzer(val domain: NumericalDomain,
+                       configure: Parameters[LTS] => Unit = _ => (),
+                       threads: Int = Runtime.getRuntime.availableProcessors,
+                       timeout: Duration = Duration.Inf) {
+
+  require(threads > 0, "the number of threads should be positive")
+
+  private val runner = new BatchRunner(threads, timeout, "lts-batch")
+
+  /**
+    * The result of the analysis of a model.
+    */
+  sealed abstract class Result {
+    /**
+      * The name of the model, i.e., the name of the LTS or of the file it comes from.
+      */
+    val name: String
+
+    /**
+      * The time spent on the model, in milliseconds.
+      */
+    val millis: Long
+  }
+
+  /**
+    * A model which has been analyzed.
+    */
+  case class Analyzed(name: String, lts: LTS, annotation: Annotation[Location, domain.Property], millis: Long) extends Result {
+    override def toString: String = s"$name: analyzed in $millis ms\n${lts.mkString(annotation)}"
+  }
+
+  /**
+    * A model whose analysis has been interrupted after `timeout`.
+    */
+  case class TimedOut(name: String, millis: Long) extends Result {
+    override def toString: String = s"$name: timed out after $millis ms"
+  }
+
+  /**
+    * A model which could not be loaded or analyzed.
+    */
+  case class Failed(name: String, error: Throwable, millis: Long) extends Result {
+    override def toString: String = s"$name: failed after $millis ms with $error"
+  }
+
+  /**
+    * Analyzes all the `ltss`.
+    *
+    * @return an iterator over the results, in the order the analyses finish. All the analyses
+    *         are submitted immediately, hence they proceed even if the iterator is not consumed.
+    */
+  def analyze(ltss: IterableOnce[LTS]): Iterator[Result] =
+    run(ltss.iterator.map(lts => (lts.name, () => lts)))
+
+  /**
+    * Parses and analyzes all the models in the FAST `files`. Parsing is performed in the pool,
+    * together with the analysis.
+    *
+    * @return an iterator over the results, in the order the analyses finish.
+    */
+  def analyzeFiles(files: IterableOnce[Path]): Iterator[Result] =
+    run(files.iterator.map { file =>
+      (file.toString, () => {
+        val reader = Files.newBufferedReader(file)
+        try {
+          val parsed = FastParser(postfix = file.getFileName.toString).parse(reader)
+          if (parsed.successful) parsed.get else throw new IllegalArgumentException(parsed.toString)
+        } finally reader.close()
+      })
+    })
+
+  private def run(jobs: Iterator[(String, () => LTS)]): Iterator[Result] =
+    runner.run(jobs.map { case (name, load) => (watchdog: runner.Watchdog) => analyzeJob(name, load, watchdog) })
+
+  private def analyzeJob(name: String, load: () => LTS, watchdog: BatchRunner#Watchdog): Result = {
+    watchdog.arm()
+    try {
+      val lts = load()
+      val params = new Parameters[LTS] {
+        val domain: LTSBatchAnalyzer.this.domain.type = LTSBatchAnalyzer.this.domain
+      }
+      configure(params)
+      val ann = lts.analyze(params)
+      Analyzed(name, lts, ann, watchdog.elapsed)
+    } catch {
+      case _: InterruptedException | _: ClosedByInterruptException => TimedOut(name, watchdog.elapsed)
+      case e: Exception => Failed(name, e, watchdog.elapsed)
+    }
+  }
+}
@@ -70,10 +70,21 @@ class Transition(val name: String, val start: Location, val end: Location, val g
     * @return the resulting property
     */
   def analyze[Property <: NumericalProperty[Property]](input: Property): Property = {
-    val filtered = (guard foldLeft input) { (current, cond) => cond.analyze(current) }
+    val filtered = guardInequalities match {
+      case Some(lfs) => input.linearInequalities(lfs)
+      case None => (guard foldLeft input) { (current, cond) => cond.analyze(current) }
+    }
     assignments.analyze(filtered)
   }
 
+  /**
+    * The guard as a conjunction of linear inequalities, if all its conditions are linear.
+    */
+  private lazy val guardInequalities = {
+    val lfs = guard.map(_.linearInequalities)
+    if (lfs.forall(_.isDefined)) Some(lfs.flatMap(_.get)) else None
+  }
+
   override def toString: String = name
 
 }
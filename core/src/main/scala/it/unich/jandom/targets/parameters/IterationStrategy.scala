@@ -22,11 +22,25 @@ package it.unich.jandom.targets.parameters
  * This parameter specifies which kind of iterations strategy to use for the analysis:
  * - Kleene: compute all state transformers at the same time (Kleene non-chaotic iteration)
  * - WorkList: simple worklist-based iteration strategy
- * At the moment, this is only supported by the LTS target.
+ * - Priority: worklist-based iteration strategy which always selects the program point
+ *   which comes first in the depth-first ordering
+ * - Recursive: Bourdoncle's recursive iteration strategy, which follows a weak topological
+ *   ordering and stabilizes inner loops before outer ones. Widening and narrowing at loops
+ *   are only applied at the heads of the components of the ordering.
+ * - Parallel: the strongly connected components of the program are solved one at a time with
+ *   a worklist, both for the ascending and the descending chain. Each component is scheduled on
+ *   a fork-join pool as soon as its predecessors are stable, hence independent components are
+ *   solved in parallel. When the domain is not thread-safe, components are solved one after the
+ *   other on the calling thread.
+ * At the moment, this is only supported by the LTS and EQS targets, and Parallel is only
+ * supported by the LTS target.
  */
 object IterationStrategy extends Enumeration {
   type IterationStrategy = Value
 
   val Kleene = Value
   val Worklist = Value
+  val Priority = Value
+  val Recursive = Value
+  val Parallel = Value
 }
@@ -35,8 +35,9 @@ class IfStmt(val condition: NumericCondition, val then_branch: SLILStmt, val els
 
   def analyzeStmt(params: Parameters)(input: params.Property, phase: AnalysisPhase,
                                       ann: Annotation[ProgramPoint, params.Property]): params.Property = {
-    val thenStart = condition.analyze(input)
-    val elseStart = condition.opposite.analyze(input)
+    val elseCondition = condition.opposite
+    val thenStart = params.transfer(condition, input)(condition.analyze(input))
+    val elseStart = params.transfer(elseCondition, input)(elseCondition.analyze(input))
     val thenEnd = then_branch.analyzeStmt(params)(thenStart, phase, ann)
     val elseEnd = else_branch.analyzeStmt(params)(elseStart, phase, ann)
     if (params.allPPResult) {
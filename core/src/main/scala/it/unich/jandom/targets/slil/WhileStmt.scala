@@ -52,9 +52,51 @@ class WhileStmt(val condition: NumericCondition, val body: SLILStmt) extends SLI
     // Increase nesting level since we are entering a loop
     params.nestingLevel += 1
 
+    // The head of the loop, where metrics are recorded when `params.metrics` is enabled
+    val head = (this, Symbol("head"))
+
+    // Applies the guard `cond`, memoizing the result when `params.transferCacheSize` is positive. Here and
+    // below, metrics are checked directly so that no closure is built for timing when they are disabled.
+    val exitCondition = condition.opposite
+    def guard(cond: NumericCondition, prop: params.Property) = params.metrics match {
+      case None => params.transfer(cond, prop)(cond.analyze(prop))
+      case Some(m) => m.transfer(head)(params.transfer(cond, prop)(cond.analyze(prop)))
+    }
+    def enter(prop: params.Property) = guard(condition, prop)
+
     // Determines widening/narrowing operators to use
-    val widening = params.widening((this, Symbol("head")))
-    val narrowing = params.narrowing((this, Symbol("head")))
+    val widening = params.widening(head)
+    val narrowing = params.narrowing(head)
+
+    // Records an iteration of the loop in the phase `phase`
+    def iteration(phase: String) = params.metrics match {
+      case None =>
+      case Some(m) =>
+        m.iteration(phase)
+        m.evaluation(head)
+    }
+
+    // Joins two properties at the head of the loop
+    def union(x: params.Property, y: params.Property) = params.metrics match {
+      case None => x union y
+      case Some(m) => m.join(head)(x union y)
+    }
+
+    // Widens `x` with `y` using the widening of the loop if `default` is false, of the domain otherwise
+    def widen(x: params.Property, y: params.Property, default: Boolean = false) = params.metrics match {
+      case None => if (default) x widening y else widening(x, y)
+      case Some(m) =>
+        m.widening(head)
+        m.join(head)(if (default) x widening y else widening(x, y))
+    }
+
+    // Narrows `x` with `y` using the narrowing of the loop if `default` is false, of the domain otherwise
+    def narrow(x: params.Property, y: params.Property, default: Boolean = false) = params.metrics match {
+      case None => if (default) x narrowing y else narrowing(x, y)
+      case Some(m) =>
+        m.narrowing(head)
+        m.join(head)(if (default) x narrowing y else narrowing(x, y))
+    }
 
     // Determines initial values for the analysis, depending on the calling phase
     var (bodyResult, invariant) =
@@ -79,9 +121,9 @@ class WhileStmt(val condition: NumericCondition, val body: SLILStmt) extends SLI
       // Initialization phase: compute the effect of entering the while node from the
       // outer cycle.
       params.wideningScope match {
-        case Random => newinvariant = invariant union input
-        case Output => newinvariant = invariant widening (input union bodyResult)
-        case BackEdges => newinvariant = bodyResult union input
+        case Random => newinvariant = union(invariant, input)
+        case Output => newinvariant = widen(invariant, union(input, bodyResult), default = true)
+        case BackEdges => newinvariant = union(bodyResult, input)
       }
 
       // Debug
@@ -89,16 +131,18 @@ class WhileStmt(val condition: NumericCondition, val body: SLILStmt) extends SLI
 
       do {
         invariant = newinvariant
+        iteration("ascending")
         params.wideningScope match {
           case Random =>
-            bodyResult = body.analyzeStmt(params)(condition.analyze(invariant), currentPhase, ann)
-            newinvariant = widening(invariant, bodyResult)
+            bodyResult = body.analyzeStmt(params)(enter(invariant), currentPhase, ann)
+            newinvariant = widen(invariant, bodyResult)
           case BackEdges =>
-            bodyResult = bodyResult widening body.analyzeStmt(params)(condition.analyze(input union newinvariant), currentPhase, ann)
-            newinvariant = bodyResult union input
+            val newBodyResult = body.analyzeStmt(params)(enter(union(input, newinvariant)), currentPhase, ann)
+            bodyResult = widen(bodyResult, newBodyResult, default = true)
+            newinvariant = union(bodyResult, input)
           case Output =>
-            bodyResult = body.analyzeStmt(params)(condition.analyze(newinvariant), currentPhase, ann)
-            newinvariant = widening(invariant, input union bodyResult)
+            bodyResult = body.analyzeStmt(params)(enter(newinvariant), currentPhase, ann)
+            newinvariant = widen(invariant, union(input, bodyResult))
         }
         // If we were in AscendingRestart phase, move to Ascending phase
         currentPhase = Ascending
@@ -126,7 +170,7 @@ class WhileStmt(val condition: NumericCondition, val body: SLILStmt) extends SLI
       params.log(s"Input: $input\n")
 
       // For narrowing, we only consider output scope
-      newinvariant = narrowing(invariant, input union bodyResult)
+      newinvariant = narrow(invariant, union(input, bodyResult))
 
       // Debug
       params.log(s"Entering Invariant: $newinvariant\n")
@@ -135,9 +179,10 @@ class WhileStmt(val condition: NumericCondition, val body: SLILStmt) extends SLI
       val newphase = if (params.narrowingStrategy == Restart) AscendingRestart else Descending
       do {
         invariant = newinvariant
+        iteration("descending")
 
-        bodyResult = body.analyzeStmt(params)(condition.analyze(invariant), newphase, ann)
-        newinvariant = invariant narrowing (invariant intersection (input union bodyResult))
+        bodyResult = body.analyzeStmt(params)(enter(invariant), newphase, ann)
+        newinvariant = narrow(invariant, invariant intersection union(input, bodyResult), default = true)
 
         // Debug
         params.log(s"Body Result: $bodyResult\n")
@@ -152,16 +197,16 @@ class WhileStmt(val condition: NumericCondition, val body: SLILStmt) extends SLI
     lastBodyResult = bodyResult
 
     // Annotate results
-    ann((this, Symbol("head"))) = invariant
+    ann(head) = invariant
     if (params.allPPResult) {
-      ann((this, Symbol("bodyStart"))) = condition.analyze(invariant)
+      ann((this, Symbol("bodyStart"))) = enter(invariant)
       ann((this, Symbol("bodyEnd"))) = bodyResult
     }
 
     // Exit from this loop, hence decrement nesting level
     params.nestingLevel -= 1
 
-    condition.opposite.analyze(invariant)
+    guard(exitCondition, invariant)
   }
 
   def outputAnnotation[T <: NumericalProperty[_]](ann: Annotation[ProgramPoint, T], ob: OutputBuilder, env: Environment): Unit = {
@@ -35,7 +35,28 @@ object NumericalDomains extends ParameterEnumeration[NumericalDomain] {
       "w.r.t. reals."),
     ParameterValue(ParallelotopeRationalDomain(), "Parallelotope over Rationals", "This is a native Scala implementation of parallelotopes using rational numbers."),
     ParameterValue(SumBoxDoubleParallelotopeRationDomain(), "BoxDouble + ParallelotopeRational", "Sum of boxes and parallelotopes."),
-    ParameterValue(OctagonDomain(), "Octagon Domain", "This is a native Scala implementation of octagons. Currentyl, it does not support the Soot analysis.")
+    ParameterValue(OctagonDomain(), "Octagon Domain", "This is a native Scala implementation of octagons. Currentyl, it does not support the Soot analysis."),
+    ParameterValue(OctagonDomain.decomposed(), "Octagon Domain (decomposed)", "This is the native Scala implementation of octagons, with " +
+      "variables partitioned in independent blocks which are closed separately."),
+    ParameterValue(OctagonDomain(doubleDBM = true, parallelClosure = true), "Octagon Domain (double DBM, parallel closure)", "This is the " +
+      "native Scala implementation of octagons with double DBMs, where the closure of large DBMs runs on all the cores."),
+    ParameterValue(OctagonDoubleDomain(), "Octagon Domain over Doubles", "This is a native Scala implementation of octagons with " +
+      "bounds stored in primitive arrays of doubles, and all the operations on bounds rounded towards +oo. Differently from " +
+      "the Octagon Domain, whose bounds are exact rationals in half-matrices, it is much faster but it may lose precision " +
+      "when bounds are not representable as doubles. It is safe w.r.t. reals."),
+    ParameterValue(ProfilingDomain(BoxDoubleDomain()), "BoxDouble (profiled)", "The BoxDouble domain, which also collects " +
+      "the number, latency and allocations of its operations."),
+    ParameterValue(ProfilingDomain(ParallelotopeRationalDomain()), "Parallelotope over Rationals (profiled)", "The parallelotope " +
+      "domain over rationals, which also collects the number, latency and allocations of its operations."),
+    ParameterValue(ProfilingDomain(SumBoxDoubleParallelotopeRationDomain()), "BoxDouble + ParallelotopeRational (profiled)",
+      "The sum of boxes and parallelotopes, which also collects the number, latency and allocations of its operations."),
+    ParameterValue(ProfilingDomain(new ProductDomain(BoxDoubleDomain(), ParallelotopeRationalDomain())),
+      "BoxDouble x ParallelotopeRational (profiled)", "The reduced product of boxes and parallelotopes, which also " +
+      "collects the number, latency and allocations of its operations."),
+    ParameterValue(ProfilingDomain(OctagonDomain()), "Octagon Domain (profiled)", "The native Scala implementation of " +
+      "octagons, which also collects the number, latency and allocations of its operations."),
+    ParameterValue(ProfilingDomain(OctagonDoubleDomain()), "Octagon Domain over Doubles (profiled)", "The octagon domain " +
+      "over doubles, which also collects the number, latency and allocations of its operations.")
   )
   val default = values.head
 
@@ -131,20 +131,7 @@ object OutputInterface {
     try {
       val sootScene = Scene.v()
       sootScene.loadBasicClasses()
-      val om = new SootObjectModel(sootScene)
-      val sootDomain: SootFrameDomain = domain match {
-        case domain: NumericalDomain => new SootFrameNumericalDomain(domain)
-        case domain: ObjectDomainFactory => new SootFrameObjectDomain(domain(om))
-      }
-      val tMethod = method.asInstanceOf[T]
-      val params = new Parameters[T] {
-        val domain: T#DomainBase = sootDomain
-      }
-      setParameters(params, wideningIndex, narrowingIndex, delay, debug)
-      val inte = new TopSootInterpretation[T, params.type](params)
-      params.interpretation = Some(inte)
-      val ann = tMethod.analyze(params)
-      tMethod.mkString(params)(ann)
+      analyze(method, domain, new SootObjectModel(sootScene), wideningIndex, narrowingIndex, delay, debug)
     } catch {
       case e: UnsupportedSootUnitException =>
         e.getMessage + " : " + e.unit + " Error in analysing bytecode"
@@ -153,6 +140,36 @@ object OutputInterface {
     }
   }
 
+  /**
+    * Analyze a method using Soot, with a given object model. Exceptions raised by the analysis
+    * are propagated to the caller.
+    *
+    * @param method         the method to be analyzed
+    * @param domain         the abstract domain to be used (either numerical or object)
+    * @param om             the object model of the current Soot scene
+    * @param wideningIndex  the widening strategy
+    * @param narrowingIndex the narrowing strategy
+    * @param delay          the widening delay
+    * @param debug          is true when the debug is active
+    * @return a string with the program annotated with the analysis result
+    */
+  private[ui] def analyze[T <: SootCFG[T, Block]](method: SootCFG[T, Block], domain: Any, om: SootObjectModel,
+                                                  wideningIndex: Int, narrowingIndex: Int, delay: Int, debug: Boolean): String = {
+    val sootDomain: SootFrameDomain = domain match {
+      case domain: NumericalDomain => new SootFrameNumericalDomain(domain)
+      case domain: ObjectDomainFactory => new SootFrameObjectDomain(domain(om))
+    }
+    val tMethod = method.asInstanceOf[T]
+    val params = new Parameters[T] {
+      val domain: T#DomainBase = sootDomain
+    }
+    setParameters(params, wideningIndex, narrowingIndex, delay, debug)
+    val inte = new TopSootInterpretation[T, params.type](params)
+    params.interpretation = Some(inte)
+    val ann = tMethod.analyze(params)
+    tMethod.mkString(params)(ann)
+  }
+
   def analyze(dir: Path, klass: Int, method: Int, isNumerical: Boolean, isBaf: Boolean, domain: Int, wideningIndex: Int,
               narrowingIndex: Int, delay: Int, debug: Boolean): String = {
     val methods = getSootMethods(dir, klass)
@@ -0,0 +1,43 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.ui.cli
+
+import org.rogach.scallop._
+
+import it.unich.jandom.targets.parameters.IterationStrategy
+import it.unich.jandom.ui.NumericalDomains
+
+/**
+ * The class for command line parameters of the batch analyzer.
+ */
+class BatchConf(arguments: collection.Seq[String]) extends ScallopConf(arguments) {
+  def enumConverter(e: Enumeration) = singleArgConverter(e.withName(_))
+  val domain = opt[String]("domain", default = Some(NumericalDomains.default.name),
+    descr = "the name of the numerical domain, one of: " + NumericalDomains.values.map(_.name).mkString(", "))
+  val iterationStrategy = opt[IterationStrategy.Value]("strategy", default = Some(IterationStrategy.Worklist))(enumConverter(IterationStrategy))
+  val threads = opt[Int]("threads", default = Some(Runtime.getRuntime.availableProcessors), validate = _ > 0)
+  val profile = toggle("profile", default = Some(false),
+    descrYes = "collect and print statistics on the operations of the numerical domain")
+  val timeout = opt[Int]("timeout", descr = "the maximum number of seconds for each model", validate = _ > 0)
+  val models = trailArg[List[String]]("models", descr = "FAST models, or directories which are searched for .fst files")
+  validate(domain) { name =>
+    if (NumericalDomains.values.exists(_.name == name)) Right(()) else Left(s"unknown domain $name")
+  }
+  verify()
+}
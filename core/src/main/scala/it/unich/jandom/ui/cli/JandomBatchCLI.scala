@@ -0,0 +1,69 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.ui.cli
+
+import java.nio.file.{Files, Path, Paths}
+
+import scala.concurrent.duration._
+import scala.jdk.CollectionConverters._
+
+import it.unich.jandom.domains.numerical.ProfilingDomain
+import it.unich.jandom.targets.lts.LTSBatchAnalyzer
+import it.unich.jandom.ui.NumericalDomains
+
+/**
+ * A CLI which analyzes many FAST models in parallel, printing the result of each
+ * model as soon as it is available.
+ */
+object JandomBatchCLI extends App {
+  val conf = new BatchConf(args)
+
+  def modelFiles(name: String): Seq[Path] = {
+    val path = Paths.get(name)
+    if (Files.isDirectory(path)) {
+      val stream = Files.walk(path)
+      try stream.iterator.asScala.filter(p => Files.isRegularFile(p) && p.toString.endsWith(".fst")).toSeq.sorted
+      finally stream.close()
+    } else
+      Seq(path)
+  }
+
+  val domain = NumericalDomains.values.find(_.name == conf.domain()).get.value match {
+    case dom: ProfilingDomain[_] => dom
+    case dom => if (conf.profile()) ProfilingDomain(dom) else dom
+  }
+  val analyzer = new LTSBatchAnalyzer(domain,
+    configure = params => params.iterationStrategy = conf.iterationStrategy(),
+    threads = conf.threads(),
+    timeout = conf.timeout.toOption.fold(Duration.Inf: Duration)(_.seconds))
+  var analyzed, timedOut, failed = 0
+  for (result <- analyzer.analyzeFiles(conf.models().flatMap(modelFiles))) {
+    result match {
+      case _: analyzer.Analyzed => analyzed += 1
+      case _: analyzer.TimedOut => timedOut += 1
+      case _: analyzer.Failed => failed += 1
+    }
+    println(result)
+  }
+  println(s"analyzed: $analyzed, timed out: $timedOut, failed: $failed")
+  domain match {
+    case dom: ProfilingDomain[_] => dom.report foreach println
+    case _ =>
+  }
+}
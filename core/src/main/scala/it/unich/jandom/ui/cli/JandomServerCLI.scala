@@ -0,0 +1,42 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.cli
+
+import scala.io.StdIn
+
+import it.unich.jandom.ui.server.AnalysisServer
+
+/**
+ * A CLI which starts an analysis server, answering to JSON requests either on a local socket
+ * or on the standard input. See [[it.unich.jandom.ui.server.AnalysisServer]] for the protocol.
+ */
+object JandomServerCLI extends App {
+  val conf = new ServerConf(args)
+  val server = new AnalysisServer
+  if (conf.stdio()) {
+    var line = StdIn.readLine()
+    while (line != null) {
+      if (line.trim.nonEmpty) println(server.handle(line))
+      line = StdIn.readLine()
+    }
+  } else {
+    Console.err.println(s"Jandom analysis server listening on localhost:${conf.port()}")
+    server.serve(conf.port())
+  }
+}
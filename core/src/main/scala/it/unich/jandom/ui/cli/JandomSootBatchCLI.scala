@@ -0,0 +1,92 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.cli
+
+import java.io.{File, FileOutputStream, OutputStreamWriter, PrintWriter}
+import java.nio.charset.StandardCharsets
+import java.nio.file.Paths
+
+import scala.concurrent.duration._
+
+import it.unich.jandom.targets.jvmsoot._
+import it.unich.jandom.ui._
+import it.unich.jandom.ui.server.Json
+import soot.toolkits.graph.Block
+import soot.{Scene, SootMethod}
+
+/**
+ * A CLI which analyzes all the concrete methods in some jars or directories of classes, in
+ * parallel. Results are written as soon as they are available, one JSON object per line, with
+ * the fields `class`, `method`, `status` (one of `analyzed`, `timeout` and `failed`), `millis`,
+ * and either `output` or `error`.
+ */
+object JandomSootBatchCLI extends App {
+  val conf = new SootBatchConf(args)
+
+  val scene = Scene.v()
+  scene.loadBasicClasses()
+  scene.setSootClassPath((scene.defaultClassPath +: conf.classpath()).mkString(File.pathSeparator))
+
+  val classNames = conf.classpath() flatMap { entry => OutputInterface.getClasses(Paths.get(entry)) map { _.replace('/', '.') } }
+  val methods = SootBatchAnalyzer.concreteMethods(scene, classNames)
+
+  val domain: SootFrameDomain = if (conf.objects()) {
+    val factory = conf.domain.toOption.fold(ObjectDomains.default)(name => ObjectDomains.values.find(_.name == name).get).value
+    new SootFrameObjectDomain(factory(new SootObjectModel(scene)))
+  } else
+    new SootFrameNumericalDomain(conf.domain.toOption.fold(NumericalDomains.default)(name => NumericalDomains.values.find(_.name == name).get).value)
+
+  val out = new PrintWriter(new OutputStreamWriter(conf.output.toOption.fold(System.out: java.io.OutputStream)(new FileOutputStream(_)),
+    StandardCharsets.UTF_8))
+
+  def run[T <: SootCFG[T, Block]](target: SootMethod => T): Unit = {
+    val analyzer = new SootBatchAnalyzer[T](target, domain,
+      configure = params => OutputInterface.setParameters(params,
+        WideningScopes.values.indexWhere(_.name == conf.widening()),
+        NarrowingStrategies.values.indexWhere(_.name == conf.narrowing()),
+        conf.delay(), debug = false),
+      threads = conf.threads(),
+      timeout = conf.timeout.toOption.fold(Duration.Inf: Duration)(_.seconds))
+    var analyzed, timedOut, failed = 0
+    for (result <- analyzer.analyze(methods)) {
+      val fields = result match {
+        case r: analyzer.Analyzed =>
+          analyzed += 1
+          Seq("status" -> "analyzed", "output" -> r.output)
+        case _: analyzer.TimedOut =>
+          timedOut += 1
+          Seq("status" -> "timeout")
+        case r: analyzer.Failed =>
+          failed += 1
+          Seq("status" -> "failed", "error" -> r.error.toString)
+      }
+      out.println(Json.write(Map("class" -> result.method.getDeclaringClass.getName,
+        "method" -> result.method.getSubSignature, "millis" -> result.millis) ++ fields))
+      out.flush()
+    }
+    Console.err.println(s"analyzed: $analyzed, timed out: $timedOut, failed: $failed")
+  }
+
+  try {
+    if (conf.ir() == "baf")
+      run(new BafMethod(_, false))
+    else
+      run(new JimpleMethod(_, false))
+  } finally out.close()
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.cli
+
+import org.rogach.scallop._
+
+/**
+ * The class for command line parameters of the analysis server.
+ */
+class ServerConf(arguments: collection.Seq[String]) extends ScallopConf(arguments) {
+  val port = opt[Int]("port", default = Some(7070), descr = "the port on the loopback interface", validate = p => p > 0 && p < 65536)
+  val stdio = toggle("stdio", default = Some(false),
+    descrYes = "read requests from the standard input and write responses to the standard output")
+  verify()
+}
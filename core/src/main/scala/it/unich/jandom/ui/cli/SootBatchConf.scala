@@ -0,0 +1,53 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.cli
+
+import org.rogach.scallop._
+
+import it.unich.jandom.ui.{NarrowingStrategies, NumericalDomains, ObjectDomains, WideningScopes}
+
+/**
+ * The class for command line parameters of the batch analyzer of Java bytecode.
+ */
+class SootBatchConf(arguments: collection.Seq[String]) extends ScallopConf(arguments) {
+  val ir = choice(Seq("jimple", "baf"), name = "ir", default = Some("jimple"), descr = "the intermediate representation")
+  val objects = toggle("objects", default = Some(false), descrYes = "analyze object properties instead of numerical properties")
+  val domain = opt[String]("domain", descr = "the name of the domain, one of: " +
+    (NumericalDomains.values ++ ObjectDomains.values).map(_.name).mkString(", "))
+  val widening = opt[String]("widening", default = Some(WideningScopes.default.name),
+    descr = "the widening scope, one of: " + WideningScopes.values.map(_.name).mkString(", "))
+  val narrowing = opt[String]("narrowing", default = Some(NarrowingStrategies.default.name),
+    descr = "the narrowing strategy, one of: " + NarrowingStrategies.values.map(_.name).mkString(", "))
+  val delay = opt[Int]("delay", default = Some(0), descr = "the widening delay", validate = _ >= 0)
+  val threads = opt[Int]("threads", default = Some(Runtime.getRuntime.availableProcessors), validate = _ > 0)
+  val timeout = opt[Int]("timeout", descr = "the maximum number of seconds for the analysis of each method", validate = _ > 0)
+  val output = opt[String]("output", descr = "the file where results are written, one JSON object per line (default: standard output)")
+  val classpath = trailArg[List[String]]("classpath", descr = "jars or directories of classes, whose classes are all analyzed")
+  validate(widening) { name =>
+    if (WideningScopes.values.exists(_.name == name)) Right(()) else Left(s"unknown widening scope $name")
+  }
+  validate(narrowing) { name =>
+    if (NarrowingStrategies.values.exists(_.name == name)) Right(()) else Left(s"unknown narrowing strategy $name")
+  }
+  validate(domain, objects) { (name, obj) =>
+    val values = if (obj) ObjectDomains.values else NumericalDomains.values
+    if (values.exists(_.name == name)) Right(()) else Left(s"unknown domain $name")
+  }
+  verify()
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.server
+
+import java.io.{BufferedReader, File, InputStreamReader, OutputStreamWriter, PrintWriter}
+import java.net.{InetAddress, ServerSocket, Socket}
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.Executors
+
+import scala.collection.mutable
+import scala.util.control.NonFatal
+
+import it.unich.jandom.targets.jvmsoot._
+import it.unich.jandom.ui._
+import soot.toolkits.graph.Block
+import soot.{G, Scene}
+
+/**
+ * A server which analyzes methods with Soot, keeping the Soot scene, the object model and the
+ * bodies of the analyzed methods loaded between requests. Hence, only the first request for a
+ * method pays for class loading and for the construction of its intermediate representation.
+ *
+ * Requests and responses are JSON objects. A request has a field `command`, which is one of:
+ *  - `analyze` (the default), which analyzes a method. The other fields are `classpath`, `class`
+ *    and `method` (required), `ir` (`jimple` or `baf`), `analysis` (`numerical` or `object`),
+ *    `domain`, `widening` and `narrowing` (the names shown by the GUI), `delay` and `debug`.
+ *    The method may be given either by name or by sub-signature, such as `int f(int)`.
+ *  - `domains`, which returns the names of the available domains and strategies.
+ *  - `reset`, which drops the Soot scene and all the cached methods.
+ *
+ * A response has a boolean field `ok`. Successful analyses return the annotated method in the
+ * field `output` and the time spent in milliseconds in the field `millis`, while errors are
+ * described in the field `error`.
+ *
+ * Soot keeps its state in global singletons, hence requests are executed one at a time.
+ */
+class AnalysisServer {
+
+  private var classPath: Option[String] = None
+
+  private var om: SootObjectModel = _
+
+  private val methods = mutable.Map[(String, String, Boolean), SootCFG[_, Block]]()
+
+  /**
+   * Sets up a new Soot scene for the class path `cp`, unless it is already the current one.
+   */
+  private def scene(cp: String): Scene = {
+    if (!classPath.contains(cp)) {
+      G.reset()
+      methods.clear()
+      val scene = Scene.v()
+      scene.loadBasicClasses()
+      scene.setSootClassPath(scene.defaultClassPath + File.pathSeparator + cp)
+      om = new SootObjectModel(scene)
+      classPath = Some(cp)
+    }
+    Scene.v()
+  }
+
+  private def method(cp: String, klass: String, name: String, isBaf: Boolean): SootCFG[_, Block] = {
+    val sootScene = scene(cp)
+    methods.getOrElseUpdate((klass, name, isBaf), {
+      val sootKlass = sootScene.loadClassAndSupport(klass)
+      sootKlass.setApplicationClass()
+      val sootMethod = if (name contains "(") sootKlass.getMethod(name) else sootKlass.getMethodByName(name)
+      if (isBaf) new BafMethod(sootMethod, false) else new JimpleMethod(sootMethod, false)
+    })
+  }
+
+  private def field[A](request: Map[String, Any], name: String, default: => Option[A] = None): A =
+    request.get(name).orElse(default) match {
+      case Some(v) => v.asInstanceOf[A]
+      case None => throw new IllegalArgumentException(s"Missing field $name")
+    }
+
+  private def index[V](e: ParameterEnumeration[V], name: Option[Any], default: ParameterValue[V]): Int = {
+    val n = name.getOrElse(default.name)
+    val i = e.values.indexWhere(_.name == n)
+    if (i < 0) throw new IllegalArgumentException(s"Unknown ${e.name.toLowerCase}: $n")
+    i
+  }
+
+  private def analyze(request: Map[String, Any]): Map[String, Any] = {
+    val start = System.nanoTime()
+    val isBaf = field[String](request, "ir", Some("jimple")) match {
+      case "jimple" => false
+      case "baf" => true
+      case ir => throw new IllegalArgumentException(s"Unknown intermediate representation: $ir")
+    }
+    val domain = field[String](request, "analysis", Some("numerical")) match {
+      case "numerical" => NumericalDomains.values(index(NumericalDomains, request.get("domain"), NumericalDomains.default)).value
+      case "object" => ObjectDomains.values(index(ObjectDomains, request.get("domain"), ObjectDomains.default)).value
+      case analysis => throw new IllegalArgumentException(s"Unknown analysis: $analysis")
+    }
+    val wideningIndex = index(WideningScopes, request.get("widening"), WideningScopes.default)
+    val narrowingIndex = index(NarrowingStrategies, request.get("narrowing"), NarrowingStrategies.default)
+    val delay = field[BigDecimal](request, "delay", Some(BigDecimal(0))).toInt
+    val debug = field[Boolean](request, "debug", Some(false))
+    def run[T <: SootCFG[T, Block]](target: T) =
+      OutputInterface.analyze(target, domain, om, wideningIndex, narrowingIndex, delay, debug)
+    val output = method(field(request, "classpath"), field(request, "class"), field(request, "method"), isBaf) match {
+      case target: JimpleMethod => run(target)
+      case target: BafMethod => run(target)
+    }
+    Map("ok" -> true, "output" -> output, "millis" -> (System.nanoTime() - start) / 1000000)
+  }
+
+  /**
+   * Executes the request `request`, returning the response.
+   */
+  def execute(request: Any): Map[String, Any] = synchronized {
+    try request match {
+      case request: Map[String, Any] @unchecked =>
+        field[String](request, "command", Some("analyze")) match {
+          case "analyze" => analyze(request)
+          case "domains" => Map("ok" -> true,
+            "numerical" -> NumericalDomains.values.map(_.name),
+            "object" -> ObjectDomains.values.map(_.name),
+            "widening" -> WideningScopes.values.map(_.name),
+            "narrowing" -> NarrowingStrategies.values.map(_.name))
+          case "reset" =>
+            classPath = None
+            methods.clear()
+            Map("ok" -> true)
+          case command => throw new IllegalArgumentException(s"Unknown command: $command")
+        }
+      case _ => throw new IllegalArgumentException("The request should be a JSON object")
+    } catch {
+      case e: UnsupportedSootUnitException =>
+        Map("ok" -> false, "error" -> s"${e.getMessage} : ${e.unit}")
+      case NonFatal(e) =>
+        Map("ok" -> false, "error" -> Option(e.getMessage).getOrElse(e.toString))
+    }
+  }
+
+  /**
+   * Executes the request in the JSON text `line`, returning the JSON text of the response.
+   */
+  def handle(line: String): String = {
+    val response = try execute(Json.parse(line)) catch {
+      case e: IllegalArgumentException => Map("ok" -> false, "error" -> e.getMessage)
+    }
+    Json.write(response)
+  }
+
+  private def serveConnection(socket: Socket): Unit = {
+    try {
+      val in = new BufferedReader(new InputStreamReader(socket.getInputStream, StandardCharsets.UTF_8))
+      val out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream, StandardCharsets.UTF_8), true)
+      var line = in.readLine()
+      while (line != null) {
+        if (line.trim.nonEmpty) out.println(handle(line))
+        line = in.readLine()
+      }
+    } finally socket.close()
+  }
+
+  /**
+   * Accepts connections on the loopback interface at port `port`, never returning. Each
+   * connection carries a sequence of requests, one per line, and each request is answered
+   * by a response on a single line.
+   */
+  def serve(port: Int): Unit = {
+    val serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress)
+    val executor = Executors.newCachedThreadPool()
+    try {
+      while (true) {
+        val socket = serverSocket.accept()
+        executor.execute(() => serveConnection(socket))
+      }
+    } finally {
+      executor.shutdown()
+      serverSocket.close()
+    }
+  }
+}
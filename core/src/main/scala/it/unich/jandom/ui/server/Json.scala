@@ -0,0 +1,75 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.server
+
+import scala.util.parsing.combinator.JavaTokenParsers
+
+import org.apache.commons.text.StringEscapeUtils
+
+/**
+ * A minimal JSON reader and writer for the messages exchanged with external tools. JSON values
+ * are represented by Scala values: objects by `Map[String, Any]`, arrays by `Seq[Any]`, numbers
+ * by `BigDecimal`, strings by `String`, booleans by `Boolean` and `null` by `null`. When writing,
+ * all the integral and floating point types are accepted as numbers.
+ */
+object Json extends JavaTokenParsers {
+
+  private val string: Parser[String] = stringLiteral ^^ { s => StringEscapeUtils.unescapeJson(s.substring(1, s.length - 1)) }
+
+  private lazy val value: Parser[Any] =
+    obj |
+      array |
+      string |
+      floatingPointNumber ^^ { BigDecimal(_) } |
+      "true" ^^ { _ => true } |
+      "false" ^^ { _ => false } |
+      "null" ^^ { _ => null }
+
+  private lazy val obj: Parser[Map[String, Any]] =
+    "{" ~> repsep((string <~ ":") ~ value ^^ { case k ~ v => k -> v }, ",") <~ "}" ^^ { _.toMap }
+
+  private lazy val array: Parser[Seq[Any]] = "[" ~> repsep(value, ",") <~ "]"
+
+  /**
+   * Parses the JSON text `s`.
+   * @throws IllegalArgumentException if `s` is not a valid JSON text.
+   */
+  def parse(s: String): Any = parseAll(value, s) match {
+    case Success(v, _) => v
+    case failure: NoSuccess => throw new IllegalArgumentException(s"Invalid JSON: ${failure.msg}")
+  }
+
+  /**
+   * Returns the JSON representation of `v`, on a single line.
+   */
+  def write(v: Any): String = v match {
+    case null | None => "null"
+    case Some(x) => write(x)
+    case s: String => "\"" + StringEscapeUtils.escapeJson(s) + "\""
+    case b: Boolean => b.toString
+    case n: Int => n.toString
+    case n: Long => n.toString
+    case n: Double => if (n.isNaN || n.isInfinity) "null" else n.toString
+    case n: BigDecimal => n.toString
+    case m: collection.Map[_, _] =>
+      m.map { case (k, x) => write(k.toString) + ":" + write(x) }.mkString("{", ",", "}")
+    case xs: Iterable[_] => xs.map(write).mkString("[", ",", "]")
+    case x => write(x.toString)
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import java.util.concurrent.{CountDownLatch, ForkJoinPool}
+import java.util.concurrent.atomic.{AtomicInteger, AtomicReference}
+
+import scala.collection.mutable
+
+/**
+ * Solves the components of a directed acyclic graph, such as the condensation of the graph
+ * of an LTS or of a call graph, each one after all the components it depends on. Components
+ * whose dependencies are solved may be solved in parallel.
+ *
+ * @param dependents for each component, the components which depend on it
+ * @param concurrent if true, components are solved in `ComponentScheduler.pool`, otherwise
+ *                   they are solved on the calling thread
+ */
+class ComponentScheduler(dependents: IndexedSeq[Seq[Int]], concurrent: Boolean) {
+  private val pending = dependents map { _ => new AtomicInteger(0) }
+  for (ds <- dependents; d <- ds) pending(d).incrementAndGet()
+  private val done = new CountDownLatch(dependents.size)
+  private val failure = new AtomicReference[Throwable]()
+  private val ready = mutable.Queue[Int]()
+
+  /**
+   * Returns true if solving some component has failed. Long computations should check it and
+   * stop early, for instance throwing a `CancellationException`.
+   */
+  def cancelled: Boolean = failure.get != null
+
+  /**
+   * Solves all the components with `solve`, and waits for their completion. After a failure,
+   * components are not solved anymore and the first exception is thrown by `run`. A scheduler
+   * may only be run once.
+   */
+  def run(solve: Int => Unit): Unit = {
+    def runComponent(c: Int): Unit = {
+      try {
+        if (!cancelled) solve(c)
+      } catch {
+        case e: Throwable => failure.compareAndSet(null, e)
+      }
+      for (d <- dependents(c); if pending(d).decrementAndGet() == 0) schedule(d)
+      done.countDown()
+    }
+
+    def schedule(c: Int): Unit =
+      if (concurrent) ComponentScheduler.pool.execute((() => runComponent(c)): Runnable) else ready.enqueue(c)
+
+    for (c <- dependents.indices; if pending(c).get == 0) schedule(c)
+    while (ready.nonEmpty) runComponent(ready.dequeue())
+    try
+      // the caller may itself be a worker of a fork-join pool, which is compensated while blocked
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker {
+        def block(): Boolean = {
+          done.await()
+          true
+        }
+
+        def isReleasable: Boolean = done.getCount == 0
+      })
+    catch {
+      case e: InterruptedException =>
+        failure.compareAndSet(null, e)
+        throw e
+    }
+    failure.get match {
+      case null =>
+      case e => throw e
+    }
+  }
+}
+
+object ComponentScheduler {
+  /**
+   * The pool where components are solved concurrently. It is distinct from the common pool, which
+   * is used by the parallel closure of octagons and may be used by the callers of the analyzers.
+   */
+  private lazy val pool = new ForkJoinPool(Runtime.getRuntime.availableProcessors)
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import scala.collection.mutable
+
+/**
+ * Utilities for the strongly connected components of graphs, such as the graph of the
+ * locations of an LTS or a call graph.
+ */
+object Components {
+
+  /**
+   * Returns the strongly connected components of the graph whose nodes are `nodes` and whose edges
+   * are given by `succs`, computed with Tarjan's algorithm. Components are returned in reverse
+   * topological order, i.e., each component comes after all the components it reaches. Successors
+   * which are not in `nodes` are visited too. The visit uses an explicit stack, hence deep graphs
+   * do not overflow the stack of the thread.
+   */
+  def sccs[N](nodes: Iterable[N], succs: N => Iterable[N]): IndexedSeq[Seq[N]] = {
+    val index = mutable.HashMap[N, Int]()
+    val lowlink = mutable.HashMap[N, Int]()
+    val onStack = mutable.HashSet[N]()
+    var stack = List.empty[N]
+    val components = mutable.ArrayBuffer.empty[Seq[N]]
+    // the nodes being visited, with the iterators on their successors which are still to be visited
+    val visiting = mutable.Stack[(N, Iterator[N])]()
+
+    def enter(v: N): Unit = {
+      index(v) = index.size
+      lowlink(v) = index(v)
+      stack = v :: stack
+      onStack += v
+      visiting.push((v, succs(v).iterator))
+    }
+
+    for (root <- nodes; if !(index contains root)) {
+      enter(root)
+      while (visiting.nonEmpty) {
+        val (v, it) = visiting.top
+        if (it.hasNext) {
+          val w = it.next()
+          if (!(index contains w))
+            enter(w)
+          else if (onStack(w))
+            lowlink(v) = lowlink(v) min index(w)
+        } else {
+          visiting.pop()
+          if (lowlink(v) == index(v)) {
+            val (component, rest) = stack.span(_ != v)
+            stack = rest.tail
+            val members = v +: component
+            onStack --= members
+            components += members
+          }
+          if (visiting.nonEmpty) {
+            val u = visiting.top._1
+            lowlink(u) = lowlink(u) min lowlink(v)
+          }
+        }
+      }
+    }
+    components.toIndexedSeq
+  }
+}
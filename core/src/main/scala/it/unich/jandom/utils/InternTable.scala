@@ -0,0 +1,54 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import java.lang.ref.WeakReference
+
+/**
+ * A table for hash-consing immutable objects: `intern` returns a canonical representative
+ * for each class of equal objects. The table only keeps weak references, hence a representative
+ * is discarded by the garbage collector when it is not used anywhere else. All the operations
+ * are synchronized.
+ *
+ * Objects should have a hash code consistent with `equals`, otherwise equal objects are not
+ * shared, although `intern` still returns an object equal to its argument.
+ */
+class InternTable[T <: AnyRef] {
+  private val table = new java.util.WeakHashMap[T, WeakReference[T]]
+
+  /**
+   * Returns an object equal to `x`. If the table already contains an object equal to `x`, it is
+   * returned, otherwise `x` becomes the representative of its class.
+   */
+  def intern(x: T): T = table.synchronized {
+    val ref = table.get(x)
+    val canonical = if (ref == null) null.asInstanceOf[T] else ref.get
+    if (canonical != null)
+      canonical
+    else {
+      table.put(x, new WeakReference(x))
+      x
+    }
+  }
+
+  /**
+   * The number of representatives in the table.
+   */
+  def size: Int = table.synchronized { table.size }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+/**
+ * A bounded memoization table. When it is full, the least recently used entry is
+ * discarded. All the operations are synchronized, hence the same cache may be used
+ * by concurrent analyses. Values are computed outside of the lock, so two threads
+ * may compute the same value at the same time.
+ *
+ * @param maxSize the maximum number of entries kept in the cache
+ */
+class MemoCache[K, V](val maxSize: Int) {
+  require(maxSize > 0, "the size of the cache should be positive")
+
+  private val map = new java.util.LinkedHashMap[K, V](16, 0.75f, true) {
+    override def removeEldestEntry(eldest: java.util.Map.Entry[K, V]): Boolean = size > maxSize
+  }
+
+  private var _hits = 0L
+  private var _misses = 0L
+
+  /**
+   * Returns the value associated to `key`, computing it with `value` and storing
+   * it in the cache if it is not present.
+   */
+  def getOrElseUpdate(key: K, value: => V): V = {
+    val cached = map.synchronized {
+      val v = map.get(key)
+      if (v == null) _misses += 1 else _hits += 1
+      v
+    }
+    if (cached != null)
+      cached
+    else {
+      val v = value
+      map.synchronized { map.put(key, v) }
+      v
+    }
+  }
+
+  /**
+   * The number of entries currently in the cache.
+   */
+  def size: Int = map.synchronized { map.size }
+
+  /**
+   * The number of lookups which found the value in the cache.
+   */
+  def hits: Long = map.synchronized { _hits }
+
+  /**
+   * The number of lookups which had to compute the value.
+   */
+  def misses: Long = map.synchronized { _misses }
+
+  /**
+   * Removes all the entries from the cache.
+   */
+  def clear(): Unit = map.synchronized { map.clear() }
+}
@@ -39,10 +39,49 @@ case class DBMDim(private val n : Int) {
   require(n % 2 == 0)
   def grid : Seq[Seq[DBMIdx]] = (1 to n).map(i => (1 to n).map(j => DBMIdx(i,j)))
   def allIdxs : Seq[DBMIdx] = grid.flatten
+
+  /**
+    * Returns whether `p(i, j)` holds for all the indices of the matrix,
+    * without allocating DBMIdx objects. Indices start from 1.
+    */
+  def forallIdx(p : (Int, Int) => Boolean) : Boolean = {
+    var i = 1
+    var res = true
+    while (res && i <= n) {
+      var j = 1
+      while (res && j <= n) {
+        res = p(i, j)
+        j += 1
+      }
+      i += 1
+    }
+    res
+  }
   def diagonalIdxs : Seq[DBMIdx] = (1 to n).map(i => DBMIdx(i,i))
   def dbmDimToInt : Int = n
 }
 
+/**
+  * Index arithmetic for the half-matrix representation of coherent
+  * DBMs (Mine' 2006 p. 10). Since m(i,j) == m(bar j, bar i), only the
+  * elements with j <= (i | 1) are stored, row by row, in a single
+  * array of 2n^2 + 2n elements. Indices start from 0, so that bar(i)
+  * is i ^ 1.
+  */
+object HalfMatrix {
+  /**
+    * The number of elements stored for a DBM with `n2` rows.
+    */
+  def size(n2 : Int) : Int = n2 * n2 / 2 + n2
+
+  /**
+    * The position of the element (i, j), or of its coherent twin, in the array.
+    */
+  @inline def index(i : Int, j : Int) : Int =
+    if (j <= (i | 1)) j + (i + 1) * (i + 1) / 2
+    else (i ^ 1) + ((j ^ 1) + 1) * ((j ^ 1) + 1) / 2
+}
+
 //////////////////////
 // DBM
 //////////////////////
@@ -79,6 +118,12 @@ trait DBM[N <: IField[N]] {
 
   def apply(i : DBMIdx) : N
 
+  /**
+    * Returns the element at row `i` and column `j`, starting from 1.
+    * Implementations should override it to avoid allocating a DBMIdx.
+    */
+  def apply(i : Int, j : Int) : N = apply(DBMIdx(i, j))
+
   def all : Seq[(DBMIdx, N)]
 
   def map[A](f : N => A) : Seq[A]
@@ -99,7 +144,7 @@ trait DBM[N <: IField[N]] {
       case that: DBM[N @unchecked] => {
         if (that.dimension == this.dimension)
           if (that.isClosed == this.isClosed)
-            (dimension.allIdxs.forall(idx => that(idx) == this(idx)))
+            dimension.forallIdx((i, j) => that(i, j) == this(i, j))
           else
             false
           else
@@ -108,7 +153,18 @@ trait DBM[N <: IField[N]] {
       case _ => false
     }
 
-  override def hashCode : Int = ???
+  /**
+    * Only depends on the elements of the lower half-matrix (see
+    * `HalfMatrix`), hence it is consistent with `equals` also between
+    * different representations of coherent DBMs. Since DBMs are
+    * immutable, it is computed once.
+    */
+  override lazy val hashCode : Int = {
+    val n2 = dimension.dbmDimToInt
+    var h = n2
+    for (i <- 0 until n2; j <- 0 to (i | 1)) h = 31 * h + this(i + 1, j + 1).hashCode
+    h
+  }
 }
 
 
@@ -131,9 +187,9 @@ trait ClosedDBM[N <: IField[N]] extends DBM[N] with PartiallyOrdered[ClosedDBM[N
     other match {
       case that : ClosedDBM[N @unchecked] => {
         require(that.dimension == this.dimension)
-        if (dimension.allIdxs.forall(idx => that(idx) == this(idx))) Some(0)
-        else if (dimension.allIdxs.forall(idx => this(idx) <= that(idx))) Some(-1) // We have tighter bounds
-        else if (dimension.allIdxs.forall(idx => this(idx) >= that(idx))) Some(1) // They have tighter bounds
+        if (dimension.forallIdx((i, j) => that(i, j) == this(i, j))) Some(0)
+        else if (dimension.forallIdx((i, j) => this(i, j) <= that(i, j))) Some(-1) // We have tighter bounds
+        else if (dimension.forallIdx((i, j) => this(i, j) >= that(i, j))) Some(1) // They have tighter bounds
         else None
       }
       // We can't say anything until we close
@@ -192,7 +248,7 @@ case class ArrayDBM[N <: IField[N]]
 
   def length = a.length
 
-  override def isTop = dimension.allIdxs.forall(idx => idx.diagonal | a.apply(idx.i - 1).apply(idx.j - 1) == ifield.PositiveInfinity)
+  override def isTop = dimension.forallIdx((i, j) => i == j | a(i - 1)(j - 1) == ifield.PositiveInfinity)
 
   /**
     * O(1)
@@ -204,9 +260,7 @@ case class ArrayDBM[N <: IField[N]]
     */
   override def combine(f: (N, N) => N)(that: DBM[N]): DBM[N] = {
     new ArrayDBM(dimension,
-      dimension.grid.map(_.map(idx =>
-        f(this(idx), that(idx))
-      ).toArray).toArray)
+      Array.tabulate(length, length)((i, j) => f(a(i)(j), that(i + 1, j + 1))))
   }
 
   /**
@@ -214,6 +268,8 @@ case class ArrayDBM[N <: IField[N]]
     */
   def apply(idx : DBMIdx) : N = a.apply(idx.i - 1).apply(idx.j - 1)
 
+  override def apply(i : Int, j : Int) : N = a(i - 1)(j - 1)
+
   def all: Seq[(DBMIdx, N)] = dimension.allIdxs.map(idx => (idx, this(idx)))
 
   /**
@@ -225,6 +281,4 @@ case class ArrayDBM[N <: IField[N]]
   override def canEqual(a: Any) = super[DBM].canEqual(a)
 
   override def equals(that: Any): Boolean = super[DBM].equals(that)
-
-  override def hashCode: Int = ??? // TODO
 }
@@ -58,7 +58,14 @@ class MineFloydWarshall[N <: IField[N]](implicit ifield: StaticIField[N], val d
     )
 
 
-  def strongClosure (m: DBM[N]): Option[ClosedDBM[N]] = {
+  def strongClosure (m: DBM[N]): Option[ClosedDBM[N]] = m match {
+    // Array backed DBMs are closed in place, without going through updated
+    case m : DoubleDBM[N @unchecked] => m.strongClosure
+    case m : HalfArrayDBM[N @unchecked] => m.strongClosure
+    case _ => genericStrongClosure(m)
+  }
+
+  private def genericStrongClosure (m: DBM[N]): Option[ClosedDBM[N]] = {
     val n2 = m.dimension.dbmDimToInt
     val n = n2 / 2
 
@@ -141,7 +148,13 @@ class IncrementalMineFloydWarshall[N <: IField[N]] (implicit ifield: StaticIFiel
       d.fromFun(n,f)
     )
 
-  def incrementalClosure (j0 : Var)(m: DBM[N]): Option[ClosedDBM[N]] = {
+  def incrementalClosure (j0 : Var)(m: DBM[N]): Option[ClosedDBM[N]] = m match {
+    case m : DoubleDBM[N @unchecked] => m.incrementalClosure(j0.i)
+    case m : HalfArrayDBM[N @unchecked] => m.incrementalClosure(j0.i)
+    case _ => genericIncrementalClosure(j0)(m)
+  }
+
+  private def genericIncrementalClosure (j0 : Var)(m: DBM[N]): Option[ClosedDBM[N]] = {
     val n2 = m.dimension.dbmDimToInt
     val n = n2 / 2
 
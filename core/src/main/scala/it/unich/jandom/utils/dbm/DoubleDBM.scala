@@ -0,0 +1,390 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.utils.dbm
+import it.unich.jandom.utils.numberext.DoubleExt
+import it.unich.jandom.utils.numberext.IField
+import it.unich.jandom.utils.numberext.RationalExt
+import it.unich.jandom.utils.numberext.StaticIField
+
+/**
+  * Conversion between the elements of an IField and primitive
+  * doubles. All the entries of a DBM are upper bounds, hence values
+  * which are not exactly representable are rounded towards +oo: this
+  * keeps every DBM sound, at the price of some precision.
+  */
+trait DoubleCodec[N] {
+  /**
+    * Returns the smallest double which is greater or equal than `n`.
+    */
+  def encode(n : N) : Double
+
+  /**
+    * Returns the element of N corresponding to `d`.
+    */
+  def decode(d : Double) : N
+
+  /**
+    * Returns the hash code of the element of N corresponding to `d`.
+    */
+  def hash(d : Double) : Int = decode(d).hashCode
+}
+
+object DoubleCodec {
+  implicit object RationalExtCodec extends DoubleCodec[RationalExt] {
+    def encode(n : RationalExt) : Double =
+      if (n.isPosInfinity)
+        Double.PositiveInfinity
+      else if (n.isNegInfinity)
+        Double.NegativeInfinity
+      else
+        DoubleExt.rational_hi(n.value)
+
+    def decode(d : Double) : RationalExt = RationalExt(d)
+  }
+
+  implicit object DoubleExtCodec extends DoubleCodec[DoubleExt] {
+    def encode(n : DoubleExt) : Double = n.value
+
+    def decode(d : Double) : DoubleExt = DoubleExt(d)
+
+    override def hash(d : Double) : Int = if (d == 0) 0 else java.lang.Double.hashCode(d)
+  }
+}
+
+/**
+  * A coherent DBM stored as a single contiguous array of doubles in
+  * the half-matrix layout of `HalfMatrix`, with +oo encoded as
+  * `Double.PositiveInfinity`.
+  *
+  * Instances are never modified after construction. The closures in
+  * `DoubleDBMClosure` work on a private copy of the array, so the
+  * matrix is copied once per closure instead of once per cell.
+  */
+class DoubleDBM[N <: IField[N]]
+  (val dimension : DBMDim, private[dbm] val a : Array[Double])
+  (implicit val ifield : StaticIField[N], val codec : DoubleCodec[N]) extends DBM[N] {
+
+  private val n2 = dimension.dbmDimToInt
+
+  require(a.length == HalfMatrix.size(n2))
+
+  @inline private def offset(idx : DBMIdx) = HalfMatrix.index(idx.i - 1, idx.j - 1)
+
+  /**
+    * O(n^2)
+    */
+  override def isTop : Boolean = {
+    var i = 0
+    var top = true
+    while (top && i < n2) {
+      var j = 0
+      while (top && j <= (i | 1)) {
+        if (i != j && a(HalfMatrix.index(i, j)) != Double.PositiveInfinity) top = false
+        j += 1
+      }
+      i += 1
+    }
+    top
+  }
+
+  /**
+    * O(n^2), it should only be used by clients which do not know about
+    * this implementation. Since the DBM is coherent, the coherent twin
+    * of `idx` is updated too.
+    */
+  def updated(idx : DBMIdx)(n : N) : DBM[N] = {
+    val b = a.clone()
+    b(offset(idx)) = codec.encode(n)
+    new DoubleDBM(dimension, b)
+  }
+
+  def apply(idx : DBMIdx) : N = codec.decode(a(offset(idx)))
+
+  override def apply(i : Int, j : Int) : N = codec.decode(a(HalfMatrix.index(i - 1, j - 1)))
+
+  /**
+    * O(n^2). When `f` is `min` or `max` and `that` is a DoubleDBM, use
+    * `intersection` or `union`, which never leave the primitive array.
+    */
+  def combine(f : (N, N) => N)(that : DBM[N]) : DBM[N] = {
+    val b = new Array[Double](a.length)
+    that match {
+      case that : DoubleDBM[N @unchecked] =>
+        for (k <- b.indices) b(k) = codec.encode(f(codec.decode(a(k)), codec.decode(that.a(k))))
+      case _ =>
+        for (i <- 0 until n2; j <- 0 to (i | 1)) {
+          val k = HalfMatrix.index(i, j)
+          b(k) = codec.encode(f(codec.decode(a(k)), that(i + 1, j + 1)))
+        }
+    }
+    new DoubleDBM(dimension, b)
+  }
+
+  override def intersection(that : DBM[N]) : DBM[N] = that match {
+    case that : DoubleDBM[N @unchecked] =>
+      require(that.dimension == dimension)
+      val b = new Array[Double](a.length)
+      for (k <- b.indices) b(k) = math.min(a(k), that.a(k))
+      new DoubleDBM(dimension, b)
+    case _ => super.intersection(that)
+  }
+
+  /**
+    * Runs the in-place closure `close` on a copy of the underlying
+    * array. Returns the result, or None if `close` finds it empty.
+    */
+  private[dbm] def closedWith(close : Array[Double] => Boolean) : Option[ClosedDBM[N]] = {
+    val b = a.clone()
+    if (close(b)) Some(new ClosedDoubleDBM(dimension, b)) else None
+  }
+
+  /**
+    * The strong closure of this DBM, or None if it is empty.
+    */
+  def strongClosure : Option[ClosedDBM[N]] = closedWith(DoubleDBMClosure.strongClosure(_, n2))
+
+  /**
+    * The incremental strong closure of this DBM w.r.t. the variable
+    * `j0`, or None if it is empty.
+    */
+  def incrementalClosure(j0 : Int) : Option[ClosedDBM[N]] = closedWith(DoubleDBMClosure.incrementalClosure(_, n2, 2 * (j0 - 1)))
+
+  def all : Seq[(DBMIdx, N)] = dimension.allIdxs.map(idx => (idx, this(idx)))
+
+  def map[A](f : N => A) : Seq[A] = a.toSeq.map(x => f(codec.decode(x)))
+
+  override def equals(that : Any) : Boolean = that match {
+    case that : DoubleDBM[N @unchecked] =>
+      // We do not use java.util.Arrays.equals since it distinguishes 0.0 from -0.0
+      that.dimension == dimension && that.isClosed == isClosed && {
+        var k = 0
+        while (k < a.length && a(k) == that.a(k)) k += 1
+        k == a.length
+      }
+    case _ => super.equals(that)
+  }
+
+  /**
+    * The same of `DBM.hashCode`, computed on the underlying array.
+    */
+  override lazy val hashCode : Int = {
+    var h = n2
+    for (x <- a) h = 31 * h + codec.hash(x)
+    h
+  }
+}
+
+/**
+  * A strongly closed DoubleDBM. Union and comparison are performed
+  * directly on the underlying arrays.
+  */
+class ClosedDoubleDBM[N <: IField[N]]
+  (dim : DBMDim, arr : Array[Double])
+  (implicit ifd : StaticIField[N], cdc : DoubleCodec[N])
+    extends DoubleDBM[N](dim, arr)(ifd, cdc) with ClosedDBM[N] {
+
+  override def union(that : ClosedDBM[N]) : DBM[N] = that match {
+    case that : DoubleDBM[N @unchecked] =>
+      require(that.dimension == dimension)
+      val b = new Array[Double](a.length)
+      for (k <- b.indices) b(k) = math.max(a(k), that.a(k))
+      new DoubleDBM(dimension, b)
+    case _ => super.union(that)
+  }
+
+  override def tryCompareTo[B >: ClosedDBM[N]](other : B)(implicit arg0: (B) => PartiallyOrdered[B]) : Option[Int] =
+    other match {
+      case that : DoubleDBM[N @unchecked] =>
+        require(that.dimension == this.dimension)
+        var le = true
+        var ge = true
+        var k = 0
+        while ((le || ge) && k < a.length) {
+          if (a(k) > that.a(k)) le = false
+          if (a(k) < that.a(k)) ge = false
+          k += 1
+        }
+        if (le && ge) Some(0)
+        else if (le) Some(-1) // We have tighter bounds
+        else if (ge) Some(1) // They have tighter bounds
+        else None
+      case _ => super.tryCompareTo(other)
+    }
+}
+
+/**
+  * A DBMFactory for DoubleDBMs. Octagons built on this factory are
+  * closed by `DoubleDBMClosure`, which works in place on a primitive
+  * array.
+  */
+class DoubleDBMFactory[N <: IField[N]](implicit override val ifield : StaticIField[N], val codec : DoubleCodec[N]) extends DBMFactory[N] {
+
+  override def top(d : DBMDim) : ClosedDBM[N] = {
+    val n2 = d.dbmDimToInt
+    val a = Array.fill(HalfMatrix.size(n2))(Double.PositiveInfinity)
+    for (i <- 0 until n2) a(HalfMatrix.index(i, i)) = 0
+    new ClosedDoubleDBM(d, a)
+  }
+
+  /**
+    * Builds a DBM from a coherent function. Only the elements in the
+    * half-matrix are evaluated.
+    */
+  def fromFun(d : DBMDim, f : DBMIdx => N) : DoubleDBM[N] = {
+    val n2 = d.dbmDimToInt
+    val a = new Array[Double](HalfMatrix.size(n2))
+    for (i <- 0 until n2; j <- 0 to (i | 1)) a(HalfMatrix.index(i, j)) = codec.encode(f(DBMIdx(i + 1, j + 1)))
+    new DoubleDBM(d, a)
+  }
+
+  protected[dbm] def markAsClosed(d : DBM[N]) : ClosedDBM[N] = {
+    d match {
+      case closed : ClosedDoubleDBM[N] => closed
+      case ddbm : DoubleDBM[N] => new ClosedDoubleDBM(ddbm.dimension, ddbm.a)
+      case dbm : DBM[N] => markAsClosed(fromFun(dbm.dimension, dbm(_)))
+    }
+  }
+}
+
+/**
+  * Mine's strong and incremental closure (Mine' 2006 fig. 9 p. 20)
+  * on a primitive half-matrix (see `HalfMatrix`). Both methods operate
+  * in place and return false when the DBM turns out to be empty.
+  * Indices are 0-based, so the positive and negative forms of the k-th
+  * variable are 2k and 2k + 1, and bar(i) is i ^ 1. Only the elements
+  * of the half-matrix are updated, since the others are their coherent
+  * twins.
+  *
+  * Sums are rounded towards +oo, so the result is sound w.r.t. real
+  * arithmetic.
+  */
+object DoubleDBMClosure {
+  import DoubleExt.add_hi
+  import DoubleExt.half_hi
+  import HalfMatrix.index
+
+  @inline private[dbm] def relax(m : Array[Double], p : Int, i : Int, j : Int) : Unit = {
+    val q = p + 1
+    val ip = m(index(i, p))
+    val iq = m(index(i, q))
+    val pj = m(index(p, j))
+    val qj = m(index(q, j))
+    val k = index(i, j)
+    var v = m(k)
+    v = math.min(v, add_hi(ip, pj))
+    v = math.min(v, add_hi(iq, qj))
+    v = math.min(v, add_hi(add_hi(ip, m(index(p, q))), qj))
+    v = math.min(v, add_hi(add_hi(iq, m(index(q, p))), pj))
+    m(k) = v
+  }
+
+  @inline private[dbm] def strengthen(m : Array[Double], i : Int, j : Int) : Unit = {
+    val v = half_hi(add_hi(m(index(i, i ^ 1)), m(index(j ^ 1, j))))
+    val k = index(i, j)
+    if (v < m(k)) m(k) = v
+  }
+
+  private def closeStep(m : Array[Double], n2 : Int, p : Int) : Unit = {
+    val q = p + 1
+    var i = 0
+    while (i < n2) {
+      // Rows which cannot reach the pivot are not modified
+      if (m(index(i, p)) != Double.PositiveInfinity || m(index(i, q)) != Double.PositiveInfinity) {
+        var j = 0
+        while (j <= (i | 1)) {
+          relax(m, p, i, j)
+          j += 1
+        }
+      }
+      i += 1
+    }
+  }
+
+  private def strengtheningStep(m : Array[Double], n2 : Int) : Unit = {
+    var i = 0
+    while (i < n2) {
+      if (m(index(i, i ^ 1)) != Double.PositiveInfinity) {
+        var j = 0
+        while (j <= (i | 1)) {
+          strengthen(m, i, j)
+          j += 1
+        }
+      }
+      i += 1
+    }
+  }
+
+  private[dbm] def emptinessCheck(m : Array[Double], n2 : Int) : Boolean = {
+    var i = 0
+    while (i < n2) {
+      val k = index(i, i)
+      if (m(k) < 0) return false
+      m(k) = 0
+      i += 1
+    }
+    true
+  }
+
+  /**
+    * Strong closure, O(n^3) time and no allocation.
+    */
+  def strongClosure(m : Array[Double], n2 : Int) : Boolean = {
+    var p = 0
+    while (p < n2) {
+      closeStep(m, n2, p)
+      strengtheningStep(m, n2)
+      p += 2
+    }
+    emptinessCheck(m, n2)
+  }
+
+  /**
+    * Incremental strong closure w.r.t. the variable whose positive form
+    * is at 0-based index `p0`, assuming the rest of the matrix is
+    * strongly closed. Follows `IncrementalMineFloydWarshall`: all the
+    * pivots but `p0` only update the rows and columns of the changed
+    * variable, then the pivot `p0` updates the whole matrix. By
+    * coherence, the columns p0 and q0 are the twins of the rows q0 and
+    * p0, hence only the latter are visited.
+    */
+  def incrementalClosure(m : Array[Double], n2 : Int, p0 : Int) : Boolean = {
+    val q0 = p0 + 1
+    var p = 0
+    while (p < n2) {
+      if (p != p0) {
+        var j = 0
+        while (j < n2) {
+          relax(m, p, p0, j)
+          relax(m, p, q0, j)
+          j += 1
+        }
+        j = 0
+        while (j < n2) {
+          strengthen(m, p0, j)
+          strengthen(m, q0, j)
+          j += 1
+        }
+      }
+      p += 2
+    }
+    closeStep(m, n2, p0)
+    strengtheningStep(m, n2)
+    emptinessCheck(m, n2)
+  }
+}
@@ -0,0 +1,268 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.utils.dbm
+import it.unich.jandom.utils.numberext.IField
+import it.unich.jandom.utils.numberext.StaticIField
+import scala.reflect.ClassTag
+
+/**
+  * A coherent DBM stored in the half-matrix layout of `HalfMatrix`.
+  * It stores half of the elements of an `ArrayDBM`, and `combine`,
+  * hence union, intersection, widening and narrowing, only visit
+  * them. Octagons only build coherent DBMs (Mine' 2006 p. 9), so this
+  * representation is not restrictive for them.
+  *
+  * Instances are never modified after construction.
+  */
+class HalfArrayDBM[N <: IField[N]]
+  (val dimension : DBMDim, private[dbm] val a : Array[N])
+  (implicit val ctag : ClassTag[N], val ifield : StaticIField[N]) extends DBM[N] {
+
+  private val n2 = dimension.dbmDimToInt
+
+  require(a.length == HalfMatrix.size(n2))
+
+  /**
+    * O(n^2)
+    */
+  override def isTop : Boolean = {
+    var i = 0
+    var top = true
+    while (top && i < n2) {
+      var j = 0
+      while (top && j <= (i | 1)) {
+        if (i != j && !a(HalfMatrix.index(i, j)).isPosInfinity) top = false
+        j += 1
+      }
+      i += 1
+    }
+    top
+  }
+
+  /**
+    * O(n^2). Since the DBM is coherent, the coherent twin of `idx` is
+    * updated too.
+    */
+  def updated(idx : DBMIdx)(n : N) : DBM[N] = {
+    val b = a.clone()
+    b(HalfMatrix.index(idx.i - 1, idx.j - 1)) = n
+    new HalfArrayDBM(dimension, b)
+  }
+
+  def apply(idx : DBMIdx) : N = a(HalfMatrix.index(idx.i - 1, idx.j - 1))
+
+  override def apply(i : Int, j : Int) : N = a(HalfMatrix.index(i - 1, j - 1))
+
+  /**
+    * O(n^2), visiting only the elements of the half-matrix.
+    */
+  def combine(f : (N, N) => N)(that : DBM[N]) : DBM[N] = {
+    val b = new Array[N](a.length)
+    that match {
+      case that : HalfArrayDBM[N @unchecked] =>
+        require(that.dimension == dimension)
+        for (k <- b.indices) b(k) = f(a(k), that.a(k))
+      case _ =>
+        for (i <- 0 until n2; j <- 0 to (i | 1)) {
+          val k = HalfMatrix.index(i, j)
+          b(k) = f(a(k), that(i + 1, j + 1))
+        }
+    }
+    new HalfArrayDBM(dimension, b)
+  }
+
+  /**
+    * Runs the in-place closure `close` on a copy of the underlying
+    * array. Returns the result, or None if `close` finds it empty.
+    */
+  private[dbm] def closedWith(close : Array[N] => Boolean) : Option[ClosedDBM[N]] = {
+    val b = a.clone()
+    if (close(b)) Some(new ClosedHalfArrayDBM(dimension, b)) else None
+  }
+
+  /**
+    * The strong closure of this DBM, or None if it is empty.
+    */
+  def strongClosure : Option[ClosedDBM[N]] = closedWith(HalfDBMClosure.strongClosure(_, n2))
+
+  /**
+    * The incremental strong closure of this DBM w.r.t. the variable
+    * `j0`, or None if it is empty.
+    */
+  def incrementalClosure(j0 : Int) : Option[ClosedDBM[N]] = closedWith(HalfDBMClosure.incrementalClosure(_, n2, 2 * (j0 - 1)))
+
+  def all : Seq[(DBMIdx, N)] = dimension.allIdxs.map(idx => (idx, this(idx)))
+
+  def map[A](f : N => A) : Seq[A] = dimension.allIdxs.map(idx => f(this(idx)))
+
+  /**
+    * The same of `DBM.hashCode`, computed on the underlying array.
+    */
+  override lazy val hashCode : Int = {
+    var h = n2
+    for (x <- a) h = 31 * h + x.hashCode
+    h
+  }
+
+  override def equals(that : Any) : Boolean = that match {
+    case that : HalfArrayDBM[N @unchecked] =>
+      that.dimension == dimension && that.isClosed == isClosed && {
+        var k = 0
+        while (k < a.length && a(k) == that.a(k)) k += 1
+        k == a.length
+      }
+    case _ => super.equals(that)
+  }
+}
+
+/**
+  * A strongly closed HalfArrayDBM. Comparison only visits the elements
+  * of the half-matrix.
+  */
+class ClosedHalfArrayDBM[N <: IField[N]]
+  (dim : DBMDim, arr : Array[N])
+  (implicit ct : ClassTag[N], ifd : StaticIField[N])
+    extends HalfArrayDBM[N](dim, arr)(ct, ifd) with ClosedDBM[N] {
+
+  override def tryCompareTo[B >: ClosedDBM[N]](other : B)(implicit arg0: (B) => PartiallyOrdered[B]) : Option[Int] =
+    other match {
+      case that : HalfArrayDBM[N @unchecked] =>
+        require(that.dimension == this.dimension)
+        var le = true
+        var ge = true
+        var k = 0
+        while ((le || ge) && k < a.length) {
+          val c = a(k) compare that.a(k)
+          if (c > 0) le = false
+          if (c < 0) ge = false
+          k += 1
+        }
+        if (le && ge) Some(0)
+        else if (le) Some(-1) // We have tighter bounds
+        else if (ge) Some(1) // They have tighter bounds
+        else None
+      case _ => super.tryCompareTo(other)
+    }
+}
+
+/**
+  * A DBMFactory for HalfArrayDBMs. DBMs built by this factory are
+  * closed in place by `HalfDBMClosure`.
+  */
+class HalfArrayDBMFactory[N <: IField[N]](implicit ctag : ClassTag[N], override val ifield : StaticIField[N]) extends DBMFactory[N] {
+
+  override def top(d : DBMDim) : ClosedDBM[N] = {
+    val n2 = d.dbmDimToInt
+    val a = Array.fill(HalfMatrix.size(n2))(ifield.PositiveInfinity)
+    for (i <- 0 until n2) a(HalfMatrix.index(i, i)) = ifield.zero
+    new ClosedHalfArrayDBM(d, a)
+  }
+
+  /**
+    * Builds a DBM from a coherent function. Only the elements in the
+    * half-matrix are evaluated.
+    */
+  def fromFun(d : DBMDim, f : DBMIdx => N) : HalfArrayDBM[N] = {
+    val n2 = d.dbmDimToInt
+    val a = new Array[N](HalfMatrix.size(n2))
+    for (i <- 0 until n2; j <- 0 to (i | 1)) a(HalfMatrix.index(i, j)) = f(DBMIdx(i + 1, j + 1))
+    new HalfArrayDBM(d, a)
+  }
+
+  protected[dbm] def markAsClosed(d : DBM[N]) : ClosedDBM[N] = {
+    d match {
+      case closed : ClosedHalfArrayDBM[N] => closed
+      case hdbm : HalfArrayDBM[N] => new ClosedHalfArrayDBM(hdbm.dimension, hdbm.a)
+      case dbm : DBM[N] => markAsClosed(fromFun(dbm.dimension, dbm(_)))
+    }
+  }
+}
+
+/**
+  * The same algorithms of `DoubleDBMClosure`, for half-matrices over a
+  * generic IField. They run in place on a copy of the matrix, so the
+  * closure allocates O(n^3) numbers instead of O(n^4) objects.
+  */
+object HalfDBMClosure {
+  import HalfMatrix.index
+
+  private[dbm] def relax[N <: IField[N]](m : Array[N], p : Int, i : Int, j : Int) : Unit = {
+    val q = p + 1
+    val ip = m(index(i, p))
+    val iq = m(index(i, q))
+    val pj = m(index(p, j))
+    val qj = m(index(q, j))
+    val k = index(i, j)
+    m(k) = m(k).min(ip + pj).min(iq + qj).min(ip + m(index(p, q)) + qj).min(iq + m(index(q, p)) + pj)
+  }
+
+  private[dbm] def strengthen[N <: IField[N]](m : Array[N], i : Int, j : Int) : Unit = {
+    val v = (m(index(i, i ^ 1)) + m(index(j ^ 1, j)))._div_2
+    val k = index(i, j)
+    if (v < m(k)) m(k) = v
+  }
+
+  private def closeStep[N <: IField[N]](m : Array[N], n2 : Int, p : Int) : Unit = {
+    val q = p + 1
+    for (i <- 0 until n2)
+      // Rows which cannot reach the pivot are not modified
+      if (!m(index(i, p)).isPosInfinity || !m(index(i, q)).isPosInfinity)
+        for (j <- 0 to (i | 1)) relax(m, p, i, j)
+  }
+
+  private def strengtheningStep[N <: IField[N]](m : Array[N], n2 : Int) : Unit = {
+    for (i <- 0 until n2)
+      if (!m(index(i, i ^ 1)).isPosInfinity)
+        for (j <- 0 to (i | 1)) strengthen(m, i, j)
+  }
+
+  private[dbm] def emptinessCheck[N <: IField[N]](m : Array[N], n2 : Int)(implicit ifield : StaticIField[N]) : Boolean = {
+    if ((0 until n2).exists(i => m(index(i, i)) < ifield.zero))
+      false
+    else {
+      for (i <- 0 until n2) m(index(i, i)) = ifield.zero
+      true
+    }
+  }
+
+  def strongClosure[N <: IField[N]](m : Array[N], n2 : Int)(implicit ifield : StaticIField[N]) : Boolean = {
+    for (p <- 0 until n2 by 2) {
+      closeStep(m, n2, p)
+      strengtheningStep(m, n2)
+    }
+    emptinessCheck(m, n2)
+  }
+
+  def incrementalClosure[N <: IField[N]](m : Array[N], n2 : Int, p0 : Int)(implicit ifield : StaticIField[N]) : Boolean = {
+    val q0 = p0 + 1
+    for (p <- 0 until n2 by 2; if p != p0) {
+      for (j <- 0 until n2) {
+        relax(m, p, p0, j)
+        relax(m, p, q0, j)
+      }
+      for (j <- 0 until n2) {
+        strengthen(m, p0, j)
+        strengthen(m, q0, j)
+      }
+    }
+    closeStep(m, n2, p0)
+    strengtheningStep(m, n2)
+    emptinessCheck(m, n2)
+  }
+}
@@ -0,0 +1,144 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.utils.dbm
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+import java.util.concurrent.RecursiveAction
+import it.unich.jandom.utils.numberext.IField
+import it.unich.jandom.utils.numberext.StaticIField
+
+/**
+  * A strong closure which, for DBMs with at least `threshold`
+  * variables, splits each step of the closure over the cores with a
+  * ForkJoinPool. It works on `DoubleDBM`s and `HalfArrayDBM`s: other
+  * DBMs, smaller DBMs and incremental closures are handled as in
+  * `IncrementalMineFloydWarshall`.
+  *
+  * @param threshold the minimum number of variables for the parallel closure.
+  * @param pool the pool where the closure runs.
+  */
+class ParallelMineFloydWarshall[N <: IField[N]]
+  (val threshold : Int = 200, pool : ForkJoinPool = ForkJoinPool.commonPool())
+  (implicit ifield : StaticIField[N], d : DBMFactory[N]) extends IncrementalMineFloydWarshall[N]()(ifield, d) {
+
+  override def strongClosure (m : DBM[N]) : Option[ClosedDBM[N]] = {
+    val n2 = m.dimension.dbmDimToInt
+    if (n2 < 2 * threshold)
+      super.strongClosure(m)
+    else m match {
+      case m : DoubleDBM[N @unchecked] =>
+        m.closedWith(a => ParallelDBMClosure.strongClosure(new DoubleKernel(a), n2, pool))
+      case m : HalfArrayDBM[N @unchecked] =>
+        m.closedWith(a => ParallelDBMClosure.strongClosure(new GenericKernel(a), n2, pool))
+      case _ => super.strongClosure(m)
+    }
+  }
+}
+
+/**
+  * The operations on the cells of a half-matrix which are needed by
+  * `ParallelDBMClosure`. Indices are 0-based, as in `DoubleDBMClosure`.
+  */
+private[dbm] trait HalfMatrixKernel {
+  def relax(p : Int, i : Int, j : Int) : Unit
+  def strengthen(i : Int, j : Int) : Unit
+  def isPosInfinity(i : Int, j : Int) : Boolean
+  def emptinessCheck(n2 : Int) : Boolean
+}
+
+private[dbm] class DoubleKernel(m : Array[Double]) extends HalfMatrixKernel {
+  def relax(p : Int, i : Int, j : Int) = DoubleDBMClosure.relax(m, p, i, j)
+  def strengthen(i : Int, j : Int) = DoubleDBMClosure.strengthen(m, i, j)
+  def isPosInfinity(i : Int, j : Int) = m(HalfMatrix.index(i, j)) == Double.PositiveInfinity
+  def emptinessCheck(n2 : Int) = DoubleDBMClosure.emptinessCheck(m, n2)
+}
+
+private[dbm] class GenericKernel[N <: IField[N]](m : Array[N])(implicit ifield : StaticIField[N]) extends HalfMatrixKernel {
+  def relax(p : Int, i : Int, j : Int) = HalfDBMClosure.relax(m, p, i, j)
+  def strengthen(i : Int, j : Int) = HalfDBMClosure.strengthen(m, i, j)
+  def isPosInfinity(i : Int, j : Int) = m(HalfMatrix.index(i, j)).isPosInfinity
+  def emptinessCheck(n2 : Int) = HalfDBMClosure.emptinessCheck(m, n2)
+}
+
+/**
+  * The strong closure of Mine' 2006 fig. 9, where the work of each step
+  * is split in tiles of rows which are processed in parallel.
+  *
+  * For each pivot pair (p, q), the rows p and q are relaxed first, and
+  * with them the columns q and p, which are their coherent twins. The
+  * other cells only depend on themselves and on the pivot rows and
+  * columns, hence the other rows may be relaxed concurrently, each
+  * tile writing only its own rows. The strengthening step is
+  * concurrent too, since it does not change the cells m(i, bar i) it
+  * reads.
+  */
+object ParallelDBMClosure {
+
+  private class RowsTask(from : Int, until : Int, grain : Int, f : Int => Unit) extends RecursiveAction {
+    protected def compute() : Unit =
+      if (until - from <= grain) {
+        var i = from
+        while (i < until) {
+          f(i)
+          i += 1
+        }
+      } else {
+        val mid = (from + until) >>> 1
+        ForkJoinTask.invokeAll(new RowsTask(from, mid, grain, f), new RowsTask(mid, until, grain, f))
+      }
+  }
+
+  private def onRows(n2 : Int, grain : Int, pool : ForkJoinPool)(f : Int => Unit) : Unit =
+    pool.invoke(new RowsTask(0, n2, grain, f))
+
+  def strongClosure(k : HalfMatrixKernel, n2 : Int, pool : ForkJoinPool) : Boolean = {
+    val grain = math.max(8, n2 / (4 * pool.getParallelism))
+    var p = 0
+    while (p < n2) {
+      val q = p + 1
+      var j = 0
+      while (j < n2) {
+        k.relax(p, p, j)
+        k.relax(p, q, j)
+        j += 1
+      }
+      onRows(n2, grain, pool) { i =>
+        // Rows which cannot reach the pivot are not modified
+        if (i != p && i != q && (!k.isPosInfinity(i, p) || !k.isPosInfinity(i, q))) {
+          var j = 0
+          while (j <= (i | 1)) {
+            if (j != p && j != q) k.relax(p, i, j)
+            j += 1
+          }
+        }
+      }
+      onRows(n2, grain, pool) { i =>
+        if (!k.isPosInfinity(i, i ^ 1)) {
+          var j = 0
+          while (j <= (i | 1)) {
+            k.strengthen(i, j)
+            j += 1
+          }
+        }
+      }
+      p += 2
+    }
+    k.emptinessCheck(n2)
+  }
+}
@@ -20,6 +20,7 @@ package it.unich.jandom.utils.numberext
 
 import spire.syntax.cfor._
 import spire.math.Rational
+import spire.math.SafeLong
 
 /**
   * A DenseMatrix is a matrix of rationals. It is implemented as a single array
@@ -197,6 +198,81 @@ final class DenseMatrix(val data: Array[Rational], val rows: Int) {
     new DenseVector(res.data)
   }
 
+  /**
+    * Returns the product of the transpose of `this` and the column vector `that`, without
+    * building the transpose.
+    */
+  def transposeTimes(that: DenseVector): DenseVector = {
+    require(rows == that.length, "Non-conformant matrices size")
+    val result = new Array[Rational](cols)
+    cfor(0)(_ < cols, _ + 1) { (j) =>
+      var sum = Rational.zero
+      cfor(0)(_ < rows, _ + 1) { (i) =>
+        val v = that(i)
+        if (!v.isZero) sum += this(i, j) * v
+      }
+      result(j) = sum
+    }
+    new DenseVector(result)
+  }
+
+  /**
+    * Returns the inverse of `this`. Each row is scaled to integer coefficients, and the
+    * resulting integer matrix is inverted with the fraction-free Gauss-Jordan elimination of
+    * Bareiss, so that no intermediate rational number is built and all the intermediate integers
+    * are minors of the original matrix. Only the final entries are divided by the determinant.
+    * @throws IllegalArgumentException if `this` is not square or is not invertible.
+    */
+  def inverse: DenseMatrix = {
+    require(rows == cols, "Non-square matrix")
+    val n = rows
+    val scale = Array.fill(n)(SafeLong.one)
+    val m = Array.ofDim[SafeLong](n, 2 * n)
+    cfor(0)(_ < n, _ + 1) { (i) =>
+      var d = SafeLong.one
+      cfor(0)(_ < n, _ + 1) { (j) =>
+        val den = this(i, j).denominator
+        if (den != SafeLong.one) d = d / (d gcd den) * den
+      }
+      scale(i) = d
+      cfor(0)(_ < n, _ + 1) { (j) =>
+        m(i)(j) = (this(i, j) * Rational(d)).numerator
+        m(i)(n + j) = if (i == j) SafeLong.one else SafeLong.zero
+      }
+    }
+    var prev = SafeLong.one
+    cfor(0)(_ < n, _ + 1) { (k) =>
+      val p = (k until n) find { p => !m(p)(k).isZero } getOrElse {
+        throw new IllegalArgumentException("Non invertible matrix")
+      }
+      val tmp = m(k)
+      m(k) = m(p)
+      m(p) = tmp
+      val mk = m(k)
+      val pivot = mk(k)
+      cfor(0)(_ < n, _ + 1) { (i) =>
+        if (i != k) {
+          val mi = m(i)
+          val f = mi(k)
+          cfor(0)(_ < 2 * n, _ + 1) { (j) =>
+            // the division is exact
+            if (j != k) mi(j) = (pivot * mi(j) - f * mk(j)) / prev
+          }
+          mi(k) = SafeLong.zero
+        }
+      }
+      prev = pivot
+    }
+    // now m is [ det * I | det * inverse of the scaled matrix ], up to the sign of det
+    val result = DenseMatrix.raw(n, n)
+    cfor(0)(_ < n, _ + 1) { (i) =>
+      cfor(0)(_ < n, _ + 1) { (j) =>
+        result(i, j) = Rational(m(i)(n + j) * scale(j), m(i)(i))
+      }
+    }
+    result
+  }
+
   /**
     * Returns the transpose of `this`.
     */
@@ -378,6 +454,34 @@ object DenseMatrix {
     }
   }
 
+  /**
+    * Given the inverse `inv` of a matrix `A`, returns the inverse of the matrix obtained from `A` by
+    * replacing the `i`-th row with `v`. Since the change is a rank-one update, it uses the
+    * Sherman-Morrison formula and it is quadratic in the dimension of the matrix.
+    * @return the new inverse, or `None` if the updated matrix is not invertible.
+    */
+  def rowUpdatedInverse(inv: DenseMatrix, i: Int, v: DenseVector): Option[DenseMatrix] = {
+    val z = inv.transposeTimes(v)
+    val d = z(i)
+    if (d.isZero)
+      None
+    else {
+      z(i) -= Rational.one
+      val col = inv.col(i)
+      val result = inv.copy
+      cfor(0)(_ < result.cols, _ + 1) { (k) =>
+        val zk = z(k)
+        if (!zk.isZero) {
+          val f = zk / d
+          cfor(0)(_ < result.rows, _ + 1) { (h) =>
+            if (!col(h).isZero) result(h, k) -= col(h) * f
+          }
+        }
+      }
+      Some(result)
+    }
+  }
+
   /**
     * An helper private method which implements Gaussian elimination.
     */
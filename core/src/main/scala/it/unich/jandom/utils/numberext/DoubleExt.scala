@@ -0,0 +1,142 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.utils.numberext
+
+import spire.math.Rational
+
+/**
+  * DoubleExt is a double used as an upper bound, for example as an entry of
+  * a DBM. All the arithmetic operations are rounded towards +∞, so that the
+  * result is an upper bound of the corresponding operation on reals.
+  * Comparisons, `min`, `max` and negation are exact.
+  * @param value the underlying double. It should not be NaN.
+  */
+final class DoubleExt(val value: Double) extends IField[DoubleExt] {
+
+  import DoubleExt._
+
+  def +(that: DoubleExt): DoubleExt = new DoubleExt(add_hi(value, that.value))
+
+  def -(that: DoubleExt): DoubleExt = new DoubleExt(add_hi(value, -that.value))
+
+  def /(that: DoubleExt): DoubleExt = new DoubleExt(div_hi(value, that.value))
+
+  def unary_- : DoubleExt = new DoubleExt(-value)
+
+  def min(that: DoubleExt): DoubleExt = if (value <= that.value) this else that
+
+  def max(that: DoubleExt): DoubleExt = if (value >= that.value) this else that
+
+  def _x_2: DoubleExt = {
+    val d = value * 2
+    // A negative overflow would not be an upper bound
+    new DoubleExt(if (d.isNegInfinity && !value.isNegInfinity) -Double.MaxValue else d)
+  }
+
+  def _div_2: DoubleExt = new DoubleExt(half_hi(value))
+
+  def isPosInfinity = value.isPosInfinity
+
+  def isNegInfinity = value.isNegInfinity
+
+  /**
+   * Returns true if the number is infinite.
+   */
+  def isInfinity = value.isInfinite
+
+  def compare(that: DoubleExt): Int = if (value < that.value) -1 else if (value > that.value) 1 else 0
+
+  def >(that: DoubleExt) = value > that.value
+
+  def >=(that: DoubleExt) = value >= that.value
+
+  def <(that: DoubleExt) = value < that.value
+
+  def <=(that: DoubleExt) = value <= that.value
+
+  override def equals(that: Any): Boolean = that match {
+    case that: DoubleExt => value == that.value
+    case _ => false
+  }
+
+  override def hashCode: Int = if (value == 0) 0 else java.lang.Double.hashCode(value)
+
+  override def toString = value.toString
+}
+
+object DoubleExt extends RationalIField[DoubleExt] {
+
+  val zero = new DoubleExt(0.0)
+
+  val PositiveInfinity = new DoubleExt(Double.PositiveInfinity)
+
+  val NegativeInfinity = new DoubleExt(Double.NegativeInfinity)
+
+  def apply(d: Double): DoubleExt = new DoubleExt(d)
+
+  def fromRationalUp(r: Rational): DoubleExt = new DoubleExt(rational_hi(r))
+
+  def fromRationalDown(r: Rational): DoubleExt = new DoubleExt(-rational_hi(-r))
+
+  def toRationalExt(f: DoubleExt): RationalExt = RationalExt(f.value)
+
+  /**
+   * Returns the smallest double which is greater or equal than `r`.
+   */
+  def rational_hi(r: Rational): Double = {
+    val d = r.doubleValue
+    if (d.isPosInfinity) d
+    else if (d.isNegInfinity) -Double.MaxValue
+    else if (Rational(d) < r) Math.nextUp(d)
+    else d
+  }
+
+  /**
+   * Returns the sum of `x` and `y`, rounded towards +∞. The rounding error is
+   * computed exactly with the 2Sum algorithm, so the result is only moved up
+   * when the sum is inexact.
+   */
+  @inline def add_hi(x: Double, y: Double): Double = {
+    val s = x + y
+    if (s.isInfinite || s.isNaN)
+      s
+    else {
+      val bb = s - x
+      val err = (x - (s - bb)) + (y - bb)
+      if (err > 0) Math.nextUp(s) else s
+    }
+  }
+
+  /**
+   * Returns `x / 2`, rounded towards +∞.
+   */
+  @inline def half_hi(x: Double): Double = {
+    val h = x * 0.5
+    if (h + h < x) Math.nextUp(h) else h
+  }
+
+  /**
+   * Returns `x / y`, rounded towards +∞. Like `mul_hi` in `BoxDoubleDomain`,
+   * the result is enlarged unless the division is trivially exact.
+   */
+  def div_hi(x: Double, y: Double): Double = {
+    val q = x / y
+    if (x == 0 || y == 1 || y == -1 || q.isInfinite || q.isNaN) q else Math.nextUp(q)
+  }
+}
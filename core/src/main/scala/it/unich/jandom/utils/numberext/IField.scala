@@ -18,6 +18,8 @@
 
 package it.unich.jandom.utils.numberext
 
+import spire.math.Rational
+
 trait IField[N] {
   def +(that : N) : N
   def -(that : N) : N
@@ -42,3 +44,24 @@ trait StaticIField[F <: IField[F]] {
   def PositiveInfinity : F
   def NegativeInfinity : F
 }
+
+/**
+  * A StaticIField whose elements may be converted from and to
+  * rationals, possibly with some rounding.
+  */
+trait RationalIField[F <: IField[F]] extends StaticIField[F] {
+  /**
+    * Returns the smallest element of F which is greater or equal than `r`.
+    */
+  def fromRationalUp(r : Rational) : F
+
+  /**
+    * Returns the greatest element of F which is smaller or equal than `r`.
+    */
+  def fromRationalDown(r : Rational) : F
+
+  /**
+    * Returns the extended rational corresponding to `f`.
+    */
+  def toRationalExt(f : F) : RationalExt
+}
@@ -34,247 +34,340 @@ import scala.runtime.RichDouble
  * depends on the Rational class in Spire for implementing the operations on standard rational
  * values. As it is customary, a NaN is treated in a special way: all binary operations involving
  * a NaN returns NaN, and all binary tests fail when one of the two operands is a NaN.
- * @param value a rational value. This is meaningful only when the `special` field is `NORMAL`
- * @param special one of the values in the RationalExt enumeration. They are `NORMAL`, `POSINF`,
- * `NEGINF` and `NAN`, with the obvious meaning.
+ *
+ * Since most numbers in the analyses are small integers, the numerator and denominator of a
+ * rational are kept in two longs whenever it is possible, and the operations on them do not
+ * allocate intermediate objects. When a result does not fit in longs, the operation is performed
+ * on `Rational` and the result is kept in `big`. Special values have denominator zero and numerator
+ * 1 (for +∞), -1 (for -∞) or 0 (for NaN).
+ *
+ * @param num the numerator of a rational value, or the code of a special value. It is meaningful only
+ * when `big` is null
+ * @param den the positive denominator of a rational value, or zero for special values. It is meaningful
+ * only when `big` is null
+ * @param big a rational value which does not fit in `num` and `den`, or null.
  */
-class RationalExt(val value: Rational, private val special: RationalExt.SpecialValue.SpecialValue) extends ScalaNumber with ScalaNumericConversions with IField[RationalExt] {
+final class RationalExt private (private val num: Long, private val den: Long, private val big: Rational)
+  extends ScalaNumber with ScalaNumericConversions with IField[RationalExt] {
 
-  import RationalExt.SpecialValue._
+  import RationalExt.{fraction, fromRational}
 
-  def +(that: RationalExt): RationalExt = (special, that.special) match {
-    case (NORMAL, NORMAL) => new RationalExt(this.value + that.value, NORMAL)
-    case (NORMAL, POSINF) | (POSINF, NORMAL) | (POSINF, POSINF) => RationalExt.PositiveInfinity
-    case (NORMAL, NEGINF) | (NEGINF, NORMAL) | (NEGINF, NEGINF) => RationalExt.NegativeInfinity
-    case _ => RationalExt.NaN
-  }
+  /**
+   * Returns true if this is a rational number kept in `num` and `den`.
+   */
+  @inline private def isSmall = big == null && den != 0
 
-  def -(that: RationalExt): RationalExt = (special, that.special) match {
-    case (NORMAL, NORMAL) => new RationalExt(this.value - that.value, NORMAL)
-    case (NORMAL, NEGINF) | (POSINF, NORMAL) | (POSINF, NEGINF) => RationalExt.PositiveInfinity
-    case (NORMAL, POSINF) | (NEGINF, NORMAL) | (NEGINF, POSINF) => RationalExt.NegativeInfinity
-    case _ => RationalExt.NaN
-  }
+  /**
+   * Returns true if this is a rational number, i.e., it is not a special value.
+   */
+  @inline private def isNormal = big != null || den != 0
 
-  def *(that: RationalExt): RationalExt = (special, that.special) match {
-    case (NORMAL, NORMAL) => new RationalExt(this.value * that.value, NORMAL)
-    case (NORMAL, POSINF) => value.signum match {
-      case 1 => RationalExt.PositiveInfinity
-      case -1 => RationalExt.NegativeInfinity
-      case 0 => RationalExt.NaN
-    }
-    case (NORMAL, NEGINF) => value.signum match {
-      case 1 => RationalExt.NegativeInfinity
-      case -1 => RationalExt.PositiveInfinity
-      case 0 => RationalExt.NaN
+  /**
+   * Returns true if this is NaN.
+   */
+  @inline private def isNaN = big == null && den == 0 && num == 0
+
+  /**
+   * Returns the sign of this number, which is 0 for NaN.
+   */
+  private def signum: Int = if (big != null) big.signum else java.lang.Long.signum(num)
+
+  /**
+   * Returns the position of this number in the order used by `compare`: -∞, rationals, +∞ and NaN.
+   */
+  private def rank: Int = if (isNormal) 1 else if (num > 0) 2 else if (num < 0) 0 else 3
+
+  /**
+   * The value of this number. It is meaningful only when the number is not a special value, otherwise
+   * it is zero.
+   */
+  def value: Rational = if (big != null) big else if (den != 0) Rational(num, den) else Rational.zero
+
+  /**
+   * Returns `this + that * sign` when both are small, and falls back to `Rational` on overflow.
+   */
+  private def addSmall(that: RationalExt, sign: Long): RationalExt =
+    try {
+      val n = Math.multiplyExact(that.num, sign)
+      if (den == that.den)
+        fraction(Math.addExact(num, n), den)
+      else
+        fraction(Math.addExact(Math.multiplyExact(num, that.den), Math.multiplyExact(n, den)), Math.multiplyExact(den, that.den))
+    } catch {
+      case _: ArithmeticException => fromRational(if (sign > 0) value + that.value else value - that.value)
     }
-    case (POSINF, NORMAL) | (NEGINF, NORMAL) => that * this
-    case (POSINF, POSINF) | (NEGINF, NEGINF) => RationalExt.PositiveInfinity
-    case (NEGINF, POSINF) | (POSINF, NEGINF) => RationalExt.NegativeInfinity
-    case _ => RationalExt.NaN
-  }
 
-  def /(that: RationalExt): RationalExt = (special, that.special) match {
-    case (NORMAL, NORMAL) => {
-      if (!that.value.isZero)
-        new RationalExt(value / that.value, NORMAL)
-      else value.signum match {
+  /**
+   * Sum of two special values, or of a special value and a rational.
+   */
+  private def addSpecial(that: RationalExt): RationalExt =
+    if (isNaN || that.isNaN) RationalExt.NaN
+    else if (isNormal) that
+    else if (that.isNormal || num == that.num) this
+    else RationalExt.NaN
+
+  def +(that: RationalExt): RationalExt =
+    if (isSmall && that.isSmall) addSmall(that, 1)
+    else if (isNormal && that.isNormal) fromRational(value + that.value)
+    else addSpecial(that)
+
+  def -(that: RationalExt): RationalExt =
+    if (isSmall && that.isSmall) addSmall(that, -1)
+    else if (isNormal && that.isNormal) fromRational(value - that.value)
+    else addSpecial(-that)
+
+  def *(that: RationalExt): RationalExt =
+    if (isSmall && that.isSmall) {
+      if (den == 1 && that.den == 1)
+        try {
+          new RationalExt(Math.multiplyExact(num, that.num), 1, null)
+        } catch {
+          case _: ArithmeticException => fromRational(value * that.value)
+        }
+      else
+        try {
+          fraction(Math.multiplyExact(num, that.num), Math.multiplyExact(den, that.den))
+        } catch {
+          case _: ArithmeticException => fromRational(value * that.value)
+        }
+    } else if (isNormal && that.isNormal)
+      fromRational(value * that.value)
+    else if (isNaN || that.isNaN)
+      RationalExt.NaN
+    else
+      signum * that.signum match {
+        case 1 => RationalExt.PositiveInfinity
+        case -1 => RationalExt.NegativeInfinity
+        case _ => RationalExt.NaN
+      }
+
+  def /(that: RationalExt): RationalExt =
+    if (isNormal && that.isNormal) {
+      if (that.isZero) signum match {
         case -1 => RationalExt.NegativeInfinity
         case 0 => RationalExt.NaN
         case 1 => RationalExt.PositiveInfinity
       }
-    }
-    case (NORMAL, POSINF) | (NORMAL, NEGINF) => RationalExt.zero
-    case (POSINF, NORMAL) => if (that.value.signum >= 0) RationalExt.PositiveInfinity else RationalExt.NegativeInfinity
-    case (NEGINF, NORMAL) => if (that.value.signum >= 0) RationalExt.NegativeInfinity else RationalExt.PositiveInfinity
-    case _ => RationalExt.NaN
-  }
+      else if (isSmall && that.isSmall)
+        try {
+          fraction(Math.multiplyExact(num, that.den), Math.multiplyExact(den, that.num))
+        } catch {
+          case _: ArithmeticException => fromRational(value / that.value)
+        }
+      else
+        fromRational(value / that.value)
+    } else if (isNaN || that.isNaN || !that.isNormal) {
+      if (isNormal && !that.isNaN) RationalExt.zero else RationalExt.NaN
+    } else if (that.signum >= 0) this else -this
 
   def unary_+ = this
 
-  def unary_- = special match {
-    case NORMAL => new RationalExt(- value, NORMAL)
-    case POSINF => RationalExt.NegativeInfinity
-    case NEGINF => RationalExt.PositiveInfinity
-    case _ => RationalExt.NaN
-  }
+  def unary_- : RationalExt =
+    if (big != null) fromRational(-big)
+    else if (num == Long.MinValue) fromRational(-value)
+    else new RationalExt(-num, den, null)
 
-  def abs: RationalExt = special match {
-    case NORMAL => new RationalExt(value.abs, NORMAL)
-    case POSINF | NEGINF => RationalExt.PositiveInfinity
-    case _ => RationalExt.NaN
-  }
+  def abs: RationalExt = if (signum < 0) -this else this
 
   /**
    * Returns true if the value is 0
    */
-  def isZero = special == NORMAL && value.isZero
+  def isZero = big == null && den != 0 && num == 0
 
   /**
    * Returns true if the value is +∞.
    */
-  def isPosInfinity = special == POSINF
+  def isPosInfinity = big == null && den == 0 && num > 0
 
   /**
    * Returns true if the number is -∞.
    */
-  def isNegInfinity = special == NEGINF
+  def isNegInfinity = big == null && den == 0 && num < 0
 
   /**
    * Returns true if the number is infinite.
    */
   def isInfinity = isPosInfinity || isNegInfinity
 
-  override def toString = special match {
-    case NORMAL => value.toString()
-    case POSINF => "Infinity"
-    case NEGINF => "-Infinity"
-    case NAN => "NaN"
-  }
-
-  def doubleValue = special match {
-    case POSINF => scala.Double.PositiveInfinity
-    case NEGINF => scala.Double.NegativeInfinity
-    case NAN => scala.Double.NaN
-    case NORMAL => value.doubleValue
-  }
-
-  def floatValue = special match {
-    case POSINF => scala.Float.PositiveInfinity
-    case NEGINF => scala.Float.NegativeInfinity
-    case NAN => scala.Float.NaN
-    case NORMAL => value.floatValue
-  }
+  override def toString =
+    if (isSmall) { if (den == 1) num.toString else s"$num/$den" }
+    else if (big != null) big.toString
+    else if (num > 0) "Infinity"
+    else if (num < 0) "-Infinity"
+    else "NaN"
+
+  def doubleValue =
+    if (isSmall) {
+      // the division of two exactly represented doubles is correctly rounded
+      if (num > -(1L << 53) && num < (1L << 53) && den < (1L << 53)) num.toDouble / den.toDouble else value.doubleValue
+    } else if (big != null) big.doubleValue
+    else if (num > 0) scala.Double.PositiveInfinity
+    else if (num < 0) scala.Double.NegativeInfinity
+    else scala.Double.NaN
+
+  def floatValue =
+    if (isNormal) value.floatValue
+    else if (num > 0) scala.Float.PositiveInfinity
+    else if (num < 0) scala.Float.NegativeInfinity
+    else scala.Float.NaN
+
+  def longValue =
+    if (isSmall) num / den
+    else if (big != null) big.longValue
+    else if (num > 0) Long.MaxValue
+    else if (num < 0) Long.MinValue
+    else throw new IllegalArgumentException("cannot convert NaN to Long")
+
+  def intValue =
+    if (isSmall) (num / den).toInt
+    else if (big != null) big.intValue
+    else if (num > 0) Int.MaxValue
+    else if (num < 0) Int.MinValue
+    else throw new IllegalArgumentException("cannot convert NaN to Int")
 
-  def longValue = special match {
-    case POSINF => Long.MaxValue
-    case NEGINF => Long.MinValue
-    case NAN => throw new IllegalArgumentException("cannot convert NaN to Long")
-    case NORMAL => value.longValue
-  }
-
-  def intValue = special match {
-    case POSINF => Int.MaxValue
-    case NEGINF => Int.MinValue
-    case NAN => throw new IllegalArgumentException("cannot convert NaN to Int")
-    case NORMAL => value.intValue
-  }
-
-  def max(that: RationalExt): RationalExt = (special, that.special) match {
-    case (NORMAL, NORMAL) => new RationalExt(this.value max that.value, NORMAL)
-    case (NAN, _) | (_, NAN) => RationalExt.NaN
-    case (NEGINF, _) => that
-    case (_, NEGINF) => this
-    case _ => RationalExt.PositiveInfinity
-  }
-
-  def min(that: RationalExt): RationalExt = (special, that.special) match {
-    case (NORMAL, NORMAL) => new RationalExt(this.value min that.value, NORMAL)
-    case (NAN, _) | (_, NAN) => RationalExt.NaN
-    case (POSINF, _) => that
-    case (_, POSINF) => this
-    case _ => RationalExt.NegativeInfinity
-  }
+  /**
+   * Compares two rational numbers.
+   */
+  private def compareNormal(that: RationalExt): Int =
+    if (isSmall && that.isSmall) {
+      if (den == that.den)
+        java.lang.Long.compare(num, that.num)
+      else
+        try {
+          java.lang.Long.compare(Math.multiplyExact(num, that.den), Math.multiplyExact(that.num, den))
+        } catch {
+          case _: ArithmeticException => value compare that.value
+        }
+    } else
+      value compare that.value
+
+  def max(that: RationalExt): RationalExt =
+    if (isNaN || that.isNaN) RationalExt.NaN
+    else if (compare(that) >= 0) this
+    else that
+
+  def min(that: RationalExt): RationalExt =
+    if (isNaN || that.isNaN) RationalExt.NaN
+    else if (compare(that) <= 0) this
+    else that
 
   /**
    * The compare method for `RationalExt` is somewhat inconsistent with the rest of the
    * comparison operator since it should linearly order the NaN value.
    */
-  def compare(that: RationalExt) = (this.special, that.special) match {
-    case (NORMAL, NORMAL) => this.value compare that.value
-    case _ => this.special compare that.special
-  }
+  def compare(that: RationalExt) =
+    if (isNormal && that.isNormal) compareNormal(that)
+    else Integer.compare(rank, that.rank)
 
-  def >(that: RationalExt) = (special, that.special) match {
-    case (NORMAL, NORMAL) => value > that.value
-    case (NAN, _) | (_, NAN) => false
-    case (POSINF, NORMAL) | (POSINF, NEGINF) | (NORMAL, NEGINF) => true
-    case _ => false
-  }
+  def >(that: RationalExt) =
+    if (isNaN || that.isNaN) false
+    else compare(that) > 0
 
-  def >=(that: RationalExt) = (special, that.special) match {
-    case (NORMAL, NORMAL) => value >= that.value
-    case (NAN, _) | (_, NAN) => false
-    case (POSINF, _) | (NORMAL, NORMAL) | (NORMAL, NEGINF) | (NEGINF, NEGINF) => true
-    case _ => false
-  }
+  def >=(that: RationalExt) =
+    if (isNaN || that.isNaN) false
+    else compare(that) >= 0
 
   def <(that: RationalExt): Boolean = that > this
 
   def <=(that: RationalExt): Boolean = that >= this
 
-  def !=(that: RationalExt): Boolean = (special, that.special) match {
-    case (NORMAL, NORMAL) => value != that.value
-    case (NAN, NAN) => true
-    case _ => special != that.special
-  }
+  def !=(that: RationalExt): Boolean = !(this equals that)
 
   override def equals(that: Any): Boolean =
     that match {
-      case that: RationalExt => (special, that.special) match {
-        case (NORMAL, NORMAL) => value == that.value
-        case (POSINF, POSINF) | (NEGINF, NEGINF) => true
-        case _ => false
-      }
-      case _ => if (special == NORMAL)
+      case that: RationalExt =>
+        if (isNaN || that.isNaN) false
+        else if (big == null && that.big == null) num == that.num && den == that.den
+        else big != null && that.big != null && big == that.big
+      case _ => if (isNormal)
         value == that
       else
         false
     }
 
+  /**
+   * Consistent with `equals`: a normal value has the same hash code of the underlying
+   * rational number.
+   */
+  override def hashCode: Int =
+    if (isNormal) value.##
+    else if (num > 0) Double.PositiveInfinity.##
+    else if (num < 0) Double.NegativeInfinity.##
+    else Double.NaN.##
+
   def underlying = this
 
-  def isWhole = value.isWhole && special == NORMAL
+  def isWhole = if (big != null) big.isWhole else den == 1
 
   /**
    * Returns a string representing the rational number. For finite rationals, a decimal representation
    * is produced, tuned by the `scale` and `mode` parameters.
    */
-  def mkString(scale: Int, mode: RoundingMode) = special match {
-    case NORMAL => value.toBigDecimal(scale, mode).toString
-    case POSINF => "Infinity"
-    case NEGINF => "-Infinity"
-    case NAN => "NaN"
-  }
+  def mkString(scale: Int, mode: RoundingMode) =
+    if (isNormal) value.toBigDecimal(scale, mode).toString
+    else toString
 
   def _div_2 : RationalExt =
     if (isPosInfinity) this
     else if (isNegInfinity) this
-    else (this / 2)
+    else (this / RationalExt.two)
 
   def _x_2 : RationalExt =
     if (isPosInfinity) this
     else if (isNegInfinity) this
-    else (this * 2)
+    else (this * RationalExt.two)
 }
 
-object RationalExt extends StaticIField[RationalExt]{
-  /**
-   * The enumeration of the special values for the `RationalExt` class.
-   */
-  private object SpecialValue extends Enumeration {
-    type SpecialValue = Value
-    val NEGINF = Value(0)
-    val NORMAL = Value(1)
-    val POSINF = Value(2)
-    val NAN = Value(3)
-  }
+object RationalExt extends RationalIField[RationalExt] {
+  val one = new RationalExt(1, 1, null)
+
+  val minusOne = new RationalExt(-1, 1, null)
+
+  val zero = new RationalExt(0, 1, null)
 
-  import SpecialValue._
+  private val two = new RationalExt(2, 1, null)
 
-  val one = new RationalExt(Rational.one, NORMAL)
+  val PositiveInfinity = new RationalExt(1, 0, null)
 
-  val minusOne = new RationalExt(-Rational.one, NORMAL)
+  val NegativeInfinity = new RationalExt(-1, 0, null)
 
-  val zero = new RationalExt(Rational.zero, NORMAL)
+  val NaN = new RationalExt(0, 0, null)
+
+  /**
+   * Returns the rational n/d, where d is not zero, in the normal form used by `RationalExt`.
+   */
+  private def fraction(n: Long, d: Long): RationalExt =
+    if (d == 1)
+      new RationalExt(n, 1, null)
+    else if (n == Long.MinValue || d == Long.MinValue)
+      fromRational(Rational(n, d))
+    else {
+      var a = n.abs
+      var b = d.abs
+      while (b != 0) {
+        val t = a % b
+        a = b
+        b = t
+      }
+      if (d < 0) new RationalExt(-n / a, -d / a, null) else new RationalExt(n / a, d / a, null)
+    }
+
+  /**
+   * Returns the extended rational corresponding to `r`, keeping it in two longs when possible.
+   */
+  private def fromRational(r: Rational): RationalExt =
+    if (r.numeratorIsValidLong && r.denominatorIsValidLong)
+      new RationalExt(r.numeratorAsLong, r.denominatorAsLong, null)
+    else
+      new RationalExt(0, 1, r)
 
-  val PositiveInfinity = new RationalExt(Rational.zero, POSINF)
+  def fromRationalUp(r: Rational): RationalExt = apply(r)
 
-  val NegativeInfinity = new RationalExt(Rational.zero, NEGINF)
+  def fromRationalDown(r: Rational): RationalExt = apply(r)
 
-  val NaN = new RationalExt(Rational.zero, NAN)
+  def toRationalExt(r: RationalExt): RationalExt = r
 
-  implicit def apply(x: Rational): RationalExt = new RationalExt(x, NORMAL)
+  implicit def apply(x: Rational): RationalExt = fromRational(x)
 
   /**
    * Returns a rational corresponding to the string  `r`. Strings Infinity, -Infinity
@@ -295,9 +388,9 @@ object RationalExt extends StaticIField[RationalExt]{
 
   def apply(n: Long, d: Long): RationalExt = apply(Rational(n, d))
 
-  implicit def apply(x: Int): RationalExt = apply(Rational(x))
+  implicit def apply(x: Int): RationalExt = new RationalExt(x, 1, null)
 
-  implicit def apply(x: Long): RationalExt = apply(Rational(x))
+  implicit def apply(x: Long): RationalExt = new RationalExt(x, 1, null)
 
   implicit def apply(x: SafeLong): RationalExt = apply(Rational(x))
 
@@ -312,8 +405,10 @@ object RationalExt extends StaticIField[RationalExt]{
       RationalExt.NegativeInfinity
     else if (rd.isNaN)
       RationalExt.NaN
+    else if (rd.isWhole && math.abs(d) < (1L << 53))
+      new RationalExt(d.toLong, 1, null)
     else
-      new RationalExt(Rational(d), NORMAL)
+      fromRational(Rational(d))
   }
 
   implicit def apply(x: Float): RationalExt = apply(x.toDouble)
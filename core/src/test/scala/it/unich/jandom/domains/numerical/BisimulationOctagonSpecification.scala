@@ -23,6 +23,7 @@ import it.unich.jandom.domains.numerical.octagon.simple._
 
 import org.scalatest.propspec.AnyPropSpec
 import org.scalatestplus.scalacheck.ScalaCheckPropertyChecks
+import org.scalacheck.Gen
 
 import it.unich.jandom.utils.numberext.RationalExt
 
@@ -68,6 +69,90 @@ class BisimulationOctagonSpecification extends AnyPropSpec with ScalaCheckProper
     }
 
   }
+
+  property("Double octagons overapproximate rational octagons: oct-T.{ some ops }.toBox <= doubleoct-T.{ some ops }.toBox") {
+    val doubleOctDomain = OctagonDoubleDomain()
+    forAll(GenTinyPosInt.suchThat(_ > 1)) {
+      n => {
+        forAll(GenTinyPosInt.suchThat(_ > 1)) {
+          l => {
+            import Utils._
+            import OpSequences._
+            forAll(genSeq(n,l)) {
+              opSeq => {
+                val oct = opSeq.foldLeft(octDomain.top(n))((op, p) => applyOp(op)(p))
+                val doubleOct = opSeq.foldLeft(doubleOctDomain.top(n))((op, p) => applyOp(op)(p))
+                assert(oct.toBox <= doubleOct.toBox, s"$opSeq: ${oct.toBox} <= ${doubleOct.toBox}")
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  property("Decomposed octagons behave like octagons: oct-T.{ some ops } == decoct-T.{ some ops }") {
+    val decOctDomain = OctagonDomain.decomposed()
+    forAll(GenTinyPosInt.suchThat(_ > 1)) {
+      n => {
+        forAll(GenTinyPosInt.suchThat(_ > 1)) {
+          l => {
+            import Utils._
+            import OpSequences._
+            forAll(genSeq(n,l)) {
+              opSeq => {
+                val oct = opSeq.foldLeft(octDomain.top(n))((op, p) => applyOp(op)(p))
+                val decOct = opSeq.foldLeft(decOctDomain.top(n))((op, p) => applyOp(op)(p))
+                assert(oct.isBottom == decOct.isBottom)
+                assert(oct.constraints == decOct.constraints, s"$opSeq: ${oct} == ${decOct}")
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  property("Decomposed octagons overapproximate octagons on unions: oct1 union oct2 <= decoct1 union decoct2") {
+    val decOctDomain = OctagonDomain.decomposed()
+    forAll(GenTinyPosInt.suchThat(_ > 1)) {
+      n => {
+        import Utils._
+        import OpSequences._
+        forAll(genSeq(n, 3), genSeq(n, 3)) {
+          (opSeq1, opSeq2) => {
+            val oct = opSeq1.foldLeft(octDomain.top(n))((op, p) => applyOp(op)(p)) union
+              opSeq2.foldLeft(octDomain.top(n))((op, p) => applyOp(op)(p))
+            val decOct = opSeq1.foldLeft(decOctDomain.top(n))((op, p) => applyOp(op)(p)) union
+              opSeq2.foldLeft(decOctDomain.top(n))((op, p) => applyOp(op)(p))
+            assert(oct.toBox <= decOct.toBox, s"$opSeq1, $opSeq2: ${oct.toBox} <= ${decOct.toBox}")
+          }
+        }
+      }
+    }
+  }
+
+  property("oct.linearInequalities(lfs) agrees with a sequence of oct.linearInequality(lf)") {
+    forAll(GenTinyPosInt.suchThat(_ > 1)) {
+      n => {
+        import Utils._
+        import OpSequences._
+        forAll(genSeq(n, 2), Gen.listOfN(3, genAnyLf(n))) {
+          (opSeq, lfs) => {
+            val oct = opSeq.foldLeft(octDomain.top(n))((op, p) => applyOp(op)(p))
+            val batch = oct.linearInequalities(lfs)
+            val sequential = lfs.foldLeft(oct)(_.linearInequality(_))
+            assert(batch.toBox <= sequential.toBox, s"$lfs: ${batch} <= ${sequential}")
+            val octagonal = lfs.forall { lf =>
+              val nonZero = lf.homcoeffs.filter(_ != 0)
+              nonZero.nonEmpty && nonZero.size <= 2 && nonZero.forall(c => c == 1 || c == -1)
+            }
+            if (octagonal) assert(batch.constraints == sequential.constraints, s"$lfs")
+          }
+        }
+      }
+    }
+  }
 }
 
 package octagon.optimized {
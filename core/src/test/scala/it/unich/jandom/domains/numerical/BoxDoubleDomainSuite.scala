@@ -167,6 +167,31 @@ class BoxDoubleDomainDoubleSuite extends BoxDoubleDomainSuite {
     assert(dom(Array(0, 0), Array(4, 4)) == j)
   }
 
+  describe("Union of many boxes") {
+    it("is the same as repeated union") {
+      forAll(someProperties) { (p) =>
+        val props = someProperties.toSeq
+        assertResult(props.fold(p)(_ union _)) { dom.unionAll(p, props) }
+      }
+      assertResult(dom.bottom(2)) { dom.unionAll(dom.bottom(2), Seq(dom.bottom(2))) }
+    }
+    it("does not modify its arguments") {
+      val p = dom(Array(0, 0), Array(1, 1))
+      val builder = new dom.UnionBuilder(p)
+      builder += dom(Array(-1, 2), Array(0, 3))
+      assertResult(dom(Array(-1, 0), Array(1, 3))) { builder.result() }
+      assertResult(dom(Array(0, 0), Array(1, 1))) { p }
+      intercept[IllegalStateException] { builder.result() }
+    }
+  }
+
+  describe("Equal boxes") {
+    it("have the same hash code") {
+      assertResult(dom(Array(0, 0), Array(4, 4)).hashCode) { dom(Array(-0.0, 0), Array(4, 4)).hashCode }
+      assertResult(dom.bottom(2).hashCode) { dom(Array(1, 2), Array(5, 4)).linearInequality(LinearForm(6, 1, 0)).hashCode }
+    }
+  }
+
   describe("All boxes are polyhedral") {
     forAll(someProperties) { (p) => p.isPolyhedral }
   }
@@ -21,6 +21,9 @@ import scala.reflect.ClassTag
 import org.scalatest.propspec.AnyPropSpec
 import org.scalatestplus.scalacheck.ScalaCheckPropertyChecks
 import it.unich.jandom.utils.numberext.RationalExt
+import org.scalacheck.Gen
+import java.util.concurrent.ForkJoinPool
+import it.unich.jandom.domains.numerical.octagon.Var
 
 class DBMSpecification extends AnyPropSpec with ScalaCheckPropertyChecks {
   // TODO: write real tests!
@@ -120,4 +123,85 @@ class DBMSpecification extends AnyPropSpec with ScalaCheckPropertyChecks {
     val incclosed = closure.incrementalClosure(v2)(b)
     assert(reclosed == incclosed)
   }
+
+  property ("DoubleDBM closure agrees with ArrayDBM closure on integer bounds") {
+    val dfac = new DoubleDBMFactory[RationalExt]()(ifield, DoubleCodec.RationalExtCodec)
+    val dclosure = new IncrementalMineFloydWarshall[RationalExt]()(ifield, dfac)
+    val genBound : Gen[RationalExt] = Gen.frequency((2, Gen.const(ifield.PositiveInfinity)), (3, Gen.choose(-3, 10).map(RationalExt(_))))
+    forAll(Gen.choose(1, 3)) { n =>
+      val dim = DBMDim(2 * n)
+      forAll(Gen.listOfN(4 * n * n, genBound)) { bounds =>
+        // The closure expects a coherent DBM, i.e., m(i,j) == m(bar j, bar i)
+        def bar(i : Int) = if (i % 2 == 0) i - 1 else i + 1
+        def cell(i : Int, j : Int) = bounds((i - 1) * 2 * n + j - 1)
+        val f = (idx : DBMIdx) =>
+          if (idx.diagonal) ifield.zero
+          else if (idx.i < bar(idx.j)) cell(idx.i, idx.j)
+          else cell(bar(idx.j), bar(idx.i))
+        (closure.strongClosure(afac.fromFun(dim, f)), dclosure.strongClosure(dfac.fromFun(dim, f))) match {
+          case (None, None) =>
+          case (Some(a), Some(d)) => assert(dim.allIdxs.forall(idx => a(idx) == d(idx)))
+          case (a, d) => fail(s"$a and $d do not agree on emptiness")
+        }
+      }
+    }
+  }
+
+  property ("HalfArrayDBM closures agree with ArrayDBM closures") {
+    val hfac = new HalfArrayDBMFactory[RationalExt]()(tag, ifield)
+    val hclosure = new IncrementalMineFloydWarshall[RationalExt]()(ifield, hfac)
+    val genBound : Gen[RationalExt] = Gen.frequency((2, Gen.const(ifield.PositiveInfinity)), (3, Gen.choose(-6, 20).map(x => RationalExt(x) / RationalExt(2))))
+    forAll(Gen.choose(1, 3)) { n =>
+      val dim = DBMDim(2 * n)
+      forAll(Gen.listOfN(4 * n * n, genBound), Gen.choose(1, n)) { (bounds, v) =>
+        def bar(i : Int) = if (i % 2 == 0) i - 1 else i + 1
+        def cell(i : Int, j : Int) = bounds((i - 1) * 2 * n + j - 1)
+        val f = (idx : DBMIdx) =>
+          if (idx.diagonal) ifield.zero
+          else if (idx.i < bar(idx.j)) cell(idx.i, idx.j)
+          else cell(bar(idx.j), bar(idx.i))
+        def agree(a : Option[ClosedDBM[RationalExt]], h : Option[ClosedDBM[RationalExt]]) = (a, h) match {
+          case (None, None) =>
+          case (Some(a), Some(h)) => assert(dim.allIdxs.forall(idx => a(idx) == h(idx)))
+          case (a, h) => fail(s"$a and $h do not agree on emptiness")
+        }
+        agree(closure.strongClosure(afac.fromFun(dim, f)), hclosure.strongClosure(hfac.fromFun(dim, f)))
+        // Incremental closure of a closed DBM where the constraints on v have been changed
+        for (c <- hclosure.strongClosure(hfac.fromFun(dim, f))) {
+          val g = (idx : DBMIdx) =>
+            if (((idx.i + 1) / 2 == v || (idx.j + 1) / 2 == v) && !idx.diagonal) c(idx).min(RationalExt(1)) else c(idx)
+          agree(closure.incrementalClosure(Var(v))(afac.fromFun(dim, g)),
+            hclosure.incrementalClosure(Var(v))(hfac.fromFun(dim, g)))
+        }
+      }
+    }
+  }
+
+  property ("ParallelMineFloydWarshall agrees with the sequential strong closure") {
+    val hfac = new HalfArrayDBMFactory[RationalExt]()(tag, ifield)
+    val dfac = new DoubleDBMFactory[RationalExt]()(ifield, DoubleCodec.RationalExtCodec)
+    val pool = new ForkJoinPool(4)
+    val hpar = new ParallelMineFloydWarshall[RationalExt](threshold = 1, pool = pool)(ifield, hfac)
+    val dpar = new ParallelMineFloydWarshall[RationalExt](threshold = 1, pool = pool)(ifield, dfac)
+    val genBound : Gen[RationalExt] = Gen.frequency((2, Gen.const(ifield.PositiveInfinity)), (3, Gen.choose(-6, 20).map(x => RationalExt(x) / RationalExt(2))))
+    forAll(Gen.choose(1, 10)) { n =>
+      val dim = DBMDim(2 * n)
+      forAll(Gen.listOfN(4 * n * n, genBound)) { bounds =>
+        def bar(i : Int) = if (i % 2 == 0) i - 1 else i + 1
+        def cell(i : Int, j : Int) = bounds((i - 1) * 2 * n + j - 1)
+        val f = (idx : DBMIdx) =>
+          if (idx.diagonal) ifield.zero
+          else if (idx.i < bar(idx.j)) cell(idx.i, idx.j)
+          else cell(bar(idx.j), bar(idx.i))
+        val expected = closure.strongClosure(afac.fromFun(dim, f))
+        for (actual <- Seq(hpar.strongClosure(hfac.fromFun(dim, f)), dpar.strongClosure(dfac.fromFun(dim, f))))
+          (expected, actual) match {
+            case (None, None) =>
+            case (Some(e), Some(a)) => assert(dim.allIdxs.forall(idx => e(idx) == a(idx)))
+            case (e, a) => fail(s"$e and $a do not agree on emptiness")
+          }
+      }
+    }
+    pool.shutdown()
+  }
 }
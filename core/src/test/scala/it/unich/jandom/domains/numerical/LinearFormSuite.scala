@@ -19,6 +19,7 @@
 package it.unich.jandom.domains.numerical
 
 import org.scalatest.funsuite.AnyFunSuite
+import spire.math.Rational
 
 /**
  * The test suite for the LinearForm class
@@ -120,4 +121,53 @@ class LinearFormSuite extends AnyFunSuite {
     assert(!(c2 subsetOf c1))
     assert(c1 != c2)
   }
+
+  test("Sparse linear forms are used for large dimensions") {
+    val n = 3 * LinearForm.sparseMinDimension
+    val lf1 = LinearForm.v(n)
+    val lf2 = LinearForm.sparse(1, 2 -> 3, n -> -1)
+    assert(lf1.isInstanceOf[SparseLinearForm])
+    assert(lf2.isInstanceOf[SparseLinearForm])
+    assert(LinearForm.v(1).isInstanceOf[DenseLinearForm[_]])
+    assertResult(n + 1) { lf2.dimension }
+    assertResult(Seq(2 -> Rational(3), n -> Rational(-1))) { lf2.pairs }
+    assertResult(LinearForm((Seq[Rational](1, 0, 0, 3) ++ Seq.fill[Rational](n - 3)(0) :+ Rational(-1)): _*)) { lf2 }
+  }
+
+  test("Sparse and dense linear forms agree") {
+    val n = 2 * LinearForm.sparseMinDimension
+    val sparse1 = LinearForm.sparse(1, 0 -> 2, n - 1 -> -1)
+    val sparse2 = LinearForm.sparse(-1, 3 -> 1, n - 1 -> 1)
+    val dense1 = DenseLinearForm(sparse1.coeffs)
+    val dense2 = DenseLinearForm(sparse2.coeffs)
+    assert(sparse1.isInstanceOf[SparseLinearForm])
+    assertResult(dense1) { sparse1 }
+    assertResult(sparse1) { dense1 }
+    assertResult(dense1.hashCode) { sparse1.hashCode }
+    assertResult(dense1 + dense2) { sparse1 + sparse2 }
+    assertResult(dense1 + dense2) { sparse1 + dense2 }
+    assertResult(dense1 - dense2) { sparse1 - sparse2 }
+    assertResult(-dense1) { -sparse1 }
+    assertResult(dense1 * 3) { sparse1 * 3 }
+    assertResult(dense1 * 0) { sparse1 * 0 }
+    assertResult(dense1 / 2) { sparse1 / 2 }
+    assertResult(dense1.hom) { sparse1.hom }
+    assertResult(dense1.homcoeffs) { sparse1.homcoeffs }
+    assertResult(dense1.mkString(LazyList.from(0).map("x" + _))) { sparse1.mkString(LazyList.from(0).map("x" + _)) }
+    assertResult(dense1.padded(n + 5)) { sparse1.padded(n + 5) }
+    assertResult(LinearForm.sparse(0, n - 1 -> 0)) { LinearForm.sparse(0, 0 -> 1, n - 1 -> 1) - LinearForm.sparse(0, 0 -> 1, n - 1 -> 1) }
+    assert((sparse1 - sparse1).isZero)
+    assert((dense1 + dense2).isInstanceOf[SparseLinearForm])
+    assert((dense1 * 0).isInstanceOf[SparseLinearForm])
+  }
+
+  test("Linear forms are padded and truncated") {
+    val n = 2 * LinearForm.sparseMinDimension
+    val lf = LinearForm(1, 2, 0, 0)
+    assertResult(LinearForm(1, 2, 0, 0, 0)) { lf.padded(5) }
+    assertResult(LinearForm(1, 2)) { lf.padded(2) }
+    assertResult(LinearForm.sparse(1, 0 -> 2)) { LinearForm.sparse(1, 0 -> 2, n - 1 -> 0).padded(2) }
+    intercept[IllegalArgumentException] { lf.padded(1) }
+    intercept[IllegalArgumentException] { LinearForm.sparse(1, n - 1 -> 2).padded(n - 1) }
+  }
 }
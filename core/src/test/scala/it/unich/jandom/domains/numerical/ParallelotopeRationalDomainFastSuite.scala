@@ -249,5 +249,34 @@ class ParallelotopeRationalDomainFastSuite extends NumericalDomainSuite with Sep
         assertResult(p) { p.constraints.foldLeft(p.top) { (prop, lf) => prop.linearInequality(lf) } }
       }
     }
+    they("have the same hash code when they are equal") {
+      forAll(someProperties) { (p) =>
+        assertResult(p.hashCode) { p.constraints.foldLeft(p.top) { (prop, lf) => prop.linearInequality(lf) }.hashCode }
+      }
+      val swapped = dom(Bounds(r"-1", r"-1"), DenseMatrix((r"0", r"1"), (r"1", r"0")), Bounds(r"1", r"1"))
+      assert(swapped == box)
+      assertResult(box.hashCode) { swapped.hashCode }
+    }
+  }
+
+  describe("the inverse of the shape matrix") {
+    def isInverse(p: dom.Property) = (p.A * p.Ainv).data sameElements DenseMatrix.eye(p.dimension).data
+
+    they("is kept up to date by the operations") {
+      val results = Seq(
+        diamond.linearAssignment(0, LinearForm(3, 1, 2)),
+        diamond.linearAssignment(0, LinearForm(0, 0, 3)),
+        diamond.linearAssignment(1, LinearForm(5)),
+        diamond.nonDeterministicAssignment(1),
+        diamond.addVariable(),
+        full.linearInequality(LinearForm(-1, 1, -2)),
+        full.linearInequality(LinearForm(-1, 1, -2)).linearInequality(LinearForm(0, 1, 1)),
+        box union diamond,
+        box widening diamond,
+        diamond widening box,
+        box narrowing diamond,
+        diamond.rotate(DenseMatrix((r"2", r"1"), (r"1", r"3"))))
+      for (p <- results ++ someProperties) assert(isInverse(p), s"for $p")
+    }
   }
 }
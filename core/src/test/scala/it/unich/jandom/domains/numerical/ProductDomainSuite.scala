@@ -64,6 +64,12 @@ class ProductDomainSuite extends NumericalDomainSuite {
     assertResult(true) { p3.isEmpty }
   }
 
+  describe("hash code on product") {
+    val box = dom.dom1(Array(1, 2), Array(5, 4))
+    assertResult(empty.hashCode) { new dom.Property(boxEmpty, ptopeFull).hashCode }
+    assertResult(new dom.Property(box, ptopeFull).hashCode) { new dom.Property(box, dom.dom2.top(n)).hashCode }
+  }
+
   describe("assignment on product") {
     val x2 = full.linearAssignment(0, 0)
     assertResult(x2) {
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.domains.numerical
+
+/**
+ * Test suite for the profiling decorator of numerical domains.
+ */
+class ProfilingDomainSuite extends NumericalDomainSuite {
+
+  val dom = ProfilingDomain(BoxDoubleDomain())
+
+  import ProfilingDomain.Operation
+
+  private def calls(op: Operation.Value, dim: Int) =
+    dom.report.find { s => s.operation == op && s.dimension == dim }.map(_.calls).getOrElse(0L)
+
+  describe("The profiling domain") {
+    it("returns the same results of the decorated domain") {
+      val box = dom.dom(Array(0, 0), Array(1, 2))
+      val p = new dom.Property(box)
+      val lf = LinearForm(0, 1, 1)
+      assertResult(box.linearAssignment(0, lf))(p.linearAssignment(0, lf).p)
+      assertResult(box.linearInequality(lf))(p.linearInequality(lf).p)
+      assertResult(box.maximize(lf))(p.maximize(lf))
+      assertResult(box union box.top)(p.union(p.top).p)
+      assert(p <= p.top)
+      assert(p.top.isTop)
+    }
+
+    it("counts the operations for each dimension") {
+      dom.reset()
+      val p = dom.top(3)
+      p.union(p).union(p)
+      p.addVariable().union(p.addVariable())
+      p.widening(p)
+      dom.widening("default")(p, p)
+      assertResult(2)(calls(Operation.Union, 3))
+      assertResult(1)(calls(Operation.Union, 4))
+      assertResult(2)(calls(Operation.AddVariable, 3))
+      assertResult(2)(calls(Operation.Widening, 3))
+      assertResult(0)(calls(Operation.Narrowing, 3))
+    }
+
+    it("forwards the operations which have a default implementation") {
+      dom.reset()
+      val box = dom.dom(Array(0, 0), Array(1, 2))
+      val p = new dom.Property(box)
+      val lfs = Seq(LinearForm(-1, 1, 0), LinearForm(0, 1, -1))
+      assertResult(box.linearInequalities(lfs))(p.linearInequalities(lfs).p)
+      assertResult(box.variableMul(0, 1))(p.variableMul(0, 1).p)
+      assertResult(1)(calls(Operation.LinearInequalities, 2))
+      assertResult(0)(calls(Operation.LinearInequality, 2))
+      assertResult(1)(calls(Operation.NonLinearAssignment, 2))
+    }
+
+    it("interns equal properties to the same wrapper") {
+      val p = dom.intern(dom.top(2))
+      val q = dom.intern(dom.top(2))
+      assert(p eq q)
+      assert(dom.intern(q) eq q)
+    }
+
+    it("builds latency histograms consistent with the number of calls") {
+      dom.reset()
+      val p = dom.top(2)
+      for (_ <- 1 to 10) p.linearInequality(LinearForm(0, 1, -1))
+      val s = dom.report.find(_.operation == Operation.LinearInequality).get
+      assertResult(10)(s.calls)
+      assertResult(10)(s.histogram.sum)
+      assert(s.quantile(0.5) <= s.quantile(1))
+    }
+
+    it("forgets statistics when reset") {
+      dom.top(1).union(dom.top(1))
+      dom.reset()
+      assert(dom.report.isEmpty)
+    }
+  }
+}
@@ -183,6 +183,11 @@ case class SimpleNonBottomOctagon[N <: IField[N]]
       else
         m(idx))}
 
+  def test_cells(cells : Seq[(DBMIdx, N)]) : SimpleOctagon[N] =
+    stronglyClosed(m.dimension)(
+      (idx : DBMIdx) =>
+      cells.filter(_._1 == idx).foldLeft(m(idx))(_ min _._2))
+
   ///////////////////////
   // End abstract tests
   ///////////////////////
@@ -48,6 +48,9 @@ class JimpleSuite extends AnyFunSuite with SootTests {
 
   jimpleNumTests()
   jimplePairSharingTests()
+  jimpleRecursiveTests()
+  jimpleSummaryTests()
+  jimpleCompilationTests()
 
   def jimpleNumTests(): scala.Unit = {
     val jimpleNumericalTests = Seq(
@@ -144,4 +147,64 @@ class JimpleSuite extends AnyFunSuite with SootTests {
       }
     }
   }
+
+  def jimpleRecursiveTests(): scala.Unit = {
+    for (methodName <- Seq("sequential", "parametric_static", "parametric_caller")) {
+      test(s"Jimple summaries are post-fixpoints: $methodName") {
+        val params: Parameters[JimpleMethod] {val domain: SootFrameNumericalDomain} = new Parameters[JimpleMethod] {
+          val domain = new SootFrameNumericalDomain(numdom)
+          io = true
+        }
+        val inte = new JimpleRecursiveInterpretation[params.type](scene, params)
+        params.interpretation = Some(inte)
+        val method = c.getMethodByName(methodName)
+        inte.compute(method, params.domain.top(SootCFG.inputTypes(method)))
+        assert(inte.inte contains method)
+        for ((m, Some(jmethod)) <- inte.targets) {
+          val ann = jmethod.analyzeFromInput(params)(params.domain.top(SootCFG.inputTypes(m)))
+          assert(inte.inte(m) >= jmethod.extractOutput(params)(ann))
+        }
+      }
+    }
+  }
+
+  def jimpleSummaryTests(): scala.Unit = {
+    for (contexts <- Seq(SummaryCache.Widened, SummaryCache.KLimited(1))) {
+      test(s"Jimple summaries are shared by inputs with the same context: $contexts") {
+        val params: Parameters[JimpleMethod] {val domain: SootFrameNumericalDomain} = new Parameters[JimpleMethod] {
+          val domain = new SootFrameNumericalDomain(numdom)
+          io = true
+        }
+        val inte = new JimpleInterpretation[params.type](params, contexts = contexts)
+        params.interpretation = Some(inte)
+        val method = c.getMethodByName("parametric_static")
+        val parser = new NumericalPropertyParser(new JimpleMethod(method, params.io).inputEnvironment) with SootIdentParser
+        def input(bounds: String) =
+          params.domain(parser.parseProperty(bounds + " && @parameter1 == 0", params.domain.numdom).get,
+            SootCFG.inputTypes(method))
+        inte(method, input("@parameter0 == 0"))
+        assertResult(1)(inte.analyses)
+        val output = inte(method, input("@parameter0 >= 0 && @parameter0 <= 1"))
+        assertResult(2)(inte.analyses)
+        // the context of this input is the context of the previous one
+        assertResult(output)(inte(method, input("@parameter0 == 1")))
+        assertResult(2)(inte.analyses)
+      }
+    }
+  }
+
+  def jimpleCompilationTests(): scala.Unit = {
+    test("Jimple blocks are compiled once, with linear guards") {
+      val method = new JimpleMethod(c.getMethodByName("loop"), false)
+      val blocks = method.graph.getBlocks
+      for (i <- 0 until blocks.size)
+        assert(method.code(blocks.get(i)) eq method.code(blocks.get(i)))
+      val ops = (0 until blocks.size) flatMap { i => method.code(blocks.get(i)) }
+      assert(ops exists {
+        case FrameOp.Branch(FrameOp.TestLinear(_)) => true
+        case _ => false
+      })
+      assert(!(ops exists { _.isInstanceOf[FrameOp.Unsupported] }))
+    }
+  }
 }
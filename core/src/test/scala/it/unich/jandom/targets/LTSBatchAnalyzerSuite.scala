@@ -0,0 +1,62 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.targets
+
+import java.nio.file.Paths
+
+import scala.concurrent.duration._
+
+import org.scalatest.funsuite.AnyFunSuite
+import it.unich.jandom.benchmark.FASTLoader
+import it.unich.jandom.domains.numerical.BoxDoubleDomain
+import it.unich.jandom.targets.lts._
+
+class LTSBatchAnalyzerSuite extends AnyFunSuite with FASTLoader {
+  val dom = BoxDoubleDomain()
+
+  test("batch analysis agrees with sequential analysis") {
+    val analyzer = new LTSBatchAnalyzer(dom, threads = 4)
+    val results = analyzer.analyze(ltss).toSeq
+    assert(results.size === ltss.size)
+    for (result <- results) result match {
+      case analyzer.Analyzed(_, lts, ann, _) =>
+        val params = new Parameters[LTS] {
+          val domain: LTS#DomainBase = dom
+        }
+        val expected = lts.analyze(params)
+        for (l <- lts.locations) assert(ann(l) === expected(l))
+      case other => fail(other.toString)
+    }
+  }
+
+  test("batch analysis of files") {
+    val files = Seq("/fast/aaron2.fst", "/fast/ackerman.fst").map(r => Paths.get(getClass.getResource(r).toURI))
+    val analyzer = new LTSBatchAnalyzer(dom, threads = 2)
+    val results = analyzer.analyzeFiles(files :+ Paths.get("nonexistent.fst")).toSeq
+    assert(results.count(_.isInstanceOf[analyzer.Analyzed]) === 2)
+    assert(results.count(_.isInstanceOf[analyzer.Failed]) === 1)
+  }
+
+  test("slow analyses are interrupted") {
+    val analyzer = new LTSBatchAnalyzer(dom, configure = _ => Thread.sleep(60000), threads = 2, timeout = 100.millis)
+    val results = analyzer.analyze(ltss.take(4)).toSeq
+    assert(results.size === 4)
+    assert(results.forall(_.isInstanceOf[analyzer.TimedOut]))
+  }
+}
@@ -24,9 +24,11 @@ import java.io.FileReader
 import org.scalatest.funsuite.AnyFunSuite
 import it.unich.jandom.domains.numerical.BoxDoubleDomain
 import it.unich.jandom.domains.numerical.LinearForm
+import it.unich.jandom.domains.numerical.OctagonDomain
 import it.unich.jandom.parsers.FastParser
 import it.unich.jandom.targets.NumericCondition._
 import it.unich.jandom.targets.lts._
+import it.unich.jandom.targets.parameters.IterationStrategy
 import it.unich.scalafix.finite.FiniteFixpointSolver
 import it.unich.scalafix.FixpointSolver._
 import it.unich.scalafix.lattice.Domain
@@ -74,6 +76,149 @@ class LTSSuite extends AnyFunSuite {
     }
   }
 
+  test("debug messages are only built when debugging is enabled") {
+    val params = new Parameters[LTS] {
+      val domain: LTS#DomainBase = dom
+    }
+    var built = 0
+    params.log { built += 1; "message" }
+    assertResult(0)(built)
+    LTS1.lts.analyze(params)
+    assertResult("")(params.debugWriter.toString)
+    params.debugWriter = new java.io.StringWriter
+    params.log { built += 1; "message" }
+    assertResult(1)(built)
+    LTS1.lts.analyze(params)
+    assert(params.debugWriter.toString.contains("Beginning ascending chain"))
+  }
+
+  test("simple LTS analysis with all iteration strategies") {
+    for (strategy <- IterationStrategy.values) {
+      val params = new Parameters[LTS] {
+        val domain: LTS#DomainBase = dom
+      }
+      params.iterationStrategy = strategy
+      val ann = LTS1.lts.analyze(params)
+      assertResult(dom(Array(0), Array(11)), strategy) {
+        ann(LTS1.l2)
+      }
+    }
+  }
+
+  test("memoized transfer functions do not change the result of the analysis") {
+    for (strategy <- IterationStrategy.values) {
+      val params = new Parameters[LTS] {
+        val domain: LTS#DomainBase = dom
+      }
+      params.iterationStrategy = strategy
+      params.transferCacheSize = 16
+      // inputs are compared by reference, hence they are interned to share equal properties
+      params.interning = true
+      val ann = LTS1.lts.analyze(params)
+      assertResult(dom(Array(0), Array(11)), strategy) {
+        ann(LTS1.l2)
+      }
+      assert(params.transferCache.get.hits > 0, strategy)
+      assert(params.transferCache.get.size <= 16, strategy)
+    }
+  }
+
+  test("interning properties does not change the result of the analysis") {
+    for (strategy <- IterationStrategy.values) {
+      val params = new Parameters[LTS] {
+        val domain: LTS#DomainBase = dom
+      }
+      params.iterationStrategy = strategy
+      params.interning = true
+      val ann = LTS1.lts.analyze(params)
+      assertResult(dom(Array(0), Array(11)), strategy) {
+        ann(LTS1.l2)
+      }
+      assert(ann(LTS1.l2) eq dom.intern(dom(Array(0), Array(11))), strategy)
+    }
+  }
+
+  test("metrics are collected for each location") {
+    for (strategy <- IterationStrategy.values) {
+      val params = new Parameters[LTS] {
+        val domain: LTS#DomainBase = dom
+      }
+      params.iterationStrategy = strategy
+      val metrics = new FixpointMetrics
+      params.metrics = Some(metrics)
+      val ann = LTS1.lts.analyze(params)
+      assertResult(dom(Array(0), Array(11)), strategy) {
+        ann(LTS1.l2)
+      }
+      val summary = metrics.summary
+      for (loc <- LTS1.lts.locations) assert(summary(loc).exists(_.evaluations > 0), strategy)
+      assert(summary(LTS1.l2).get.widenings > 0, strategy)
+      assert(summary(LTS1.l2).get.narrowings > 0, strategy)
+      assert(summary.iterations("ascending") > 0, strategy)
+      assert(summary.iterations("descending") > 0, strategy)
+      summary.commitEvents()
+    }
+  }
+
+  test("the parallel strategy solves components sequentially for domains which are not thread-safe") {
+    val octagon = OctagonDomain()
+    assert(dom.isThreadSafe)
+    assert(!octagon.isThreadSafe)
+    val params = new Parameters[LTS] {
+      val domain: LTS#DomainBase = octagon
+    }
+    params.iterationStrategy = IterationStrategy.Parallel
+    val ann = LTS1.lts.analyze(params)
+    for (t <- LTS1.lts.transitions) assert(t.analyze(ann(t.start)) <= ann(t.end), t.name)
+  }
+
+  test("incremental analysis is identical to full analysis") {
+    def build(bound: Int, variables: String*) = {
+      val env = Environment(variables: _*)
+      val s = Location("start", Nil)
+      val p = Location("p", List(FalseCond))
+      val q = Location("q", List(FalseCond))
+      val t1 = Transition("initp", s, p, guard = Nil, assignments = NumericAssignment(0, 0))
+      val t2 = Transition("loopp", p, p,
+        guard = List(AtomicCond(LinearForm(-10, 1, 0), ComparisonOperators.LTE)),
+        assignments = NumericAssignment(0, LinearForm(1, 1, 0)))
+      val t3 = Transition("initq", s, q, guard = Nil, assignments = NumericAssignment(1, 0))
+      val t4 = Transition("loopq", q, q,
+        guard = List(AtomicCond(LinearForm(-bound, 0, 1), ComparisonOperators.LTE)),
+        assignments = NumericAssignment(1, LinearForm(1, 0, 1)))
+      LTS("incremental", IndexedSeq(s, p, q), Seq(t1, t2, t3, t4), env)
+    }
+    val params = new Parameters[LTS] {
+      val domain: LTS#DomainBase = dom
+    }
+    params.iterationStrategy = IterationStrategy.Parallel
+
+    val oldLTS = build(20, "x", "y")
+    val newLTS = build(30, "x", "y")
+    val changes = LTS.changes(oldLTS, newLTS)
+    assertResult(Seq("loopq", "loopq"))(changes.transitions.map(_.name))
+    assert(changes.locations.isEmpty)
+    assert(!changes.environment)
+    val previous = oldLTS.analyze(params)
+    val full = newLTS.analyze(params)
+    val incremental = newLTS.analyzeIncrementally(params)(previous, changes)
+    for (l <- newLTS.locations) assert(incremental(l) === full(l))
+
+    val widerLTS = build(30, "x", "y", "z")
+    val widerChanges = LTS.changes(oldLTS, widerLTS)
+    assert(widerChanges.environment)
+    val widerFull = widerLTS.analyze(params)
+    val widerIncremental = widerLTS.analyzeIncrementally(params)(previous, widerChanges)
+    for (l <- widerLTS.locations) assert(widerIncremental(l) === widerFull(l))
+
+    for (strategy <- IterationStrategy.values if strategy != IterationStrategy.Parallel) {
+      params.iterationStrategy = strategy
+      intercept[IllegalArgumentException] {
+        newLTS.analyzeIncrementally(params)(previous, changes)
+      }
+    }
+  }
+
   test("simple LTS analysis with equations") {
     val eqs = LTS1.lts.toEquationSystem(dom)
     val ann = FiniteFixpointSolver(eqs, CC77)
@@ -97,5 +242,16 @@ class LTSSuite extends AnyFunSuite {
       val ann2 = FiniteFixpointSolver(lts.toEquationSystem(dom), CC77)
       for (l <- lts.locations) assert(ann1(l) === ann2(l))
     }
+
+    test(s"LTS analysis for ${lts.name} in file $model gives a post-fixpoint with all iteration strategies") {
+      for (strategy <- IterationStrategy.values) {
+        val params = new Parameters[LTS] {
+          val domain: LTS#DomainBase = dom
+        }
+        params.iterationStrategy = strategy
+        val ann = lts.analyze(params)
+        for (t <- lts.transitions) assert(t.analyze(ann(t.start)) <= ann(t.end), s"$strategy on transition ${t.name}")
+      }
+    }
   }
 }
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.targets
+
+import scala.concurrent.duration._
+
+import org.scalatest.funsuite.AnyFunSuite
+import it.unich.jandom.domains.numerical.{BoxDoubleDomain, OctagonDomain}
+import it.unich.jandom.targets.jvmsoot._
+import soot.PhaseOptions
+
+class SootBatchAnalyzerSuite extends AnyFunSuite with SootTests {
+  private val scene = initSoot("jimpletest")
+
+  // disable all Jimple optimizations
+  PhaseOptions.v().setPhaseOption("jb", "enabled:false")
+
+  private val methods = SootBatchAnalyzer.concreteMethods(scene, Seq("jimpletest.SimpleTest"))
+  private val domain = new SootFrameNumericalDomain(BoxDoubleDomain())
+
+  test("all the concrete methods of a class are enumerated") {
+    assert(methods.nonEmpty)
+    assert(methods.forall(_.isConcrete))
+    assert(methods.exists(_.getName == "loop"))
+  }
+
+  test("batch analysis agrees with sequential analysis") {
+    val analyzer = new SootBatchAnalyzer[JimpleMethod](new JimpleMethod(_, false), domain, threads = 4)
+    val results = analyzer.analyze(methods).toSeq
+    assert(results.size === methods.size)
+    for (result <- results) result match {
+      case analyzer.Analyzed(method, output, _) =>
+        val params = new Parameters[JimpleMethod] {
+          val domain: JimpleMethod#DomainBase = SootBatchAnalyzerSuite.this.domain
+        }
+        params.interpretation = Some(new TopSootInterpretation[JimpleMethod, params.type](params))
+        val target = new JimpleMethod(method, false)
+        assert(output === target.mkString(params)(target.analyze(params)))
+      case analyzer.Failed(_, _: UnsupportedSootUnitException, _) =>
+      case other => fail(other.toString)
+    }
+  }
+
+  test("batch analysis supports domains which are not thread-safe") {
+    val octagons = new SootFrameNumericalDomain(OctagonDomain())
+    assert(!octagons.isThreadSafe)
+    val analyzer = new SootBatchAnalyzer[JimpleMethod](new JimpleMethod(_, false), octagons, threads = 4)
+    val results = analyzer.analyze(methods).toSeq
+    assert(results.size === methods.size)
+    for (result <- results) result match {
+      case analyzer.Analyzed(_, _, _) =>
+      case analyzer.Failed(_, _: UnsupportedSootUnitException, _) =>
+      case other => fail(other.toString)
+    }
+  }
+
+  test("slow analyses are interrupted") {
+    val analyzer = new SootBatchAnalyzer[BafMethod](new BafMethod(_, false), domain,
+      configure = _ => Thread.sleep(60000), threads = 2, timeout = 100.millis)
+    val results = analyzer.analyze(methods.take(4)).toSeq
+    assert(results.size === methods.take(4).size)
+    assert(results.forall(_.isInstanceOf[analyzer.TimedOut]))
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.targets
+
+import it.unich.jandom.domains.numerical.BoxDoubleDomain
+import org.scalatest.funsuite.AnyFunSuite
+
+class SummaryCacheSuite extends AnyFunSuite {
+
+  val dom = BoxDoubleDomain()
+
+  def box(low: Double, high: Double) = dom(Array(low), Array(high))
+
+  test("summaries are found for the same input") {
+    val cache = new SummaryCache[String, dom.Property]()
+    assertResult(None)(cache.lookup("f", box(0, 1)))
+    cache.update("f", box(0, 1), box(1, 2))
+    assertResult(Some(box(1, 2)))(cache.lookup("f", box(0, 1)))
+    assertResult(None)(cache.lookup("g", box(0, 1)))
+    assertResult(SummaryCache.Stats(1, 0, 2, 0, 1))(cache.stats)
+  }
+
+  test("summaries of greater contexts are reused when subsumption is enabled") {
+    val cache = new SummaryCache[String, dom.Property](subsumption = true)
+    cache.update("f", box(0, 10), box(1, 11))
+    assertResult(Some(box(1, 11)))(cache.lookup("f", box(2, 3)))
+    assertResult(None)(cache.lookup("f", box(5, 20)))
+    assertResult(1)(cache.stats.subsumptionHits)
+  }
+
+  test("summaries of greater contexts are not reused by default") {
+    val cache = new SummaryCache[String, dom.Property]()
+    cache.update("f", box(0, 10), box(1, 11))
+    assertResult(None)(cache.lookup("f", box(2, 3)))
+    assertResult(0)(cache.stats.subsumptionHits)
+  }
+
+  test("the least recently used summary is discarded") {
+    val cache = new SummaryCache[String, dom.Property](2)
+    cache.update("f", box(0, 0), box(0, 0))
+    cache.update("g", box(0, 0), box(1, 1))
+    cache.lookup("f", box(0, 0))
+    cache.update("h", box(0, 0), box(2, 2))
+    assertResult(2)(cache.size)
+    assertResult(1)(cache.stats.evictions)
+    assert(cache.lookup("f", box(0, 0)).isDefined)
+    assert(cache.lookup("g", box(0, 0)).isEmpty)
+    assert(cache.contextsFor("g").isEmpty)
+  }
+
+  test("k-limited contexts bound the number of contexts of each key") {
+    val cache = new SummaryCache[String, dom.Property](contexts = SummaryCache.KLimited(1))
+    assertResult(box(0, 1))(cache.context("f", box(0, 1)))
+    cache.update("f", box(0, 1), box(0, 1))
+    val context = cache.context("f", box(5, 6))
+    assertResult(box(0, 6))(context)
+    cache.update("f", context, box(0, 6))
+    assertResult(Seq(box(0, 6)))(cache.contextsFor("f"))
+  }
+
+  test("widened contexts are greater than the inputs") {
+    val cache = new SummaryCache[String, dom.Property](contexts = SummaryCache.Widened)
+    cache.update("f", box(0, 1), box(0, 1))
+    val context = cache.context("f", box(0, 2))
+    assert(context >= box(0, 2))
+    assertResult(Double.PositiveInfinity)(context.high(0))
+  }
+
+  test("contexts in progress are detected and widened") {
+    val cache = new SummaryCache[String, dom.Property](contexts = SummaryCache.Widened)
+    val outer = cache.context("f", box(0, 1))
+    assert(cache.enter("f", outer))
+    assert(!cache.enter("f", outer))
+    val inner = cache.context("f", box(0, 2))
+    assertResult(Double.PositiveInfinity)(inner.high(0))
+    assert(cache.enter("f", inner))
+    assertResult(inner)(cache.context("f", box(0, 3)))
+    cache.exit("f", inner)
+    cache.exit("f", outer)
+    assert(cache.enter("f", outer))
+  }
+
+  test("k-limited contexts widen contexts in progress") {
+    val cache = new SummaryCache[String, dom.Property](contexts = SummaryCache.KLimited(1))
+    assert(cache.enter("f", cache.context("f", box(0, 1))))
+    val inner = cache.context("f", box(0, 2))
+    assertResult(Double.PositiveInfinity)(inner.high(0))
+  }
+
+  test("the parameters should be positive") {
+    intercept[IllegalArgumentException] { new SummaryCache[String, dom.Property](0) }
+    intercept[IllegalArgumentException] { SummaryCache.KLimited(0) }
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.ui.server
+
+import java.io.File
+
+import org.scalatest.funsuite.AnyFunSuite
+
+/**
+ * Test suite for the analysis server and its JSON protocol.
+ */
+class AnalysisServerSuite extends AnyFunSuite {
+
+  private val classPath = new File(getClass.getResource("/jimpletest").toURI).toString
+
+  private def request(fields: (String, Any)*) = Json.write(Map("classpath" -> classPath, "class" -> "jimpletest.SimpleTest") ++ fields)
+
+  test("JSON values are parsed and written back") {
+    val text = """{"a":[1,2.5,"x\"y"],"b":true,"c":null,"d":{}}"""
+    val v = Json.parse(text)
+    assertResult(Map("a" -> Seq(BigDecimal(1), BigDecimal(2.5), "x\"y"), "b" -> true, "c" -> null, "d" -> Map()))(v)
+    assertResult(v)(Json.parse(Json.write(v)))
+  }
+
+  test("invalid JSON is rejected") {
+    assertThrows[IllegalArgumentException] { Json.parse("{\"a\":}") }
+  }
+
+  test("a method is analyzed with both intermediate representations") {
+    val server = new AnalysisServer
+    for (ir <- Seq("jimple", "baf")) {
+      val response = Json.parse(server.handle(request("method" -> "sequential", "ir" -> ir))).asInstanceOf[Map[String, Any]]
+      assertResult(true, response)(response("ok"))
+      assert(response("output").toString.nonEmpty)
+    }
+  }
+
+  test("repeated requests return the same result") {
+    val server = new AnalysisServer
+    val r = request("method" -> "loop", "domain" -> "BoxDouble")
+    assertResult(server.handle(r).replaceAll("\"millis\":[0-9]+", ""))(server.handle(r).replaceAll("\"millis\":[0-9]+", ""))
+  }
+
+  test("errors are reported in the response") {
+    val server = new AnalysisServer
+    val unknownDomain = server.execute(Map("classpath" -> classPath, "class" -> "jimpletest.SimpleTest", "method" -> "loop", "domain" -> "foo"))
+    assertResult(false)(unknownDomain("ok"))
+    assertResult(false)(server.execute(Map("command" -> "analyze"))("ok"))
+    assertResult(false)(server.execute(Map("command" -> "foo"))("ok"))
+    assert(server.handle("not json") contains "\"ok\":false")
+  }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import scala.jdk.CollectionConverters._
+
+import org.scalatest.funsuite.AnyFunSuite
+
+class ComponentSchedulerSuite extends AnyFunSuite {
+
+  // component 0 is needed by 1 and 2, which are both needed by 3
+  val dependents = IndexedSeq(Seq(1, 2), Seq(3), Seq(3), Seq())
+
+  test("components are solved after the components they depend on") {
+    for (concurrent <- Seq(false, true)) {
+      val solved = new ConcurrentLinkedQueue[Int]()
+      new ComponentScheduler(dependents, concurrent).run(solved.add(_))
+      val order = solved.asScala.toSeq
+      assertResult(Set(0, 1, 2, 3), concurrent)(order.toSet)
+      assert(order.head == 0 && order.last == 3, concurrent)
+    }
+  }
+
+  test("the first failure is thrown and stops the components which depend on it") {
+    for (concurrent <- Seq(false, true)) {
+      val solved = new ConcurrentLinkedQueue[Int]()
+      val scheduler = new ComponentScheduler(dependents, concurrent)
+      intercept[IllegalStateException] {
+        scheduler.run { c => if (c == 1) throw new IllegalStateException() else solved.add(c) }
+      }
+      assert(scheduler.cancelled)
+      assert(!solved.contains(3), concurrent)
+    }
+  }
+}
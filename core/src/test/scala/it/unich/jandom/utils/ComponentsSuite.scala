@@ -0,0 +1,37 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import org.scalatest.funsuite.AnyFunSuite
+
+class ComponentsSuite extends AnyFunSuite {
+
+  test("components are returned in reverse topological order") {
+    val succs = Map(0 -> Seq(1), 1 -> Seq(2, 3), 2 -> Seq(1), 3 -> Seq())
+    val components = Components.sccs(0 to 3, succs)
+    assertResult(Seq(Set(3), Set(1, 2), Set(0)))(components.map(_.toSet))
+  }
+
+  test("deep graphs do not overflow the stack") {
+    val n = 100000
+    val components = Components.sccs(0 until n, { (v: Int) => if (v + 1 < n) Seq(v + 1) else Seq(0) })
+    assertResult(1)(components.size)
+    assertResult(n)(components.head.size)
+  }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import org.scalatest.funsuite.AnyFunSuite
+import it.unich.jandom.domains.numerical.BoxDoubleDomain
+
+class InternTableSuite extends AnyFunSuite {
+
+  test("equal objects are interned to the same representative") {
+    val table = new InternTable[String]
+    val s1 = new String("abc")
+    val s2 = new String("abc")
+    assert(table.intern(s1) eq s1)
+    assert(table.intern(s2) eq s1)
+    assert(table.intern("def") ne s1)
+    assertResult(2)(table.size)
+  }
+
+  test("domains intern equal properties of the same fiber") {
+    val dom = BoxDoubleDomain()
+    val p1 = dom.intern(dom(Array(0, 0), Array(1, 2)))
+    val p2 = dom.intern(dom(Array(0, 0), Array(1, 2)))
+    val p3 = dom.intern(dom(Array(0), Array(1)))
+    assert(p1 eq p2)
+    assertResult(1)(p3.dimension)
+    assert(dom.intern(dom.bottom(2)) eq dom.intern(dom(Array(1, 2), Array(0, 2))))
+  }
+}
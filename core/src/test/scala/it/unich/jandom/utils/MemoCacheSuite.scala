@@ -0,0 +1,56 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils
+
+import org.scalatest.funsuite.AnyFunSuite
+
+class MemoCacheSuite extends AnyFunSuite {
+
+  test("values are only computed once") {
+    val cache = new MemoCache[Int, String](10)
+    var computed = 0
+    def value(x: Int) = cache.getOrElseUpdate(x, { computed += 1; x.toString })
+    assertResult("1")(value(1))
+    assertResult("1")(value(1))
+    assertResult("2")(value(2))
+    assertResult(2)(computed)
+    assertResult(1)(cache.hits)
+    assertResult(2)(cache.misses)
+  }
+
+  test("the least recently used entry is discarded") {
+    val cache = new MemoCache[Int, String](2)
+    var computed = 0
+    def value(x: Int) = cache.getOrElseUpdate(x, { computed += 1; x.toString })
+    value(1)
+    value(2)
+    value(1)
+    value(3)
+    assertResult(2)(cache.size)
+    assertResult(3)(computed)
+    value(1)
+    assertResult(3)(computed)
+    value(2)
+    assertResult(4)(computed)
+  }
+
+  test("the size should be positive") {
+    intercept[IllegalArgumentException] { new MemoCache[Int, Int](0) }
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package it.unich.jandom.utils.numberext
+
+import org.scalacheck.Gen
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatestplus.scalacheck.ScalaCheckPropertyChecks
+import spire.math.Rational
+
+/**
+ * Test suite for dense matrices of rationals.
+ */
+class DenseMatrixSuite extends AnyFunSuite with ScalaCheckPropertyChecks {
+
+  def sameMatrix(m1: DenseMatrix, m2: DenseMatrix) =
+    m1.rows == m2.rows && (m1.data sameElements m2.data)
+
+  val matrices = for {
+    n <- Gen.choose(1, 5)
+    den <- Gen.choose(1, 3)
+    data <- Gen.listOfN(n * n, Gen.choose(-4, 4))
+  } yield new DenseMatrix(data.map(Rational(_, den)).toArray, n)
+
+  test("inverse agrees with Gaussian elimination") {
+    forAll(matrices) { (m: DenseMatrix) =>
+      val eye = DenseMatrix.eye(m.rows)
+      val lu = scala.util.Try(m \ eye)
+      val inv = scala.util.Try(m.inverse)
+      assertResult(lu.isSuccess)(inv.isSuccess)
+      if (inv.isSuccess) {
+        assert(sameMatrix(m * inv.get, eye))
+        assert(sameMatrix(lu.get, inv.get))
+      }
+    }
+  }
+
+  test("inverse of rational matrices") {
+    val m = DenseMatrix(DenseVector(Rational(1, 2), Rational(1, 3)), DenseVector(Rational(2), Rational(5, 7)))
+    assert(sameMatrix(m * m.inverse, DenseMatrix.eye(2)))
+    intercept[IllegalArgumentException] {
+      DenseMatrix(DenseVector(Rational(1), Rational(2)), DenseVector(Rational(2), Rational(4))).inverse
+    }
+  }
+
+  test("inverse after the update of a row") {
+    forAll(matrices, Gen.listOfN(5, Gen.choose(-4, 4)), Gen.choose(0, 4)) { (m: DenseMatrix, row: List[Int], i: Int) =>
+      whenever(scala.util.Try(m.inverse).isSuccess) {
+        val r = i % m.rows
+        val v = DenseVector(row.take(m.cols).map(Rational(_)): _*)
+        val updated = m.copy
+        updated.rowUpdate(r, v)
+        DenseMatrix.rowUpdatedInverse(m.inverse, r, v) match {
+          case Some(inv) => assert(sameMatrix(updated * inv, DenseMatrix.eye(m.rows)))
+          case None => assert(scala.util.Try(updated.inverse).isFailure)
+        }
+      }
+    }
+  }
+
+  test("product of the transpose with vectors") {
+    val m = DenseMatrix(DenseVector(Rational(1), Rational(2)), DenseVector(Rational(3), Rational(4)))
+    val v = DenseVector(Rational(1), Rational(-1))
+    assert(m.transposeTimes(v).data sameElements Array(Rational(-2), Rational(-2)))
+  }
+}
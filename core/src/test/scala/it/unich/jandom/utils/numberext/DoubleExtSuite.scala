@@ -0,0 +1,68 @@
+/**
+ * Copyright 2026 Jandom Team
+ *
+ * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+ * JANDOM is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JANDOM is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package it.unich.jandom.utils.numberext
+
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatestplus.scalacheck.ScalaCheckPropertyChecks
+import spire.math.Rational
+
+/**
+ * Test suite for doubles rounded towards +∞.
+ */
+class DoubleExtSuite extends AnyFunSuite with ScalaCheckPropertyChecks {
+  import DoubleExt._
+
+  test("sums are upper bounds of the real sums") {
+    forAll { (x: Double, y: Double) =>
+      whenever(!x.isNaN && !y.isNaN && !x.isInfinite && !y.isInfinite) {
+        val s = (DoubleExt(x) + DoubleExt(y)).value
+        assert(s.isPosInfinity || Rational(s) >= Rational(x) + Rational(y))
+        if (!s.isPosInfinity && s != x + y) assert(Rational(Math.nextDown(s)) < Rational(x) + Rational(y))
+      }
+    }
+  }
+
+  test("exact sums are not enlarged") {
+    assert((DoubleExt(1) + DoubleExt(2)) == DoubleExt(3))
+    assert((DoubleExt(0.5) - DoubleExt(0.25)) == DoubleExt(0.25))
+    assert((DoubleExt(0.1) + DoubleExt(0.2)).value > 0.1 + 0.2)
+  }
+
+  test("halving and doubling") {
+    assert(DoubleExt(3)._div_2 == DoubleExt(1.5))
+    assert(DoubleExt(Double.MinPositiveValue)._div_2 == DoubleExt(Double.MinPositiveValue))
+    assert(DoubleExt(-Double.MaxValue)._x_2 == DoubleExt(-Double.MaxValue))
+    assert(DoubleExt(Double.MaxValue)._x_2 == PositiveInfinity)
+  }
+
+  test("conversion from rationals") {
+    val third = Rational(1, 3)
+    assert(Rational(fromRationalDown(third).value) < third)
+    assert(Rational(fromRationalUp(third).value) > third)
+    assert(fromRationalDown(Rational(5, 2)) == fromRationalUp(Rational(5, 2)))
+    assert(toRationalExt(fromRationalUp(Rational(5, 2))) == RationalExt(Rational(5, 2)))
+  }
+
+  test("infinities") {
+    assert((PositiveInfinity + DoubleExt(-3)).isPosInfinity)
+    assert((-PositiveInfinity).isNegInfinity)
+    assert(zero < PositiveInfinity)
+    assert(DoubleExt(0.0) == DoubleExt(-0.0))
+    assert(DoubleExt(0.0).hashCode == DoubleExt(-0.0).hashCode)
+  }
+}
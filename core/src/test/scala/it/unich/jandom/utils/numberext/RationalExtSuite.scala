@@ -21,6 +21,7 @@ package it.unich.jandom.utils.numberext
 import org.scalatest.funsuite.AnyFunSuite
 import org.scalatestplus.scalacheck.ScalaCheckPropertyChecks
 import org.scalacheck.Gen
+import spire.math.Rational
 
 /**
  * Test suite for extended rationals.
@@ -154,4 +155,58 @@ class RationalExtSuite extends AnyFunSuite with ScalaCheckPropertyChecks {
     assertResult("-Infinity") { NegativeInfinity.toString }
     assertResult("NaN") { NaN.toString }
   }
+
+  test("operations on small numbers agree with rationals") {
+    val small = Gen.choose(-1000000L, 1000000L)
+    val nonZero = Gen.choose(1L, 1000000L)
+    forAll(small, nonZero, small, nonZero) { (n1: Long, d1: Long, n2: Long, d2: Long) =>
+      val q1 = Rational(n1, d1)
+      val q2 = Rational(n2, d2)
+      val r1 = RationalExt(n1, d1)
+      val r2 = RationalExt(n2, d2)
+      assertResult(RationalExt(q1 + q2))(r1 + r2)
+      assertResult(RationalExt(q1 - q2))(r1 - r2)
+      assertResult(RationalExt(q1 * q2))(r1 * r2)
+      if (n2 != 0) assertResult(RationalExt(q1 / q2))(r1 / r2)
+      assertResult(q1 compare q2)(r1 compare r2)
+      assertResult(q1.doubleValue)(r1.doubleValue)
+      assertResult(q1.##)(r1.##)
+      assertResult(q1.toString)(r1.toString)
+    }
+  }
+
+  test("operations on large numbers fall back to rationals") {
+    val max = RationalExt(Long.MaxValue)
+    val min = RationalExt(Long.MinValue)
+    assertResult(RationalExt(Rational(Long.MaxValue) + 1))(max + one)
+    assertResult(RationalExt(Rational(Long.MinValue) - 1))(min - one)
+    assertResult(RationalExt(Rational(Long.MaxValue) * 2))(max * RationalExt(2))
+    assertResult(RationalExt(Rational(Long.MinValue).abs))(-min)
+    assertResult(RationalExt(Rational(1, Long.MaxValue) * Rational(1, Long.MaxValue)))(RationalExt(1, Long.MaxValue) * RationalExt(1, Long.MaxValue))
+    assertResult(max)((max + one) - one)
+    assert((max + one) > max)
+    assert(min < max)
+    assert(PositiveInfinity > (max * max))
+    assert(NegativeInfinity < (min * max))
+  }
+
+  test("division with zero and infinities") {
+    assertResult(PositiveInfinity)(one / zero)
+    assertResult(NegativeInfinity)(minusOne / zero)
+    assert(!(zero / zero).isZero && !(zero / zero).isInfinity)
+    assertResult(zero)(RationalExt(5) / PositiveInfinity)
+    assertResult(zero)(RationalExt(5) / NegativeInfinity)
+    assertResult(NegativeInfinity)(PositiveInfinity / minusOne)
+    assertResult(PositiveInfinity)(NegativeInfinity / minusOne)
+    assertResult(PositiveInfinity)(PositiveInfinity / RationalExt(3))
+  }
+
+  test("min and max") {
+    assertResult(one)(one max minusOne)
+    assertResult(minusOne)(one min minusOne)
+    assertResult(PositiveInfinity)(one max PositiveInfinity)
+    assertResult(one)(one min PositiveInfinity)
+    assertResult(NegativeInfinity)(one min NegativeInfinity)
+    assert(!(one max NaN).isZero && !(one max NaN).isInfinity && (one max NaN).toString == "NaN")
+  }
 }
@@ -21,7 +21,8 @@ package it.unich.jandom.benchmarks
 import it.unich.jandom.benchmark.FASTLoader
 import it.unich.jandom.domains.numerical.{BoxDoubleDomain, NumericalDomain}
 import it.unich.jandom.targets.Parameters
-import it.unich.jandom.targets.lts.{LTS, Location}
+import it.unich.jandom.targets.parameters.IterationStrategy
+import it.unich.jandom.targets.lts.{LTS, LTSBatchAnalyzer, Location}
 import it.unich.scalafix.FixpointSolver._
 import it.unich.scalafix.finite.FiniteFixpointSolver
 import it.unich.scalafix.lattice.Domain
@@ -49,6 +50,21 @@ class FASTBenchmark extends FASTLoader {
     for (lts <- ltss) lts.analyze(params)
   }
 
+  @Benchmark
+  def timeLTSParallel(): Unit = {
+    val params = new Parameters[LTS] {
+      val domain: NumericalDomain = dom
+    }
+    params.iterationStrategy = IterationStrategy.Parallel
+    for (lts <- ltss) lts.analyze(params)
+  }
+
+  @Benchmark
+  def timeLTSBatch(): Unit = {
+    val analyzer = new LTSBatchAnalyzer(dom)
+    analyzer.analyze(ltss).foreach(_ => ())
+  }
+
   @Benchmark
   def timeEQSKleene(): Unit = {
     for (lts <- ltss) {
@@ -0,0 +1,60 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.benchmarks
+
+import it.unich.jandom.benchmark.FASTLoader
+import it.unich.jandom.domains.numerical.{BoxDoubleDomain, NumericalDomain}
+import it.unich.jandom.targets.Parameters
+import it.unich.jandom.targets.lts.LTS
+import org.openjdk.jmh.annotations._
+
+/**
+  * This benchmark measures the cost of debug logging in the analysis of the
+  * Alice benchmarks. With the default debug writer, messages are never built,
+  * hence `timeLTSNoDebug` only pays for checking whether debugging is enabled.
+  * The other benchmark uses a writer which discards its input, hence the
+  * difference between the two measures the cost of building the messages.
+  */
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+class LoggingBenchmark extends FASTLoader {
+
+  val dom = BoxDoubleDomain()
+
+  private def parameters = new Parameters[LTS] {
+    val domain: NumericalDomain = dom
+  }
+
+  @Benchmark
+  def timeLTSNoDebug(): Unit = {
+    val params = parameters
+    for (lts <- ltss) lts.analyze(params)
+  }
+
+  @Benchmark
+  def timeLTSDebugToNullWriter(): Unit = {
+    val params = parameters
+    params.debugWriter = new java.io.Writer {
+      override def write(cbuf: Array[Char], off: Int, len: Int) = {}
+      override def flush() = {}
+      override def close() = {}
+    }
+    for (lts <- ltss) lts.analyze(params)
+  }
+}
@@ -0,0 +1,190 @@
+/**
+  * Copyright 2026 Jandom Team
+  *
+  * This file is part of JANDOM: JVM-based Analyzer for Numerical DOMains
+  * JANDOM is free software: you can redistribute it and/or modify
+  * it under the terms of the GNU General Public License as published by
+  * the Free Software Foundation, either version 3 of the License, or
+  * (at your option) any later version.
+  *
+  * JANDOM is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of a
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Public License for more details.
+  *
+  * You should have received a copy of the GNU General Public License
+  * along with JANDOM.  If not, see <http://www.gnu.org/licenses/>.
+  */
+
+package it.unich.jandom.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import scala.util.Try
+
+import it.unich.jandom.domains.numerical._
+import it.unich.jandom.domains.numerical.Utils.{LinearForms, OpSequences}
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.profile.GCProfiler
+import org.openjdk.jmh.runner.Runner
+import org.openjdk.jmh.runner.options.OptionsBuilder
+import org.scalacheck.Gen
+import org.scalacheck.rng.Seed
+
+/**
+  * This benchmark measures the basic operations of all the native numerical domains, for
+  * different numbers of variables. Inputs are generated once for each trial with the ScalaCheck
+  * generators used in the test suites, starting from a fixed seed, hence they are the same in
+  * all the runs. None of the domains depends on PPL or Apron.
+  *
+  * Allocation rates are as important as times, hence the benchmark should be run with the GC
+  * profiler, either with `Jmh/run -prof gc NumericalDomainBenchmark` or with the `main` method
+  * of the companion object.
+  */
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class NumericalDomainBenchmark {
+
+  @Param(Array("4", "16", "32"))
+  var dimension: Int = _
+
+  @Param(Array("BoxDouble", "BoxRational", "Parallelotope", "Octagon", "SumBoxParallelotope", "Product"))
+  var domainName: String = _
+
+  private var fixture: NumericalDomainBenchmark.Fixture = _
+
+  private var current = 0
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    fixture = new NumericalDomainBenchmark.Fixture(NumericalDomainBenchmark.domains(domainName), dimension)
+  }
+
+  /**
+    * Returns the index of the next input. Inputs are used in a round robin fashion, so that
+    * results cannot be cached.
+    */
+  private def next(): Int = {
+    current = (current + 1) % NumericalDomainBenchmark.size
+    current
+  }
+
+  @Benchmark
+  def union(): AnyRef = {
+    val f = fixture
+    val i = next()
+    f.props(i) union f.others(i)
+  }
+
+  @Benchmark
+  def intersection(): AnyRef = {
+    val f = fixture
+    val i = next()
+    f.props(i) intersection f.others(i)
+  }
+
+  @Benchmark
+  def widening(): AnyRef = {
+    val f = fixture
+    val i = next()
+    f.props(i) widening f.joined(i)
+  }
+
+  @Benchmark
+  def linearAssignment(): AnyRef = {
+    val f = fixture
+    val i = next()
+    f.props(i).linearAssignment(i % dimension, f.lfs(i))
+  }
+
+  @Benchmark
+  def linearInequality(): AnyRef = {
+    val f = fixture
+    val i = next()
+    f.props(i).linearInequality(f.lfs(i))
+  }
+
+  @Benchmark
+  def minimize(): AnyRef = {
+    val f = fixture
+    val i = next()
+    f.props(i).minimize(f.lfs(i))
+  }
+
+  @Benchmark
+  def tryCompareTo(): Option[Int] = {
+    val f = fixture
+    val i = next()
+    f.props(i) tryCompareTo f.joined(i)
+  }
+}
+
+object NumericalDomainBenchmark {
+
+  /**
+    * The number of inputs for each operation.
+    */
+  val size = 16
+
+  /**
+    * The number of random operations used to build each property.
+    */
+  val length = 12
+
+  /**
+    * The domains under benchmark, indexed by the value of the `domainName` parameter.
+    */
+  val domains: Map[String, NumericalDomain] = Map(
+    "BoxDouble" -> BoxDoubleDomain(),
+    "BoxRational" -> BoxRationalDomain(),
+    "Parallelotope" -> ParallelotopeRationalDomain(),
+    "Octagon" -> OctagonDomain(),
+    "SumBoxParallelotope" -> SumBoxDoubleParallelotopeRationDomain(),
+    "Product" -> new ProductDomain(BoxDoubleDomain(), ParallelotopeRationalDomain())
+  )
+
+  /**
+    * The inputs of the benchmark for the domain `dom` and `n` variables.
+    */
+  class Fixture(val dom: NumericalDomain, n: Int) {
+    private val params = Gen.Parameters.default
+    private var seed = Seed(20260101L)
+
+    private def sample[T](g: Gen[T]): T = {
+      val result = g.pureApply(params, seed)
+      seed = seed.next
+      result
+    }
+
+    /**
+      * Builds a property by applying a random sequence of assignments and inequalities to
+      * top. Operations which make the property empty, or which the domain cannot perform,
+      * are skipped.
+      */
+    private def randomProperty(): dom.Property =
+      sample(OpSequences.genSeq(n, length)).foldLeft(dom.top(n)) { (p, op) =>
+        Try(OpSequences.applyOp(p)(op)).filter(!_.isEmpty).getOrElse(p)
+      }
+
+    val props: Array[dom.Property] = Array.fill(size)(randomProperty())
+
+    val others: Array[dom.Property] = Array.fill(size)(randomProperty())
+
+    val joined: Array[dom.Property] = Array.tabulate(size) { i => props(i) union others(i) }
+
+    val lfs: Array[LinearForm] = Array.fill(size)(sample(LinearForms.GenIntLf(n + 1)))
+  }
+
+  /**
+    * Runs the benchmark with the GC profiler.
+    */
+  def main(args: Array[String]): Unit = {
+    val options = new OptionsBuilder()
+      .include(classOf[NumericalDomainBenchmark].getSimpleName)
+      .addProfiler(classOf[GCProfiler])
+      .build()
+    new Runner(options).run()
+  }
+}
@@ -19,8 +19,10 @@
 package it.unich.jandom.benchmarks
 
 import it.unich.jandom.benchmark.FASTLoader
-import it.unich.jandom.domains.numerical.BoxDoubleDomain
-import it.unich.jandom.targets.lts.Location
+import it.unich.jandom.domains.numerical.{BoxDoubleDomain, NumericalDomain}
+import it.unich.jandom.targets.{FixpointMetrics, Parameters}
+import it.unich.jandom.targets.lts.{LTS, Location}
+import it.unich.jandom.targets.parameters.IterationStrategy
 import it.unich.scalafix.FixpointSolver._
 import it.unich.scalafix.FixpointSolverTracer
 import it.unich.scalafix.finite.FiniteFixpointSolver
@@ -59,6 +61,21 @@ object FASTComparison extends App with FASTLoader {
     println(s"solver $name iterations $numiters")
   }
 
+  // the built-in analyzer of LTS counts the evaluations of locations in its fixpoint metrics
+  for (strategy <- IterationStrategy.values) {
+    val metrics = new FixpointMetrics
+    for (lts <- ltss) {
+      val params = new Parameters[LTS] {
+        val domain: NumericalDomain = dom
+      }
+      params.iterationStrategy = strategy
+      params.metrics = Some(metrics)
+      lts.analyze(params)
+    }
+    val numiters = metrics.summary.points.map(_.evaluations).sum
+    println(s"built-in analyzer with strategy $strategy iterations $numiters")
+  }
+
   for (i <- parameters.indices; j <- i + 1 until parameters.size) {
     val name1 = parameters(i)._1
     val name2 = parameters(j)._1
@@ -94,7 +111,8 @@ object FASTComparison extends App with FASTLoader {
       globalgt += gt
       globalun += un
     }
-    // for comparison, the old solver integrated in the LTS class has 1170 evaluations for worklist based analysis and 1706 evaluations for Kleene.
+    // for comparison, the old solver integrated in the LTS class has 1170 evaluations for worklist based analysis and 1706 evaluations for Kleene,
+    // see above for the current figures and those of the priority and recursive strategies.
     println(s"\n-------------------")
     println(s"$name1 vs $name2")
     println("Uncomparable: " + globalun)